@@ -38,7 +38,9 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.jboss.as.protocol.CompressedOutputStream;
 import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
 import org.jboss.as.protocol.mgmt.ManagementRequest;
 import org.jboss.as.protocol.mgmt.ManagementRequestConnectionStrategy;
 import org.jboss.dmr.ModelNode;
@@ -118,7 +120,7 @@ abstract class AbstractModelControllerClient implements ModelControllerClient {
         executorService.shutdown();
     }
 
-    abstract ManagementRequestConnectionStrategy getConnectionStrategy();
+    abstract ManagementRequestConnectionStrategy getConnectionStrategy() throws IOException;
 
     private ModelNode readNode(InputStream in) throws IOException {
         ModelNode node = new ModelNode();
@@ -126,6 +128,26 @@ abstract class AbstractModelControllerClient implements ModelControllerClient {
         return node;
     }
 
+    /**
+     * Write an operation, compressing it if the server understands compressed content.  Operations carrying
+     * deployment content can be very large; small ones are sent as is by the {@link CompressedOutputStream}.
+     */
+    private void writeOperation(int protocolVersion, OutputStream output, ModelNode operation) throws IOException {
+        if (protocolVersion < ManagementProtocol.COMPRESSED_CONTENT_VERSION) {
+            output.write(ModelControllerClientProtocol.PARAM_OPERATION);
+            operation.writeExternal(output);
+            return;
+        }
+        output.write(ModelControllerClientProtocol.PARAM_COMPRESSED_OPERATION);
+        final CompressedOutputStream compressed = new CompressedOutputStream(output);
+        try {
+            operation.writeExternal(compressed);
+            compressed.close();
+        } finally {
+            StreamUtils.safeClose(compressed);
+        }
+    }
+
     private abstract class ModelControllerRequest<T> extends ManagementRequest<T>{
         @Override
         protected byte getHandlerId() {
@@ -154,8 +176,7 @@ abstract class AbstractModelControllerClient implements ModelControllerClient {
         /** {@inheritDoc} */
         @Override
         protected void sendRequest(int protocolVersion, OutputStream output) throws IOException {
-            output.write(ModelControllerClientProtocol.PARAM_OPERATION);
-            operation.writeExternal(output);
+            writeOperation(protocolVersion, output, operation);
         }
 
 
@@ -192,8 +213,7 @@ abstract class AbstractModelControllerClient implements ModelControllerClient {
         /** {@inheritDoc} */
         @Override
         protected void sendRequest(int protocolVersion, OutputStream output) throws IOException {
-            output.write(ModelControllerClientProtocol.PARAM_OPERATION);
-            operation.writeExternal(output);
+            writeOperation(protocolVersion, output, operation);
         }
 
 
@@ -21,20 +21,41 @@
 */
 package org.jboss.as.controller.client;
 
+import java.io.IOException;
 import java.net.InetAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.mgmt.ManagementChannel;
 import org.jboss.as.protocol.mgmt.ManagementRequestConnectionStrategy;
 
 /**
+ * A client which runs all requests, including concurrent ones, over a single connection to the management interface
+ * once the server is known to read the messages of concurrent requests interleaved.  Until a response has shown that,
+ * and always for servers which predate it, each request uses a connection of its own.  A new shared connection is
+ * established if the previous one has failed.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  * @version $Revision: 1.1 $
  */
 public class EstablishConnectionModelControllerClient extends AbstractModelControllerClient {
     private static final long CONNECTION_TIMEOUT = TimeUnit.SECONDS.toMillis(5L);
+    // the connection is kept open between requests, so its read thread must not keep the VM alive
+    private static final ThreadFactory READ_THREAD_FACTORY = new ThreadFactory() {
+        public Thread newThread(final Runnable r) {
+            final Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
     private final InetAddress address;
     private final int port;
+    // set once a response shows that the server accepts multiplexed messages
+    private volatile boolean multiplexing;
+    // protected by this
+    private ManagementChannel channel;
 
     public EstablishConnectionModelControllerClient(Type type, InetAddress address, int port) {
         super(type);
@@ -42,8 +63,56 @@ public class EstablishConnectionModelControllerClient extends AbstractModelContr
         this.port = port;
     }
 
-    ManagementRequestConnectionStrategy getConnectionStrategy() {
-        return new ManagementRequestConnectionStrategy.EstablishConnectingStrategy(address, port, CONNECTION_TIMEOUT, executorService, threadFactory);
+    ManagementRequestConnectionStrategy getConnectionStrategy() throws IOException {
+        if (multiplexing) {
+            return new ManagementRequestConnectionStrategy.ChannelConnectionStrategy(getChannel());
+        }
+        return new NegotiatingConnectionStrategy();
+    }
+
+    private synchronized ManagementChannel getChannel() throws IOException {
+        if (channel == null || ! channel.isOpen()) {
+            channel = ManagementChannel.connect(address, port, (int) CONNECTION_TIMEOUT, executorService, READ_THREAD_FACTORY);
+        }
+        return channel;
+    }
+
+    /**
+     * Runs a request over a connection of its own and records whether the response header negotiated a protocol
+     * version which allows the shared connection to be used.
+     */
+    private final class NegotiatingConnectionStrategy extends ManagementRequestConnectionStrategy.EstablishConnectingStrategy {
+        // protected by this
+        private Connection connection;
+
+        NegotiatingConnectionStrategy() {
+            super(address, port, CONNECTION_TIMEOUT, executorService, threadFactory);
+        }
+
+        @Override
+        public synchronized Connection getConnection() throws IOException {
+            connection = super.getConnection();
+            return connection;
+        }
+
+        @Override
+        public synchronized void complete() {
+            if (connection != null && connection.isMultiplexing()) {
+                multiplexing = true;
+            }
+            super.complete();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+        super.close();
     }
 
 }
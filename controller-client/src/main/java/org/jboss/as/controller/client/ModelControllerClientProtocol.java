@@ -42,5 +42,7 @@ public interface ModelControllerClientProtocol {
     int PARAM_HANDLE_CANCELLATION = 0x65;
     int PARAM_REQUEST_ID = 0x66;
     int PARAM_HANDLE_RESULT_FAILED = 0x67;
+    // An operation written through a CompressedOutputStream, sent instead of PARAM_OPERATION from protocol version 2
+    int PARAM_COMPRESSED_OPERATION = 0x68;
 
 }
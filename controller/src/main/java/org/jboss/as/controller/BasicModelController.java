@@ -44,12 +44,20 @@ import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.NewConfigurationPersister;
+import org.jboss.as.controller.persistence.OperationJournalPersister;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.logging.Logger;
 
 /**
  * A basic model controller.
+ * <p>
+ * The model is held as a series of snapshots.  The current snapshot is published through a volatile field and is
+ * never modified once published, so queries read it without any locking.  Updates are serialized against each other
+ * and publish a new snapshot which copies only the nodes along the path to the updated address, sharing every
+ * untouched branch with the previous snapshot.
+ * </p>
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
@@ -58,7 +66,8 @@ public class BasicModelController implements ModelController {
     private static final Logger log = Logger.getLogger("org.jboss.as.controller");
 
     private final ModelNodeRegistration registry;
-    private final ModelNode model;
+    private final Object writeLock = new Object();
+    private volatile ModelNode model;
     private final NewConfigurationPersister configurationPersister;
 
 
@@ -155,10 +164,7 @@ public class BasicModelController implements ModelController {
                 subModel = new ModelNode();
             } else if (operationHandler instanceof ModelQueryOperationHandler) {
                 // or model update operation handler...
-                final ModelNode model = this.model;
-                synchronized (model) {
-                    subModel = address.navigate(model, false).clone();
-                }
+                subModel = address.navigate(this.model, false).clone();
             } else {
                 subModel = null;
             }
@@ -173,14 +179,9 @@ public class BasicModelController implements ModelController {
 
                 @Override
                 public void handleResultComplete(final ModelNode compensatingOperation) {
-                    final ModelNode model = BasicModelController.this.model;
-                    synchronized (model) {
-                        if (operationHandler instanceof ModelRemoveOperationHandler) {
-                            address.remove(model);
-                        } else {
-                            address.navigate(model, true).set(subModel);
-                        }
-                        persistConfiguration(model);
+                    synchronized (writeLock) {
+                        final ModelNode model = publish(address, operationHandler instanceof ModelRemoveOperationHandler ? null : subModel);
+                        persistConfiguration(model, operation);
                     }
                     handler.handleResultComplete(compensatingOperation);
                 }
@@ -203,6 +204,26 @@ public class BasicModelController implements ModelController {
         }
     }
 
+    /**
+     * Persist the configuration after an update was executed.  If the configuration persister is an
+     * {@link OperationJournalPersister}, only the operation is recorded; otherwise this method delegates
+     * to {@link #persistConfiguration(ModelNode)}.
+     *
+     * @param model the new model
+     * @param operation the operation which produced the new model
+     */
+    protected void persistConfiguration(final ModelNode model, final ModelNode operation) {
+        if (configurationPersister instanceof OperationJournalPersister) {
+            try {
+                ((OperationJournalPersister) configurationPersister).store(model, operation);
+            } catch (final ConfigurationPersistenceException e) {
+                log.warnf(e, "Failed to persist configuration change: %s", e);
+            }
+        } else {
+            persistConfiguration(model);
+        }
+    }
+
     /**
      * Persist the configuration after an update was executed.
      *
@@ -265,10 +286,118 @@ public class BasicModelController implements ModelController {
         return registry;
     }
 
+    /**
+     * Get the current snapshot of the model.  The returned node is shared with concurrent readers and must not be
+     * modified once the controller is in use; use {@link #updateModel(PathAddress, ModelNode)} instead.
+     *
+     * @return the current model snapshot
+     */
     protected ModelNode getModel() {
         return model;
     }
 
+    /**
+     * Publish a new model snapshot with the given address set to the given value, creating the last element of the
+     * address if it does not exist.  The change is not persisted.
+     *
+     * @param address the address to update
+     * @param value the new value, or {@code null} to remove the node at the address
+     */
+    protected void updateModel(final PathAddress address, final ModelNode value) {
+        synchronized (writeLock) {
+            publish(address, value);
+        }
+    }
+
+    /**
+     * Publish a new model snapshot with an undefined node at the given address, unless a node is already defined
+     * there.  The change is not persisted.
+     *
+     * @param address the address of the node
+     */
+    protected void createModel(final PathAddress address) {
+        synchronized (writeLock) {
+            ModelNode node = model;
+            for (final PathElement element : address) {
+                if (! node.has(element.getKey()) || ! node.get(element.getKey()).has(element.getValue())) {
+                    publish(address, new ModelNode());
+                    return;
+                }
+                node = node.get(element.getKey()).get(element.getValue());
+            }
+            if (! node.isDefined()) {
+                publish(address, new ModelNode());
+            }
+        }
+    }
+
+    /**
+     * Create and publish a new snapshot.  Must be called holding {@link #writeLock}.
+     *
+     * @param address the address to update
+     * @param value the new value, or {@code null} to remove the node at the address
+     * @return the new snapshot
+     */
+    private ModelNode publish(final PathAddress address, final ModelNode value) {
+        final ModelNode newModel;
+        final int size = address.size();
+        if (size == 0) {
+            newModel = value == null ? new ModelNode().setEmptyObject() : value;
+        } else {
+            // the resources along the address in the current snapshot, which are only ever read; missing levels are
+            // created in the new snapshot, as navigating with create did
+            final ModelNode[] resources = new ModelNode[size];
+            resources[0] = model;
+            for (int i = 1; i < size; i++) {
+                final PathElement element = address.getElement(i - 1);
+                final ModelNode parent = resources[i - 1];
+                resources[i] = parent.has(element.getKey()) && parent.get(element.getKey()).has(element.getValue())
+                        ? parent.get(element.getKey()).get(element.getValue()) : new ModelNode();
+            }
+            // copy each level bottom-up, so every change is made to a fresh copy before it is set into its parent
+            ModelNode child = null;
+            for (int i = size - 1; i >= 0; i--) {
+                final PathElement element = address.getElement(i);
+                final ModelNode resource = resources[i];
+                final ModelNode type = resource.has(element.getKey()) ? shallowCopy(resource.get(element.getKey())) : new ModelNode();
+                if (i < size - 1) {
+                    type.get(element.getValue()).set(child);
+                } else if (value == null) {
+                    if (type.has(element.getValue())) {
+                        type.remove(element.getValue());
+                    }
+                } else {
+                    type.get(element.getValue()).set(value);
+                }
+                final ModelNode copy = shallowCopy(resource);
+                copy.get(element.getKey()).set(type);
+                child = copy;
+            }
+            newModel = child;
+        }
+        model = newModel;
+        return newModel;
+    }
+
+    /**
+     * Copy a node without copying its children.  For an object node the returned node has its own set of keys, each
+     * holding a new node set to the value of the original child, so children can be replaced or removed without
+     * affecting the original node; other node types are cloned.
+     *
+     * @param node the node to copy
+     * @return the copy
+     */
+    private static ModelNode shallowCopy(final ModelNode node) {
+        if (node.getType() != ModelType.OBJECT) {
+            return node.clone();
+        }
+        final ModelNode copy = new ModelNode().setEmptyObject();
+        for (final String key : node.keys()) {
+            copy.get(key).set(node.get(key));
+        }
+        return copy;
+    }
+
     /** {@inheritDoc} */
     @Override
     public ModelNode execute(final ModelNode operation) throws OperationFailedException {
@@ -400,7 +529,7 @@ public class BasicModelController implements ModelController {
                 final ByteArrayOutputStream baos = new ByteArrayOutputStream();
                 try {
                     BufferedOutputStream output = new BufferedOutputStream(baos);
-                    configurationPersister.marshallAsXml(model, output);
+                    configurationPersister.marshallAsXml(BasicModelController.this.model, output);
                     output.close();
                     baos.close();
                 } finally {
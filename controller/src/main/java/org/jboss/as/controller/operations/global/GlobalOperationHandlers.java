@@ -21,9 +21,7 @@
  */
 package org.jboss.as.controller.operations.global;
 
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILDREN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
@@ -36,7 +34,6 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STORAGE;
 
 import java.util.Iterator;
 import java.util.Locale;
@@ -57,7 +54,6 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.AttributeAccess.AccessType;
-import org.jboss.as.controller.registry.AttributeAccess.Storage;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.dmr.ModelNode;
 
@@ -350,9 +346,11 @@ public class GlobalOperationHandlers {
 
                 final ModelNodeRegistration registry = context.getRegistry();
                 final PathAddress address = PathAddress.pathAddress(operation.require(ADDRESS));
-                final DescriptionProvider descriptionProvider = registry.getModelDescription(address);
                 final Locale locale = getLocale(operation);
-                final ModelNode result = descriptionProvider.getModelDescription(locale);
+                final ModelNode result = registry.getResourceDescription(address, locale, operations);
+                if (result == null) {
+                    throw new IllegalArgumentException("No description provider found for " + address);
+                }
 
                 addDescription(result, recursive, operations, registry, address, locale);
 
@@ -400,40 +398,11 @@ public class GlobalOperationHandlers {
 
         private void addDescription(final ModelNode result, final boolean recursive, final boolean operations, final ModelNodeRegistration registry, final PathAddress address, final Locale locale) throws OperationFailedException {
 
-            if (operations) {
-                final Map<String, DescriptionProvider> ops = registry.getOperationDescriptions(address);
-                if (ops.size() > 0) {
-
-                    for (final Map.Entry<String, DescriptionProvider> entry : ops.entrySet()) {
-                        result.get(OPERATIONS, entry.getKey()).set(entry.getValue().getModelDescription(locale));
-                    }
-
-                } else {
-                    result.get(OPERATIONS).setEmptyList();
-                }
-            }
-
-            if (result.has(ATTRIBUTES)) {
-                for (final String attr : result.require(ATTRIBUTES).keys()) {
-                     final AttributeAccess access = registry.getAttributeAccess(address, attr);
-                     // If there is metadata for an attribute but no AttributeAccess, assume RO. Can't
-                     // be writable without a registered handler. This opens the possibility that out-of-date metadata
-                     // for attribute "foo" can lead to a read of non-existent-in-model "foo" with
-                     // an unexpected undefined value returned. But it removes the possibility of a
-                     // dev forgetting to call registry.registerReadOnlyAttribute("foo", null) resulting
-                     // in the valid attribute "foo" not being readable
-                     final AccessType accessType = access == null ? AccessType.READ_ONLY : access.getAccessType();
-                     final Storage storage = access == null ? Storage.CONFIGURATION : access.getStorageType();
-                     result.get(ATTRIBUTES, attr, ACCESS_TYPE).set(accessType.toString()); //TODO i18n
-                     result.get(ATTRIBUTES, attr, STORAGE).set(storage.toString());
-                }
-            }
             if (recursive && result.has(CHILDREN)) {
                 for (final PathElement element : registry.getChildAddresses(address)) {
                     final PathAddress childAddress = address.append(element);
-                    final DescriptionProvider provider = registry.getModelDescription(childAddress);
-                    final ModelNode child;
-                    if (provider == null) {
+                    ModelNode child = registry.getResourceDescription(childAddress, locale, operations);
+                    if (child == null) {
                         //It is probably a proxy
                         Set<ProxyController> proxyControllers = registry.getProxyControllers(childAddress);
                         if (proxyControllers.size() != 1) {
@@ -452,7 +421,6 @@ public class GlobalOperationHandlers {
                         child = proxyControllers.iterator().next().execute(operation).get(RESULT);
 
                     } else {
-                        child = provider.getModelDescription(locale);
                         addDescription(child, recursive, operations, registry, childAddress, locale);
                     }
                     result.get(CHILDREN, element.getKey(),MODEL_DESCRIPTION, element.getValue()).set(child);
@@ -461,6 +429,20 @@ public class GlobalOperationHandlers {
         }
     };
 
+    /**
+     * {@link OperationHandler} reading the number of resource descriptions cached by the registry, for registration
+     * as a metric of the root resource.
+     */
+    public static final ModelQueryOperationHandler READ_DESCRIPTION_CACHE_SIZE = new ModelQueryOperationHandler() {
+
+        @Override
+        public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode().set(context.getRegistry().getDescriptionCacheSize()));
+            resultHandler.handleResultComplete(null);
+            return Cancellable.NULL;
+        }
+    };
+
     private static Locale getLocale(final ModelNode operation) {
         if (!operation.has(LOCALE)) {
             return null;
@@ -0,0 +1,321 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.staxmapper.XMLElementWriter;
+
+/**
+ * A configuration persister which stores the configuration on a background thread.  A store request only records the
+ * model to be written; all requests received within {@code delay} milliseconds of the first unwritten one are
+ * coalesced into a single write of the most recent model.  The stored configuration is therefore never more than
+ * {@code delay} milliseconds (plus the time taken by the write itself) behind the model.
+ * <p>
+ * The models passed to {@link #store(ModelNode)} are retained until written, so they must not be modified by the
+ * caller afterwards; the snapshots published by {@link org.jboss.as.controller.BasicModelController} satisfy this.
+ * {@link #shutdown()} must be called to guarantee that the last change is written.
+ * </p>
+ * <p>
+ * The write metrics can be registered as management metrics using {@link #METRICS} and {@link #getMetricHandler()}.
+ * </p>
+ */
+public class AsyncConfigurationPersister implements ExtensibleConfigurationPersister {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    /** Metric holding the number of changes waiting to be written. */
+    public static final String PENDING_COUNT = "config-persist-pending-count";
+    /** Metric holding the number of times the configuration has been written. */
+    public static final String STORE_COUNT = "config-persist-store-count";
+    /** Metric holding the number of changes written as part of a later change. */
+    public static final String COALESCED_COUNT = "config-persist-coalesced-count";
+    /** Metric holding the time, in milliseconds, taken by the most recent write. */
+    public static final String LAST_STORE_TIME = "config-persist-last-store-time";
+    /** Metric holding the time, in milliseconds, taken by the slowest write. */
+    public static final String MAX_STORE_TIME = "config-persist-max-store-time";
+
+    /** The names of all metrics answered by {@link #getMetricHandler()}. */
+    public static final String[] METRICS = { PENDING_COUNT, STORE_COUNT, COALESCED_COUNT, LAST_STORE_TIME, MAX_STORE_TIME };
+
+    private final ExtensibleConfigurationPersister delegate;
+    private final long delay;
+    private final ScheduledExecutorService executor;
+    private final Runnable writeTask = new Runnable() {
+        public void run() {
+            write();
+        }
+    };
+
+    private final Object lock = new Object();
+    // held while taking a pending model and storing it, so models reach the delegate in the order they were stored
+    private final Object storeLock = new Object();
+    // protected by lock
+    private ModelNode pending;
+    private int pendingCount;
+    private boolean scheduled;
+    private boolean shutdown;
+
+    private final ModelQueryOperationHandler metricHandler = new ModelQueryOperationHandler() {
+        public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+            final String metric = operation.require(NAME).asString();
+            final ModelNode result = new ModelNode();
+            if (PENDING_COUNT.equals(metric)) {
+                result.set(getPendingCount());
+            } else if (STORE_COUNT.equals(metric)) {
+                result.set(getStoreCount());
+            } else if (COALESCED_COUNT.equals(metric)) {
+                result.set(getCoalescedCount());
+            } else if (LAST_STORE_TIME.equals(metric)) {
+                result.set(getLastStoreTime());
+            } else if (MAX_STORE_TIME.equals(metric)) {
+                result.set(getMaxStoreTime());
+            }
+            resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+            resultHandler.handleResultComplete(null);
+            return Cancellable.NULL;
+        }
+    };
+
+    // metrics
+    private volatile long storeCount;
+    private volatile long coalescedCount;
+    private volatile long lastStoreTime;
+    private volatile long maxStoreTime;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param delegate the persister which actually stores the configuration
+     * @param delay the maximum time, in milliseconds, a change may wait before it is written
+     */
+    public AsyncConfigurationPersister(final ExtensibleConfigurationPersister delegate, final long delay) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate is null");
+        }
+        if (delay < 0) {
+            throw new IllegalArgumentException("delay may not be less than 0");
+        }
+        this.delegate = delegate;
+        this.delay = delay;
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Configuration Persister");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void store(final ModelNode model) throws ConfigurationPersistenceException {
+        synchronized (lock) {
+            if (! shutdown) {
+                pending = model;
+                pendingCount++;
+                if (! scheduled) {
+                    scheduled = true;
+                    executor.schedule(writeTask, delay, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        // after shutdown, fall back to storing synchronously, once any change still pending has been written
+        synchronized (storeLock) {
+            write();
+            delegate.store(model);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        delegate.marshallAsXml(model, output);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        return delegate.load();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemWriter(name, writer);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemDeploymentWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemDeploymentWriter(name, writer);
+    }
+
+    /**
+     * Write any pending change immediately, waiting for the write to complete.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public void flush() throws InterruptedException {
+        try {
+            executor.submit(writeTask).get();
+        } catch (RejectedExecutionException e) {
+            // already shut down; everything has been written
+        } catch (ExecutionException e) {
+            log.errorf(e.getCause(), "Failed to flush configuration changes");
+        }
+    }
+
+    /**
+     * Write any pending change and stop the background thread.  Changes stored after this method is called are
+     * written synchronously.
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+        }
+        boolean intr = false;
+        try {
+            for (;;) try {
+                flush();
+                break;
+            } catch (InterruptedException e) {
+                intr = true;
+            }
+        } finally {
+            executor.shutdownNow();
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Get the number of changes waiting to be written.
+     *
+     * @return the number of pending changes
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pendingCount;
+        }
+    }
+
+    /**
+     * Get the number of times the configuration has been written.
+     *
+     * @return the number of writes
+     */
+    public long getStoreCount() {
+        return storeCount;
+    }
+
+    /**
+     * Get the number of changes which were written as part of a later change rather than on their own.
+     *
+     * @return the number of coalesced changes
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Get the time taken by the most recent write.
+     *
+     * @return the time, in milliseconds
+     */
+    public long getLastStoreTime() {
+        return lastStoreTime;
+    }
+
+    /**
+     * Get the time taken by the slowest write.
+     *
+     * @return the time, in milliseconds
+     */
+    public long getMaxStoreTime() {
+        return maxStoreTime;
+    }
+
+    /**
+     * Get the handler answering the {@link #METRICS} of this persister, for registration as management metrics.
+     *
+     * @return the metric handler
+     */
+    public ModelQueryOperationHandler getMetricHandler() {
+        return metricHandler;
+    }
+
+    private void write() {
+        synchronized (storeLock) {
+            final ModelNode model;
+            final int count;
+            synchronized (lock) {
+                model = pending;
+                count = pendingCount;
+                pending = null;
+                pendingCount = 0;
+                scheduled = false;
+            }
+            if (model == null) {
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                delegate.store(model);
+            } catch (final ConfigurationPersistenceException e) {
+                log.warnf(e, "Failed to persist configuration change: %s", e);
+            } finally {
+                // only updated holding storeLock
+                final long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                lastStoreTime = time;
+                if (time > maxStoreTime) {
+                    maxStoreTime = time;
+                }
+                storeCount++;
+                coalescedCount += count - 1;
+                log.debugf("Persisted %d configuration change(s) in %d ms", Integer.valueOf(count), Long.valueOf(time));
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.staxmapper.XMLElementWriter;
+
+/**
+ * A configuration persister which appends each applied operation to a journal file instead of rewriting the whole
+ * configuration.  The full configuration is held by a delegate persister (normally an XML persister) which acts as
+ * the snapshot; once the journal holds {@code compactionThreshold} operations the current model is stored through the
+ * delegate and the journal is emptied.  {@link #load()} returns the operations loaded by the delegate followed by the
+ * operations in the journal.
+ * <p>
+ * The journal starts with a header holding a digest of the operations loaded from the snapshot it was written
+ * against, followed by one record per operation: the length of the operation and the operation in DMR binary form.
+ * A record left incomplete by a crash is discarded on load.  If the process dies after a snapshot is written but
+ * before the journal is removed, the digest no longer matches the snapshot and the journal, whose operations are all
+ * contained in the snapshot, is discarded on the next boot rather than applied again.
+ * </p>
+ */
+public class JournalConfigurationPersister implements ExtensibleConfigurationPersister, OperationJournalPersister, Closeable {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    private static final int JOURNAL_MAGIC = 0x4a524e4c;
+    private static final int DIGEST_LENGTH = 20;
+    private static final int HEADER_LENGTH = 4 + DIGEST_LENGTH;
+
+    private final ExtensibleConfigurationPersister snapshotPersister;
+    private final File journalFile;
+    private final int compactionThreshold;
+
+    // protected by this
+    private FileOutputStream journalStream;
+    private DataOutputStream journalOutput;
+    private int journalSize;
+    // digest of the operations in the current snapshot, or null if not yet computed
+    private byte[] snapshotDigest;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param snapshotPersister the persister which stores the full configuration
+     * @param journalFile the journal file
+     * @param compactionThreshold the number of journal entries after which the journal is compacted into a snapshot
+     */
+    public JournalConfigurationPersister(final ExtensibleConfigurationPersister snapshotPersister, final File journalFile, final int compactionThreshold) {
+        if (snapshotPersister == null) {
+            throw new IllegalArgumentException("snapshotPersister is null");
+        }
+        if (journalFile == null) {
+            throw new IllegalArgumentException("journalFile is null");
+        }
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("compactionThreshold may not be less than 1");
+        }
+        this.snapshotPersister = snapshotPersister;
+        this.journalFile = journalFile;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void store(final ModelNode model, final ModelNode operation) throws ConfigurationPersistenceException {
+        if (journalSize + 1 >= compactionThreshold) {
+            store(model);
+            return;
+        }
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            operation.writeExternal(bytes);
+            final DataOutputStream output = getJournalOutput();
+            output.writeInt(bytes.size());
+            bytes.writeTo(output);
+            output.flush();
+            journalStream.getFD().sync();
+            journalSize++;
+        } catch (IOException e) {
+            closeJournal();
+            throw new ConfigurationPersistenceException("Failed to append to configuration journal " + journalFile, e);
+        }
+    }
+
+    /**
+     * Store a full snapshot of the model through the snapshot persister and empty the journal.
+     *
+     * @param model the model to persist
+     * @throws ConfigurationPersistenceException if the snapshot could not be stored
+     */
+    @Override
+    public synchronized void store(final ModelNode model) throws ConfigurationPersistenceException {
+        closeJournal();
+        snapshotDigest = null;
+        snapshotPersister.store(model);
+        if (journalFile.exists() && ! journalFile.delete()) {
+            throw new ConfigurationPersistenceException("Failed to remove configuration journal " + journalFile);
+        }
+        journalSize = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized List<ModelNode> load() throws ConfigurationPersistenceException {
+        final List<ModelNode> updates = snapshotPersister.load();
+        snapshotDigest = digest(updates);
+        journalSize = 0;
+        if (! journalFile.exists()) {
+            return updates;
+        }
+        if (journalFile.length() < HEADER_LENGTH) {
+            // the process died while creating the journal
+            deleteJournal();
+            return updates;
+        }
+        long validLength = HEADER_LENGTH;
+        try {
+            final FileInputStream fis = new FileInputStream(journalFile);
+            try {
+                final DataInputStream input = new DataInputStream(new BufferedInputStream(fis));
+                if (input.readInt() != JOURNAL_MAGIC) {
+                    throw new ConfigurationPersistenceException(journalFile + " is not a configuration journal");
+                }
+                final byte[] digest = new byte[DIGEST_LENGTH];
+                input.readFully(digest);
+                if (! Arrays.equals(digest, snapshotDigest)) {
+                    fis.close();
+                    log.infof("Discarding configuration journal %s, which was written against an earlier configuration snapshot", journalFile);
+                    deleteJournal();
+                    return updates;
+                }
+                for (;;) {
+                    final byte[] bytes;
+                    try {
+                        bytes = new byte[input.readInt()];
+                        input.readFully(bytes);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    final ModelNode operation = new ModelNode();
+                    operation.readExternal(new ByteArrayInputStream(bytes));
+                    updates.add(operation);
+                    validLength += 4 + bytes.length;
+                    journalSize++;
+                }
+                fis.close();
+            } finally {
+                StreamUtils.safeClose(fis);
+            }
+            if (validLength < journalFile.length()) {
+                log.warnf("Discarding incomplete record at the end of configuration journal %s", journalFile);
+                final RandomAccessFile raf = new RandomAccessFile(journalFile, "rw");
+                try {
+                    raf.setLength(validLength);
+                    raf.close();
+                } finally {
+                    StreamUtils.safeClose(raf);
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationPersistenceException("Failed to read configuration journal " + journalFile, e);
+        }
+        return updates;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        snapshotPersister.marshallAsXml(model, output);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        snapshotPersister.registerSubsystemWriter(name, writer);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemDeploymentWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        snapshotPersister.registerSubsystemDeploymentWriter(name, writer);
+    }
+
+    /**
+     * Get the number of operations currently held in the journal.
+     *
+     * @return the number of journal entries
+     */
+    public synchronized int getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Close the journal file.  It is reopened if another operation is stored.
+     */
+    public synchronized void close() {
+        closeJournal();
+    }
+
+    private DataOutputStream getJournalOutput() throws IOException, ConfigurationPersistenceException {
+        if (journalOutput == null) {
+            final boolean created = journalFile.length() == 0L;
+            final byte[] digest = created ? getSnapshotDigest() : null;
+            journalStream = new FileOutputStream(journalFile, true);
+            journalOutput = new DataOutputStream(journalStream);
+            if (created) {
+                journalOutput.writeInt(JOURNAL_MAGIC);
+                journalOutput.write(digest);
+            }
+        }
+        return journalOutput;
+    }
+
+    private byte[] getSnapshotDigest() throws ConfigurationPersistenceException {
+        if (snapshotDigest == null) {
+            snapshotDigest = digest(snapshotPersister.load());
+        }
+        return snapshotDigest;
+    }
+
+    private void deleteJournal() throws ConfigurationPersistenceException {
+        if (! journalFile.delete()) {
+            throw new ConfigurationPersistenceException("Failed to remove configuration journal " + journalFile);
+        }
+    }
+
+    private static byte[] digest(final List<ModelNode> operations) throws ConfigurationPersistenceException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final DigestOutputStream output = new DigestOutputStream(new OutputStream() {
+            public void write(final int b) {
+            }
+
+            public void write(final byte[] b, final int off, final int len) {
+            }
+        }, digest);
+        try {
+            for (ModelNode operation : operations) {
+                operation.writeExternal(output);
+            }
+        } catch (IOException e) {
+            throw new ConfigurationPersistenceException("Failed to compute the digest of the configuration snapshot", e);
+        }
+        return digest.digest();
+    }
+
+    private void closeJournal() {
+        if (journalOutput != null) {
+            StreamUtils.safeClose(journalOutput);
+            journalOutput = null;
+            journalStream = null;
+        }
+    }
+}
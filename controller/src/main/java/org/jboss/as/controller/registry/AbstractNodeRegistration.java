@@ -22,9 +22,15 @@
 
 package org.jboss.as.controller.registry;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATIONS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STORAGE;
+
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,6 +39,9 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.AttributeAccess.AccessType;
+import org.jboss.as.controller.registry.AttributeAccess.Storage;
+import org.jboss.dmr.ModelNode;
 
 /**
  * A registry of model node information.  This registry is thread-safe.
@@ -43,10 +52,12 @@ abstract class AbstractNodeRegistration implements ModelNodeRegistration {
 
     private final String valueString;
     private final NodeSubregistry parent;
+    private final DescriptionCache descriptionCache;
 
     AbstractNodeRegistration(final String valueString, final NodeSubregistry parent) {
         this.valueString = valueString;
         this.parent = parent;
+        descriptionCache = parent == null ? new DescriptionCache() : parent.getDescriptionCache();
     }
 
     /** {@inheritDoc} */
@@ -150,6 +161,66 @@ abstract class AbstractNodeRegistration implements ModelNodeRegistration {
 
     abstract void getProxyControllers(Iterator<PathElement> iterator, Set<ProxyController> controllers);
 
+    /** {@inheritDoc} */
+    @Override
+    public ModelNode getResourceDescription(final PathAddress address, final Locale locale, final boolean operations) {
+        final AbstractNodeRegistration node = getNodeRegistration(address.iterator());
+        final DescriptionProvider descriptionProvider = node == null ? null : getModelDescription(address);
+        if (descriptionProvider == null) {
+            return null;
+        }
+        ModelNode description = descriptionCache.get(node, locale, operations);
+        if (description == null) {
+            final int generation = descriptionCache.getGeneration();
+            description = descriptionProvider.getModelDescription(locale);
+            if (operations) {
+                final Map<String, DescriptionProvider> ops = getOperationDescriptions(address);
+                if (ops.size() > 0) {
+                    for (final Map.Entry<String, DescriptionProvider> entry : ops.entrySet()) {
+                        description.get(OPERATIONS, entry.getKey()).set(entry.getValue().getModelDescription(locale));
+                    }
+                } else {
+                    description.get(OPERATIONS).setEmptyList();
+                }
+            }
+            if (description.has(ATTRIBUTES)) {
+                for (final String attr : description.require(ATTRIBUTES).keys()) {
+                    final AttributeAccess access = getAttributeAccess(address, attr);
+                    // If there is metadata for an attribute but no AttributeAccess, assume RO. Can't
+                    // be writable without a registered handler. This opens the possibility that out-of-date metadata
+                    // for attribute "foo" can lead to a read of non-existent-in-model "foo" with
+                    // an unexpected undefined value returned. But it removes the possibility of a
+                    // dev forgetting to call registry.registerReadOnlyAttribute("foo", null) resulting
+                    // in the valid attribute "foo" not being readable
+                    final AccessType accessType = access == null ? AccessType.READ_ONLY : access.getAccessType();
+                    final Storage storage = access == null ? Storage.CONFIGURATION : access.getStorageType();
+                    description.get(ATTRIBUTES, attr, ACCESS_TYPE).set(accessType.toString()); //TODO i18n
+                    description.get(ATTRIBUTES, attr, STORAGE).set(storage.toString());
+                }
+            }
+            descriptionCache.put(node, locale, operations, description, generation);
+        }
+        return description.clone();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getDescriptionCacheSize() {
+        return descriptionCache.size();
+    }
+
+    /**
+     * Get the registration node which handles an address, following wildcard registrations.
+     *
+     * @param iterator the address iterator
+     * @return the node, or {@code null} if nothing is registered at the address
+     */
+    abstract AbstractNodeRegistration getNodeRegistration(Iterator<PathElement> iterator);
+
+    final DescriptionCache getDescriptionCache() {
+        return descriptionCache;
+    }
+
     final String getLocationString() {
         if (parent == null) {
             return "";
@@ -119,6 +119,7 @@ final class ConcreteNodeRegistration extends AbstractNodeRegistration {
         if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited)) != null) {
             throw new IllegalArgumentException("A handler named '" + operationName + "' is already registered at location '" + getLocationString() + "'");
         }
+        getDescriptionCache().invalidate();
     }
 
     @Override
@@ -126,6 +127,7 @@ final class ConcreteNodeRegistration extends AbstractNodeRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, new AttributeAccess(AccessType.READ_WRITE, storage, readHandler, writeHandler)) != null) {
             throw new IllegalArgumentException("An attribute named '" + attributeName + "' is already registered at location '" + getLocationString() + "'");
         }
+        getDescriptionCache().invalidate();
     }
 
     @Override
@@ -133,6 +135,7 @@ final class ConcreteNodeRegistration extends AbstractNodeRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, new AttributeAccess(AccessType.READ_ONLY, storage, readHandler, null)) != null) {
             throw new IllegalArgumentException("An attribute named '" + attributeName + "' is already registered at location '" + getLocationString() + "'");
         }
+        getDescriptionCache().invalidate();
     }
 
     @Override
@@ -140,6 +143,7 @@ final class ConcreteNodeRegistration extends AbstractNodeRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, new AttributeAccess(AccessType.METRIC, AttributeAccess.Storage.RUNTIME, metricHandler, null)) != null) {
             throw new IllegalArgumentException("An attribute named '" + attributeName + "' is already registered at location '" + getLocationString() + "'");
         }
+        getDescriptionCache().invalidate();
     }
 
     @Override
@@ -212,6 +216,20 @@ final class ConcreteNodeRegistration extends AbstractNodeRegistration {
         }
     }
 
+    @Override
+    AbstractNodeRegistration getNodeRegistration(final Iterator<PathElement> iterator) {
+        if (iterator.hasNext()) {
+            final PathElement next = iterator.next();
+            final NodeSubregistry subregistry = children.get(next.getKey());
+            if (subregistry == null) {
+                return null;
+            }
+            return subregistry.getNodeRegistration(iterator, next.getValue());
+        } else {
+            return this;
+        }
+    }
+
     @Override
     Set<String> getAttributeNames(final Iterator<PathElement> iterator) {
         if (iterator.hasNext()) {
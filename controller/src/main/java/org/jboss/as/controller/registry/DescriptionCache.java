@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The resource descriptions of a registry tree, cached per registration node, locale and whether operations are
+ * included.  Any change to the tree invalidates the whole cache; registrations change rarely (boot, extensions,
+ * proxies), so there is no point in tracking which descriptions a change affects.
+ * <p>
+ * The locale comes from the caller, so only the locales the runtime knows about are cached; descriptions for any
+ * other locale are computed each time, which keeps the cache bounded.
+ */
+final class DescriptionCache {
+
+    private static final Set<Locale> CACHED_LOCALES = Collections.unmodifiableSet(new HashSet<Locale>(Arrays.asList(Locale.getAvailableLocales())));
+
+    private final ConcurrentMap<Key, ModelNode> descriptions = new ConcurrentHashMap<Key, ModelNode>();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Get the current generation, to be passed to {@link #put(AbstractNodeRegistration, Locale, boolean, ModelNode, int)}
+     * when the description computed afterwards is stored.
+     */
+    int getGeneration() {
+        return generation.get();
+    }
+
+    ModelNode get(final AbstractNodeRegistration node, final Locale locale, final boolean operations) {
+        if (! isCached(locale)) {
+            return null;
+        }
+        return descriptions.get(new Key(node, locale, operations));
+    }
+
+    void put(final AbstractNodeRegistration node, final Locale locale, final boolean operations, final ModelNode description, final int generation) {
+        if (! isCached(locale)) {
+            return;
+        }
+        final Key key = new Key(node, locale, operations);
+        descriptions.put(key, description);
+        if (this.generation.get() != generation) {
+            // the registry changed while the description was computed
+            descriptions.remove(key, description);
+        }
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+        descriptions.clear();
+    }
+
+    int size() {
+        return descriptions.size();
+    }
+
+    private static boolean isCached(final Locale locale) {
+        return locale == null || CACHED_LOCALES.contains(locale);
+    }
+
+    private static final class Key {
+        private final AbstractNodeRegistration node;
+        private final Locale locale;
+        private final boolean operations;
+        private final int hashCode;
+
+        Key(final AbstractNodeRegistration node, final Locale locale, final boolean operations) {
+            this.node = node;
+            this.locale = locale;
+            this.operations = operations;
+            hashCode = (System.identityHashCode(node) * 31 + (locale == null ? 0 : locale.hashCode())) * 31 + (operations ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (! (obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return node == other.node && operations == other.operations && (locale == null ? other.locale == null : locale.equals(other.locale));
+        }
+    }
+}
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.registry;
 
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +31,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
 
 /**
  * A registration for a model node which consists of a node description plus operation descriptions.
@@ -197,6 +199,27 @@ public interface ModelNodeRegistration {
      */
     Set<ProxyController> getProxyControllers(PathAddress address);
 
+    /**
+     * Get the description of the resource registered at an address, with the access and storage types of its
+     * attributes and, if requested, the descriptions of its operations.  Child resources are not included.
+     * Descriptions are cached per registration node and locale until the registry is next modified, so repeated
+     * requests do not call the description providers again.
+     *
+     * @param address the address
+     * @param locale the locale, or {@code null} for the default locale
+     * @param operations {@code true} to include the operation descriptions
+     * @return a copy of the description, which the caller may modify, or {@code null} if no description provider
+     *         is registered at the address (for example because it is handled by a proxy)
+     */
+    ModelNode getResourceDescription(PathAddress address, Locale locale, boolean operations);
+
+    /**
+     * Get the number of resource descriptions currently cached by this registry.
+     *
+     * @return the number of cached descriptions
+     */
+    int getDescriptionCacheSize();
+
 
     /**
      * A factory for creating a new, root model node registration.
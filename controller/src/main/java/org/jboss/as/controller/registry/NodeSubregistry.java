@@ -65,6 +65,7 @@ final class NodeSubregistry {
         final AbstractNodeRegistration newRegistry = new ConcreteNodeRegistration(elementValue, this, provider);
         final AbstractNodeRegistration appearingRegistry = childRegistriesUpdater.putIfAbsent(this, elementValue, newRegistry);
         if (appearingRegistry == null) {
+            getDescriptionCache().invalidate();
             return newRegistry;
         } else {
             throw new IllegalArgumentException("A node is already registered at '" + getLocationString() + elementValue + ")'");
@@ -77,10 +78,28 @@ final class NodeSubregistry {
         if (appearingRegistry != null) {
             throw new IllegalArgumentException("A node is already registered at '" + getLocationString() + elementValue + ")'");
         }
+        getDescriptionCache().invalidate();
     }
 
     void unregisterProxyController(final String elementValue) {
         childRegistriesUpdater.remove(this, elementValue);
+        getDescriptionCache().invalidate();
+    }
+
+    DescriptionCache getDescriptionCache() {
+        return parent.getDescriptionCache();
+    }
+
+    AbstractNodeRegistration getNodeRegistration(final Iterator<PathElement> iterator, final String child) {
+        final Map<String, AbstractNodeRegistration> snapshot = childRegistries;
+        AbstractNodeRegistration childRegistry = snapshot.get(child);
+        if (childRegistry == null) {
+            childRegistry = snapshot.get("*");
+            if (childRegistry == null) {
+                return null;
+            }
+        }
+        return childRegistry.getNodeRegistration(iterator);
     }
 
     OperationHandler getHandler(final ListIterator<PathElement> iterator, final String child, final String operationName) {
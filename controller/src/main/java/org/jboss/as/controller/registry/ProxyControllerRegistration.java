@@ -100,6 +100,12 @@ final class ProxyControllerRegistration extends AbstractNodeRegistration {
         return null;
     }
 
+    @Override
+    AbstractNodeRegistration getNodeRegistration(final Iterator<PathElement> iterator) {
+        // the description comes from the proxied controller
+        return null;
+    }
+
     @Override
     Set<String> getAttributeNames(final Iterator<PathElement> iterator) {
         return Collections.emptySet();
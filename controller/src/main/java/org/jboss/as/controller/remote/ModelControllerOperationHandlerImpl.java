@@ -39,6 +39,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.ModelControllerClientProtocol;
+import org.jboss.as.protocol.CompressedInputStream;
 import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.MessageHandler;
 import org.jboss.as.protocol.StreamUtils;
@@ -122,8 +123,24 @@ class ModelControllerOperationHandlerImpl extends AbstractMessageHandler impleme
 
         @Override
         protected final void readRequest(final InputStream inputStream) throws IOException {
-            expectHeader(inputStream, ModelControllerClientProtocol.PARAM_OPERATION);
-            operation = readNode(inputStream);
+            final byte param = readByte(inputStream);
+            switch (param) {
+                case ModelControllerClientProtocol.PARAM_OPERATION:
+                    operation = readNode(inputStream);
+                    break;
+                case ModelControllerClientProtocol.PARAM_COMPRESSED_OPERATION: {
+                    final CompressedInputStream compressed = new CompressedInputStream(inputStream);
+                    try {
+                        operation = readNode(compressed);
+                        compressed.close();
+                    } finally {
+                        StreamUtils.safeClose(compressed);
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Invalid byte token.  Expecting '" + ModelControllerClientProtocol.PARAM_OPERATION + "' received '" + param + "'");
+            }
         }
     }
 
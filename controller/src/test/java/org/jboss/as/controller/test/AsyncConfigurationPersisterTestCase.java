@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import static junit.framework.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.persistence.AbstractConfigurationPersister;
+import org.jboss.as.controller.persistence.AsyncConfigurationPersister;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests coalescing of configuration writes by {@link AsyncConfigurationPersister}.
+ */
+public class AsyncConfigurationPersisterTestCase {
+
+    @Test
+    public void testBurstIsCoalesced() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final AsyncConfigurationPersister persister = new AsyncConfigurationPersister(delegate, 60000L);
+        try {
+            for (int i = 0; i < 100; i++) {
+                persister.store(new ModelNode().set(i));
+            }
+            assertEquals(100, persister.getPendingCount());
+            assertEquals(0, delegate.getStored().size());
+
+            persister.flush();
+            assertEquals(0, persister.getPendingCount());
+            assertEquals(1, delegate.getStored().size());
+            assertEquals(99, delegate.getStored().get(0).asInt());
+            assertEquals(1L, persister.getStoreCount());
+            assertEquals(99L, persister.getCoalescedCount());
+        } finally {
+            persister.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownWritesPendingChange() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final AsyncConfigurationPersister persister = new AsyncConfigurationPersister(delegate, 60000L);
+        persister.store(new ModelNode().set("a"));
+        persister.shutdown();
+        assertEquals(1, delegate.getStored().size());
+
+        // stores after shutdown are synchronous
+        persister.store(new ModelNode().set("b"));
+        assertEquals(2, delegate.getStored().size());
+        assertEquals("b", delegate.getStored().get(1).asString());
+    }
+
+    @Test
+    public void testStoreDuringShutdownIsWrittenLast() throws Exception {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingPersister delegate = new RecordingPersister() {
+            @Override
+            public void store(final ModelNode model) {
+                if ("a".equals(model.asString())) {
+                    writing.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.store(model);
+            }
+        };
+        final AsyncConfigurationPersister persister = new AsyncConfigurationPersister(delegate, 60000L);
+        persister.store(new ModelNode().set("a"));
+
+        final Thread shutdown = new Thread(new Runnable() {
+            public void run() {
+                persister.shutdown();
+            }
+        });
+        shutdown.start();
+        // the shutdown flush is now writing "a"
+        writing.await(10, TimeUnit.SECONDS);
+
+        final Thread store = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    persister.store(new ModelNode().set("b"));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        store.start();
+        Thread.sleep(100);
+        release.countDown();
+        shutdown.join(10000);
+        store.join(10000);
+
+        assertEquals(2, delegate.getStored().size());
+        assertEquals("a", delegate.getStored().get(0).asString());
+        assertEquals("b", delegate.getStored().get(1).asString());
+    }
+
+    private static class RecordingPersister extends AbstractConfigurationPersister {
+        private final List<ModelNode> stored = Collections.synchronizedList(new ArrayList<ModelNode>());
+
+        RecordingPersister() {
+            super(null);
+        }
+
+        @Override
+        public void store(final ModelNode model) {
+            stored.add(model);
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return Collections.emptyList();
+        }
+
+        List<ModelNode> getStored() {
+            return stored;
+        }
+    }
+}
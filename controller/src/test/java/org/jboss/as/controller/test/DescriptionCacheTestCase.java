@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.AttributeAccess.AccessType;
+import org.jboss.as.controller.registry.AttributeAccess.Storage;
+import org.jboss.as.controller.registry.ModelNodeRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests caching of resource descriptions by {@link ModelNodeRegistration}.
+ */
+public class DescriptionCacheTestCase {
+
+    @Test
+    public void testDescriptionIsCachedUntilRegistryChanges() {
+        final CountingProvider rootProvider = new CountingProvider();
+        final CountingProvider childProvider = new CountingProvider();
+        final ModelNodeRegistration root = ModelNodeRegistration.Factory.create(rootProvider);
+        final ModelNodeRegistration child = root.registerSubModel(PathElement.pathElement("child"), childProvider);
+        final PathAddress childAddress = PathAddress.pathAddress(PathElement.pathElement("child", "one"));
+
+        final ModelNode first = root.getResourceDescription(childAddress, Locale.ENGLISH, false);
+        // modifying the returned copy must not affect the cache
+        first.get(DESCRIPTION).set("modified");
+        final ModelNode second = root.getResourceDescription(PathAddress.pathAddress(PathElement.pathElement("child", "two")), Locale.ENGLISH, false);
+        assertEquals("description", second.get(DESCRIPTION).asString());
+        assertEquals(1, childProvider.count.get());
+        assertEquals(1, root.getDescriptionCacheSize());
+
+        // a different locale or operations flag is a different entry
+        root.getResourceDescription(childAddress, Locale.GERMAN, false);
+        root.getResourceDescription(childAddress, Locale.ENGLISH, true);
+        assertEquals(3, childProvider.count.get());
+        assertEquals(3, root.getDescriptionCacheSize());
+
+        // a locale unknown to the runtime is never cached
+        final Locale unknown = new Locale("no_such_locale");
+        root.getResourceDescription(childAddress, unknown, false);
+        root.getResourceDescription(childAddress, unknown, false);
+        assertEquals(5, childProvider.count.get());
+        assertEquals(3, root.getDescriptionCacheSize());
+
+        child.registerReadOnlyAttribute("attr", null, Storage.RUNTIME);
+        assertEquals(0, root.getDescriptionCacheSize());
+        final ModelNode third = root.getResourceDescription(childAddress, Locale.ENGLISH, true);
+        assertEquals(6, childProvider.count.get());
+        assertEquals(AccessType.READ_ONLY.toString(), third.get(ATTRIBUTES, "attr", ACCESS_TYPE).asString());
+
+        root.registerOperationHandler("op", GlobalOperationHandlers.READ_DESCRIPTION_CACHE_SIZE, rootProvider, false);
+        assertEquals(0, root.getDescriptionCacheSize());
+        assertEquals(0, rootProvider.count.get());
+    }
+
+    @Test
+    public void testUnregisteredAddress() {
+        final ModelNodeRegistration root = ModelNodeRegistration.Factory.create(new CountingProvider());
+        assertNull(root.getResourceDescription(PathAddress.pathAddress(PathElement.pathElement("missing", "one")), null, false));
+    }
+
+    private static class CountingProvider implements DescriptionProvider {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            count.incrementAndGet();
+            final ModelNode description = new ModelNode();
+            description.get(DESCRIPTION).set("description");
+            description.get(ATTRIBUTES, "attr", DESCRIPTION).set("an attribute");
+            return description;
+        }
+    }
+}
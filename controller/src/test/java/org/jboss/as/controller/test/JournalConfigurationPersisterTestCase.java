@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.controller.persistence.AbstractConfigurationPersister;
+import org.jboss.as.controller.persistence.JournalConfigurationPersister;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the operation journal written by {@link JournalConfigurationPersister}.
+ */
+public class JournalConfigurationPersisterTestCase {
+
+    private File journal;
+
+    @Before
+    public void createJournal() throws Exception {
+        journal = File.createTempFile("config", ".journal");
+        journal.delete();
+    }
+
+    @After
+    public void deleteJournal() {
+        journal.delete();
+    }
+
+    @Test
+    public void testJournalIsReplayedAfterSnapshot() throws Exception {
+        final SnapshotPersister snapshot = new SnapshotPersister();
+        snapshot.operations.add(createOperation("boot"));
+
+        JournalConfigurationPersister persister = new JournalConfigurationPersister(snapshot, journal, 10);
+        persister.load();
+        persister.store(new ModelNode(), createOperation("one"));
+        persister.store(new ModelNode(), createOperation("two"));
+        persister.close();
+        assertEquals(0, snapshot.stores);
+
+        persister = new JournalConfigurationPersister(snapshot, journal, 10);
+        final List<ModelNode> updates = persister.load();
+        assertEquals(3, updates.size());
+        assertEquals("boot", updates.get(0).get("name").asString());
+        assertEquals("one", updates.get(1).get("name").asString());
+        assertEquals("two", updates.get(2).get("name").asString());
+        assertEquals(2, persister.getJournalSize());
+        persister.close();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        final SnapshotPersister snapshot = new SnapshotPersister();
+        final JournalConfigurationPersister persister = new JournalConfigurationPersister(snapshot, journal, 3);
+        persister.load();
+        persister.store(new ModelNode(), createOperation("one"));
+        persister.store(new ModelNode(), createOperation("two"));
+        assertEquals(2, persister.getJournalSize());
+        persister.store(new ModelNode(), createOperation("three"));
+        assertEquals(1, snapshot.stores);
+        assertEquals(0, persister.getJournalSize());
+        assertFalse(journal.exists());
+        persister.close();
+    }
+
+    @Test
+    public void testJournalIsDiscardedIfSnapshotWasWrittenBeforeCrash() throws Exception {
+        final SnapshotPersister snapshot = new SnapshotPersister();
+        snapshot.operations.add(createOperation("boot"));
+
+        JournalConfigurationPersister persister = new JournalConfigurationPersister(snapshot, journal, 10);
+        persister.load();
+        persister.store(new ModelNode(), createOperation("one"));
+        persister.store(new ModelNode(), createOperation("two"));
+        persister.close();
+
+        // the process dies during compaction, after the snapshot containing the journaled operations was written
+        // but before the journal was removed
+        snapshot.store(createOperation("compacted"));
+
+        persister = new JournalConfigurationPersister(snapshot, journal, 10);
+        List<ModelNode> updates = persister.load();
+        assertEquals(1, updates.size());
+        assertEquals("compacted", updates.get(0).get("name").asString());
+        assertEquals(0, persister.getJournalSize());
+        assertFalse(journal.exists());
+
+        // operations journaled against the new snapshot are replayed
+        persister.store(new ModelNode(), createOperation("three"));
+        persister.close();
+        persister = new JournalConfigurationPersister(snapshot, journal, 10);
+        updates = persister.load();
+        assertEquals(2, updates.size());
+        assertEquals("three", updates.get(1).get("name").asString());
+        persister.close();
+    }
+
+    @Test
+    public void testIncompleteRecordIsDiscarded() throws Exception {
+        final SnapshotPersister snapshot = new SnapshotPersister();
+        JournalConfigurationPersister persister = new JournalConfigurationPersister(snapshot, journal, 10);
+        persister.load();
+        persister.store(new ModelNode(), createOperation("one"));
+        persister.store(new ModelNode(), createOperation("two"));
+        persister.close();
+
+        final RandomAccessFile raf = new RandomAccessFile(journal, "rw");
+        raf.setLength(raf.length() - 2);
+        raf.close();
+
+        persister = new JournalConfigurationPersister(snapshot, journal, 10);
+        final List<ModelNode> updates = persister.load();
+        assertEquals(1, updates.size());
+        assertEquals("one", updates.get(0).get("name").asString());
+        persister.close();
+    }
+
+    private static ModelNode createOperation(final String name) {
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("add");
+        operation.get("address").setEmptyList();
+        operation.get("name").set(name);
+        return operation;
+    }
+
+    private static class SnapshotPersister extends AbstractConfigurationPersister {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        int stores;
+
+        SnapshotPersister() {
+            super(null);
+        }
+
+        @Override
+        public void store(final ModelNode model) {
+            // the stored model stands in for the operations which would be loaded from it
+            operations.clear();
+            operations.add(model);
+            stores++;
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return new ArrayList<ModelNode>(operations);
+        }
+    }
+}
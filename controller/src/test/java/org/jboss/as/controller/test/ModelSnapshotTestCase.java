@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertTrue;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.util.Locale;
+
+import org.jboss.as.controller.BasicModelController;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.common.CommonProviders;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.operations.global.WriteAttributeHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.AttributeAccess.Storage;
+import org.jboss.as.controller.registry.ModelNodeRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests that updates to a {@link BasicModelController} publish new model snapshots without modifying the ones
+ * already handed out to readers.
+ */
+public class ModelSnapshotTestCase {
+
+    private static final DescriptionProvider NULL_PROVIDER = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            return new ModelNode();
+        }
+    };
+
+    @Test
+    public void testWriteDoesNotModifyPreviousSnapshot() throws Exception {
+        final SnapshotModelController controller = new SnapshotModelController();
+        final ModelNode before = controller.getSnapshot();
+
+        controller.execute(createWrite("one", "updated"));
+
+        final ModelNode after = controller.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals("original", before.get("thing", "one", "value").asString());
+        assertEquals("updated", after.get("thing", "one", "value").asString());
+        assertEquals("untouched", after.get("other", "two", "value").asString());
+
+        final ModelNode read = new ModelNode();
+        read.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        read.get(OP_ADDR).add("thing", "one");
+        read.get(NAME).set("value");
+        assertEquals("updated", controller.execute(read).get(RESULT).asString());
+    }
+
+    @Test
+    public void testUpdateModelRemovesNode() throws Exception {
+        final SnapshotModelController controller = new SnapshotModelController();
+        final ModelNode before = controller.getSnapshot();
+
+        controller.remove(PathAddress.pathAddress(PathElement.pathElement("thing", "one")));
+
+        final ModelNode after = controller.getSnapshot();
+        assertTrue(before.get("thing").has("one"));
+        assertFalse(after.get("thing").has("one"));
+        assertTrue(after.get("other").has("two"));
+    }
+
+    @Test
+    public void testUpdateModelAddsNodeUnderExistingType() throws Exception {
+        final SnapshotModelController controller = new SnapshotModelController();
+        final ModelNode before = controller.getSnapshot();
+
+        controller.add(PathAddress.pathAddress(PathElement.pathElement("thing", "three")), createResource("added"));
+
+        final ModelNode afterAdd = controller.getSnapshot();
+        assertFalse(before.get("thing").has("three"));
+        assertEquals("added", afterAdd.get("thing", "three", "value").asString());
+        assertEquals("original", afterAdd.get("thing", "one", "value").asString());
+
+        final PathAddress nested = PathAddress.pathAddress(PathElement.pathElement("thing", "one"), PathElement.pathElement("sub", "a"));
+        controller.add(nested, createResource("a"));
+        controller.add(PathAddress.pathAddress(PathElement.pathElement("thing", "one"), PathElement.pathElement("sub", "b")),
+                createResource("b"));
+
+        final ModelNode after = controller.getSnapshot();
+        assertEquals("a", after.get("thing", "one", "sub", "a", "value").asString());
+        assertEquals("b", after.get("thing", "one", "sub", "b", "value").asString());
+        assertEquals("added", after.get("thing", "three", "value").asString());
+        assertFalse(afterAdd.get("thing", "one").has("sub"));
+        assertFalse(before.get("thing", "one").has("sub"));
+
+        controller.remove(nested);
+        assertFalse(controller.getSnapshot().get("thing", "one", "sub").has("a"));
+        assertTrue(after.get("thing", "one", "sub").has("a"));
+    }
+
+    private static ModelNode createWrite(final String name, final String value) {
+        final ModelNode write = new ModelNode();
+        write.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        write.get(OP_ADDR).add("thing", name);
+        write.get(NAME).set("value");
+        write.get(VALUE).set(value);
+        return write;
+    }
+
+    private static ModelNode createResource(final String value) {
+        final ModelNode resource = new ModelNode();
+        resource.get("value").set(value);
+        return resource;
+    }
+
+    private static ModelNode createModel() {
+        final ModelNode model = new ModelNode();
+        model.get("thing", "one", "value").set("original");
+        model.get("other", "two", "value").set("untouched");
+        return model;
+    }
+
+    private static class SnapshotModelController extends BasicModelController {
+
+        SnapshotModelController() {
+            super(createModel(), new NullConfigurationPersister(null), NULL_PROVIDER);
+            getRegistry().registerOperationHandler(READ_ATTRIBUTE_OPERATION, GlobalOperationHandlers.READ_ATTRIBUTE, CommonProviders.READ_ATTRIBUTE_PROVIDER, true);
+            getRegistry().registerOperationHandler(WRITE_ATTRIBUTE_OPERATION, GlobalOperationHandlers.WRITE_ATTRIBUTE, CommonProviders.WRITE_ATTRIBUTE_PROVIDER, true);
+            final ModelNodeRegistration things = getRegistry().registerSubModel(PathElement.pathElement("thing"), NULL_PROVIDER);
+            things.registerReadWriteAttribute("value", null, WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, Storage.CONFIGURATION);
+            getRegistry().registerSubModel(PathElement.pathElement("other"), NULL_PROVIDER);
+        }
+
+        ModelNode getSnapshot() {
+            return getModel();
+        }
+
+        void remove(final PathAddress address) {
+            updateModel(address, null);
+        }
+
+        void add(final PathAddress address, final ModelNode value) {
+            updateModel(address, value);
+        }
+    }
+}
@@ -44,6 +44,21 @@ public interface DeploymentRepository {
      */
     byte[] addDeploymentContent(String name, String runtimeName, InputStream stream) throws IOException;
 
+    /**
+     * Add the given content to the repository, using the hash the content is expected to have.  If content with that
+     * hash is already stored, the stream is compared with it and nothing is written unless it differs.
+     *
+     * @param name unique name for the content as provided by the end user. Cannot be <code>null</code>
+     * @param runtimeName the name the deployment file should be known as to the runtime. Cannot be <code>null</code>
+     * @param stream stream from which the content can be read. Cannot be <code>null</code>
+     * @param expectedHash the hash the content is expected to have, for example from an earlier addition of the same
+     *                     file, or {@code null} if not known
+     * @return the hash of the content that will be used as an internal identifier
+     *         for the content. Will not be <code>null</code>
+     * @throws IOException
+     */
+    byte[] addDeploymentContent(String name, String runtimeName, InputStream stream, byte[] expectedHash) throws IOException;
+
     /**
      * Gets whether content with the given hash is stored in the repository.
      *
@@ -22,14 +22,16 @@
 
 package org.jboss.as.server.deployment.impl;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -37,15 +39,17 @@ import org.jboss.as.server.deployment.api.DeploymentRepository;
 import org.jboss.logging.Logger;
 
 /**
- * Default implementation of {@link org.jboss.as.server.deployment.api.DeploymentRepository}.
+ * Default implementation of {@link org.jboss.as.server.deployment.api.DeploymentRepository}.  Each addition of content
+ * uses its own digest, so concurrent additions do not wait for each other.
  * @author John Bailey
  */
 public class DeploymentRepositoryImpl implements DeploymentRepository {
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
     protected static final String CONTENT = "content";
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+    private static final int BUFFER_SIZE = 65536;
     private final File repoRoot;
-    private final MessageDigest messageDigest;
 
     protected DeploymentRepositoryImpl(File repoRoot) {
         if (repoRoot == null)
@@ -63,40 +67,68 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
         }
         this.repoRoot = repoRoot;
 
-        try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
-        }
+        // fail now rather than on the first addition
+        createMessageDigest();
     }
 
     @Override
     public byte[] addDeploymentContent(String name, String runtimeName, InputStream stream) throws IOException {
+        return addDeploymentContent(name, runtimeName, stream, null);
+    }
+
+    @Override
+    public byte[] addDeploymentContent(String name, String runtimeName, InputStream stream, byte[] expectedHash) throws IOException {
 
         log.debugf("Adding content with name %s", name);
 
-        byte[] sha1Bytes = null;
-        File tmp = File.createTempFile(name, "tmp", repoRoot);
-        FileOutputStream fos = new FileOutputStream(tmp);
-        synchronized (messageDigest) {
-            messageDigest.reset();
-            try {
-                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                BufferedInputStream bis = new BufferedInputStream(stream);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    dos.write(bytes, 0, read);
+        final MessageDigest messageDigest = createMessageDigest();
+        final ReadableByteChannel in = stream instanceof FileInputStream ? ((FileInputStream) stream).getChannel() : Channels.newChannel(stream);
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();
+
+        File existing = null;
+        long matched = 0;
+        if (expectedHash != null) {
+            existing = getDeploymentContentFile(expectedHash);
+            if (existing.exists()) {
+                matched = readMatching(in, existing, buffer, messageDigest);
+                if (matched == -1) {
+                    log.debugf("Content with name %s was already present in repository at location %s", name, existing.getAbsolutePath());
+                    return expectedHash;
                 }
             }
-            finally {
-                try {
-                    fos.close();
-                } catch (Exception ignored) {
+        }
+
+        final File tmp = File.createTempFile(name, "tmp", repoRoot);
+        final FileOutputStream fos = new FileOutputStream(tmp);
+        boolean ok = false;
+        try {
+            final FileChannel out = fos.getChannel();
+            if (matched > 0) {
+                // the start of the stream matched the existing content, which saves having kept it
+                transfer(existing, matched, out);
+            }
+            // write any bytes read but not yet written, then the rest of the stream
+            do {
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
                 }
+                buffer.clear();
+                if (in.read(buffer) == -1) {
+                    break;
+                }
+                buffer.flip();
+                update(messageDigest, buffer);
+            } while (true);
+            fos.close();
+            ok = true;
+        } finally {
+            safeClose(fos);
+            if (!ok && !tmp.delete()) {
+                tmp.deleteOnExit();
             }
-            sha1Bytes = messageDigest.digest();
         }
+        final byte[] sha1Bytes = messageDigest.digest();
         File realFile = getDeploymentContentFile(sha1Bytes, true);
         if (realFile.exists()) {
             // we've already got this content
@@ -158,44 +190,91 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
     private void moveTempToPermanent(File tmpFile, File permanentFile) throws IOException {
 
         if (!tmpFile.renameTo(permanentFile)) {
-            FileOutputStream fos = null;
-            BufferedOutputStream bos = null;
-            FileInputStream fis = null;
+            final FileOutputStream fos = new FileOutputStream(permanentFile);
             try {
-                fos = new FileOutputStream(permanentFile);
-                bos = new BufferedOutputStream(fos);
-                fis = new FileInputStream(tmpFile);
-                BufferedInputStream bis = new BufferedInputStream(fis);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    bos.write(bytes, 0, read);
-                }
+                transfer(tmpFile, tmpFile.length(), fos.getChannel());
+                fos.close();
             }
             finally {
-                try {
-                    if (bos != null) {
-                        bos.close();
-                    }
-                } catch (Exception ignored) {
+                safeClose(fos);
+                if (!tmpFile.delete()) {
+                    tmpFile.deleteOnExit();
                 }
-                try {
-                    if (fos != null) {
-                        fos.close();
-                    }
-                } catch (Exception ignored) {
+            }
+        }
+    }
+
+    /**
+     * Read the stream for as long as it matches the existing content, adding what is read to the digest.
+     *
+     * @return -1 if the whole stream matched, otherwise the number of bytes which matched before the bytes left in
+     *         the buffer, which have not been written
+     */
+    private static long readMatching(ReadableByteChannel in, File existing, ByteBuffer buffer, MessageDigest messageDigest) throws IOException {
+        final FileInputStream fis = new FileInputStream(existing);
+        try {
+            final FileChannel existingChannel = fis.getChannel();
+            final ByteBuffer existingBuffer = ByteBuffer.allocate(buffer.capacity());
+            long matched = 0;
+            for (;;) {
+                buffer.clear();
+                if (in.read(buffer) == -1) {
+                    buffer.flip();
+                    return matched == existingChannel.size() ? -1 : matched;
+                }
+                buffer.flip();
+                update(messageDigest, buffer);
+                existingBuffer.clear();
+                existingBuffer.limit(buffer.remaining());
+                while (existingBuffer.hasRemaining() && existingChannel.read(existingBuffer) != -1) {
+                    // fill
                 }
-                try {
-                    if (fis != null) {
-                        fis.close();
-                    }
-                } catch (Exception ignored) {
+                existingBuffer.flip();
+                if (!buffer.equals(existingBuffer)) {
+                    return matched;
                 }
+                matched += buffer.remaining();
+            }
+        } finally {
+            safeClose(fis);
+        }
+    }
 
-                if (!tmpFile.delete()) {
-                    tmpFile.deleteOnExit();
+    private static void transfer(File from, long length, FileChannel out) throws IOException {
+        final FileInputStream fis = new FileInputStream(from);
+        try {
+            final FileChannel in = fis.getChannel();
+            long position = 0;
+            while (position < length) {
+                final long count = in.transferTo(position, length - position, out);
+                if (count <= 0) {
+                    throw new IOException("Failed to copy " + from.getAbsolutePath() + ", only " + position + " of " + length + " bytes could be read");
                 }
+                position += count;
             }
+        } finally {
+            safeClose(fis);
+        }
+    }
+
+    private static void update(MessageDigest messageDigest, ByteBuffer buffer) {
+        final int position = buffer.position();
+        messageDigest.update(buffer);
+        buffer.position(position);
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+    }
+
+    private static void safeClose(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
         }
     }
 }
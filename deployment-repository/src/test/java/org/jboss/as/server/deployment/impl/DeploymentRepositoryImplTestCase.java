@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests adding content which is expected to match content already in the repository.
+ */
+public class DeploymentRepositoryImplTestCase {
+
+    // spans several of the repository's read buffers
+    private static final int CONTENT_SIZE = 200000;
+
+    private File root;
+    private DeploymentRepositoryImpl repository;
+    private byte[] content;
+    private byte[] hash;
+
+    @Before
+    public void setUp() throws Exception {
+        root = File.createTempFile("repository", null);
+        root.delete();
+        repository = new DeploymentRepositoryImpl(root);
+        content = new byte[CONTENT_SIZE];
+        new Random(7).nextBytes(content);
+        hash = repository.addDeploymentContent("test.war", "test.war", new ByteArrayInputStream(content));
+        assertArrayEquals(sha1(content), hash);
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Test
+    public void testMatchingContent() throws Exception {
+        final byte[] added = repository.addDeploymentContent("test.war", "test.war", new ByteArrayInputStream(content), hash);
+        assertArrayEquals(hash, added);
+        assertContent(content, added);
+    }
+
+    @Test
+    public void testMatchingFileContent() throws Exception {
+        final File file = new File(root, "upload");
+        final FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(content);
+        } finally {
+            fos.close();
+        }
+        final InputStream stream = new FileInputStream(file);
+        try {
+            assertArrayEquals(hash, repository.addDeploymentContent("test.war", "test.war", stream, hash));
+        } finally {
+            stream.close();
+        }
+        assertTrue(file.delete());
+        assertContent(content, hash);
+    }
+
+    @Test
+    public void testMismatchedContent() throws Exception {
+        final byte[] changed = content.clone();
+        changed[CONTENT_SIZE / 2] ^= 1;
+        final byte[] added = repository.addDeploymentContent("test.war", "test.war", new ByteArrayInputStream(changed), hash);
+        assertArrayEquals(sha1(changed), added);
+        assertContent(changed, added);
+        // the existing content is untouched
+        assertContent(content, hash);
+    }
+
+    @Test
+    public void testTruncatedContent() throws Exception {
+        final byte[] truncated = Arrays.copyOf(content, CONTENT_SIZE - 1000);
+        final byte[] added = repository.addDeploymentContent("test.war", "test.war", new ByteArrayInputStream(truncated), hash);
+        assertArrayEquals(sha1(truncated), added);
+        assertContent(truncated, added);
+    }
+
+    @Test
+    public void testExtendedContent() throws Exception {
+        final byte[] extended = Arrays.copyOf(content, CONTENT_SIZE + 1000);
+        final byte[] added = repository.addDeploymentContent("test.war", "test.war", new ByteArrayInputStream(extended), hash);
+        assertArrayEquals(sha1(extended), added);
+        assertContent(extended, added);
+    }
+
+    private void assertContent(final byte[] expected, final byte[] hash) throws Exception {
+        final File file = repository.getDeploymentContentFile(hash);
+        assertTrue(file.exists());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final InputStream in = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[8192];
+            int cnt;
+            while ((cnt = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, cnt);
+            }
+        } finally {
+            in.close();
+        }
+        assertEquals(expected.length, bytes.size());
+        assertArrayEquals(expected, bytes.toByteArray());
+        // no temporary files are left behind
+        for (String name : root.list()) {
+            assertEquals(2, name.length());
+        }
+    }
+
+    private static byte[] sha1(final byte[] bytes) throws Exception {
+        return MessageDigest.getInstance("SHA-1").digest(bytes);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The size and modification time of the directories and files found by a scan.  Checking them again shows whether
+ * anything was added, removed or changed in place since, without listing any directory or reading any content.
+ */
+final class ContentStamps {
+
+    private final Map<File, Stamp> stamps = new HashMap<File, Stamp>();
+
+    /**
+     * Record the current state of a file or directory.  A directory must be recorded before it is listed, so that a
+     * change made while listing is seen by the next check.
+     *
+     * @param file the file or directory
+     */
+    void add(final File file) {
+        add(file, file.length(), file.lastModified());
+    }
+
+    /**
+     * Record the state of a file as read by the caller.
+     *
+     * @param file the file
+     * @param length the length of the file
+     * @param lastModified the modification time of the file
+     */
+    void add(final File file, final long length, final long lastModified) {
+        stamps.put(file, new Stamp(length, lastModified));
+    }
+
+    boolean isEmpty() {
+        return stamps.isEmpty();
+    }
+
+    /**
+     * Check whether any recorded file or directory changed.  One modified after {@code stable} counts as changed
+     * even if its modification time is the recorded one, since a further change within the timestamp granularity of
+     * the file system would not alter it.
+     *
+     * @param stable the time up to which modification times are known to be final
+     * @return {@code true} if anything changed
+     */
+    boolean changed(final long stable) {
+        for (Map.Entry<File, Stamp> entry : stamps.entrySet()) {
+            final File file = entry.getKey();
+            final Stamp stamp = entry.getValue();
+            final long modified = file.lastModified();
+            if (modified != stamp.lastModified || modified > stable || file.length() != stamp.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Stamp {
+        private final long length;
+        private final long lastModified;
+
+        Stamp(final long length, final long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+}
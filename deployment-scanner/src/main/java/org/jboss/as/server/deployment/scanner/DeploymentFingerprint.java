@@ -0,0 +1,254 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.as.controller.HashUtil;
+
+/**
+ * The size and modification time of every file of an exploded deployment.  Comparing the fingerprint stored in the
+ * deployment's marker file with a fresh one shows whether the content changed without reading any of it.
+ * <p>
+ * The stored form is a header line holding the hash of the content last added to the repository, followed by one
+ * {@code size lastModified path} line per entry, with directories given a size of {@code -1}.
+ * </p>
+ */
+final class DeploymentFingerprint {
+
+    private static final String HEADER = "#exploded ";
+    private static final String CHARSET = "UTF-8";
+    /* The time of every archive entry, so that only the names and content of the files decide the archive hash */
+    private static final long ENTRY_TIME = 0L;
+
+    private final File root;
+    private final List<Entry> entries;
+    private byte[] hash;
+
+    private DeploymentFingerprint(final File root, final List<Entry> entries, final byte[] hash) {
+        this.root = root;
+        this.entries = entries;
+        this.hash = hash;
+    }
+
+    /**
+     * Create the fingerprint of the content of a directory.
+     *
+     * @param root the root of the exploded deployment
+     * @param stamps place to store the state of each directory and file in the tree
+     * @return the fingerprint
+     */
+    static DeploymentFingerprint create(final File root, final ContentStamps stamps) {
+        final List<Entry> entries = new ArrayList<Entry>();
+        addEntries(root, "", entries, stamps);
+        return new DeploymentFingerprint(root, entries, null);
+    }
+
+    private static void addEntries(final File dir, final String prefix, final List<Entry> entries, final ContentStamps stamps) {
+        stamps.add(dir);
+        final File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        // sorted, so the same tree always gives the same fingerprint and archive
+        Arrays.sort(children);
+        for (File child : children) {
+            final String path = prefix + child.getName();
+            if (child.isDirectory()) {
+                entries.add(new Entry(path + "/", -1, 0));
+                addEntries(child, path + "/", entries, stamps);
+            } else {
+                final long length = child.length();
+                final long lastModified = child.lastModified();
+                stamps.add(child, length, lastModified);
+                entries.add(new Entry(path, length, lastModified));
+            }
+        }
+    }
+
+    /**
+     * Read the fingerprint stored in a marker file.
+     *
+     * @param marker the marker file
+     * @return the fingerprint, or {@code null} if the marker is not one of an exploded deployment or cannot be read
+     */
+    static DeploymentFingerprint read(final File marker) {
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(marker), CHARSET));
+            String line = reader.readLine();
+            if (line == null || ! line.startsWith(HEADER)) {
+                return null;
+            }
+            final String hex = line.substring(HEADER.length());
+            final byte[] hash = hex.length() == 0 ? null : HashUtil.hexStringToByteArray(hex);
+            final List<Entry> entries = new ArrayList<Entry>();
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split(" ", 3);
+                if (fields.length != 3) {
+                    return null;
+                }
+                entries.add(new Entry(fields[2], Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+            }
+            return new DeploymentFingerprint(null, entries, hash);
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // corrupt marker; treat the content as changed
+            return null;
+        } finally {
+            safeClose(reader);
+        }
+    }
+
+    /**
+     * Store this fingerprint in a marker file.
+     *
+     * @param marker the marker file
+     * @throws IOException if the marker cannot be written
+     */
+    void write(final File marker) throws IOException {
+        final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(marker), CHARSET));
+        try {
+            writer.write(HEADER);
+            if (hash != null) {
+                writer.write(HashUtil.bytesToHexString(hash));
+            }
+            writer.newLine();
+            for (Entry entry : entries) {
+                writer.write(Long.toString(entry.size));
+                writer.write(' ');
+                writer.write(Long.toString(entry.lastModified));
+                writer.write(' ');
+                writer.write(entry.path);
+                writer.newLine();
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Write the files of this fingerprint as a zip archive, in fingerprint order and with a fixed entry time.  Trees
+     * with the same files give identical archives, even if files were touched or rewritten unchanged, so the
+     * repository can recognize content it already has.
+     *
+     * @param output the stream to write to, which is not closed
+     * @throws IOException if a file cannot be read or the archive cannot be written
+     */
+    void writeArchive(final OutputStream output) throws IOException {
+        final ZipOutputStream zip = new ZipOutputStream(output);
+        final byte[] buffer = new byte[8192];
+        for (Entry entry : entries) {
+            final ZipEntry zipEntry = new ZipEntry(entry.path);
+            zipEntry.setTime(ENTRY_TIME);
+            zip.putNextEntry(zipEntry);
+            if (entry.size >= 0) {
+                final InputStream input = new FileInputStream(new File(root, entry.path));
+                try {
+                    int read;
+                    while ((read = input.read(buffer)) != -1) {
+                        zip.write(buffer, 0, read);
+                    }
+                } finally {
+                    safeClose(input);
+                }
+            }
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    /**
+     * Gets whether this fingerprint describes the same files as another.
+     *
+     * @param other the other fingerprint, may be {@code null}
+     * @return {@code true} if the fingerprints have the same entries
+     */
+    boolean matches(final DeploymentFingerprint other) {
+        return other != null && entries.equals(other.entries);
+    }
+
+    /**
+     * Get the hash of the content last added to the repository for this deployment.
+     *
+     * @return the hash, or {@code null} if not known
+     */
+    byte[] getHash() {
+        return hash;
+    }
+
+    void setHash(final byte[] hash) {
+        this.hash = hash;
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+
+        Entry(final String path, final long size, final long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (! (obj instanceof Entry)) {
+                return false;
+            }
+            final Entry other = (Entry) obj;
+            return size == other.size && lastModified == other.lastModified && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + (int) (size ^ lastModified);
+        }
+    }
+}
@@ -88,7 +88,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             AbsolutePathService.addService(pathService, path, serviceTarget);
         }
 
-        final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(2);
+        // one thread runs the scan, the others add the content it finds to the repository
+        final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
 
         serviceTarget.addService(serviceName, service)
             .addDependency(pathService, String.class, service.pathValue)
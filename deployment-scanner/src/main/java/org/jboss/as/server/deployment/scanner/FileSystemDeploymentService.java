@@ -28,12 +28,14 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HAS
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -41,7 +43,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -72,6 +77,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private static final Set<String> ARCHIVES = new HashSet<String>(Arrays.asList(".jar", ".war", ".ear", ".rar", ".sar", ".beans"));
     private static final Logger log = Logger.getLogger("org.jboss.as.deployment");
     private static final String DEPLOYED = ".deployed";
+    /* The number of scan intervals without changes after which a full scan is done anyway */
+    private static final int RECONCILE_CHECKS = 11;
+    /* The largest modification time granularity of the file systems the deployment directory may be on */
+    private static final long TIMESTAMP_GRANULARITY = 2000;
 
     private File deploymentDir;
     private long scanInterval = 0;
@@ -79,6 +88,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private ScheduledFuture<?> scanTask;
     private final Lock scanLock = new ReentrantLock();
     private Set<String> deployed = new HashSet<String>();
+    // the state of the directories and files found by the last scan, guarded by scanLock
+    private ContentStamps contentStamps = new ContentStamps();
+    private long lastScanStart;
+    private int unchangedChecks;
 
 //    private final ServerModel serverModel;
     private final ScheduledExecutorService scheduledExecutor;
@@ -182,8 +195,9 @@ class FileSystemDeploymentService implements DeploymentScanner {
         for (File child : children) {
             String fileName = child.getName();
             if (child.isDirectory()) {
-                // TODO special handling for exploded content
-                establishDeployedContentList(child);
+                if (! isExplodedDeployment(child)) {
+                    establishDeployedContentList(child);
+                }
             } else if (fileName.endsWith(DEPLOYED)) {
                 String deploymentName = fileName.substring(0, fileName.length() - DEPLOYED.length());
                 if (deploymentNames.contains(deploymentName)) {
@@ -215,11 +229,21 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 log.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
 
                 final List<ModelNode> updates = new ArrayList<ModelNode>();
+                final long scanStart = System.currentTimeMillis();
 
                 Map<String, File> foundDeployed = new HashMap<String, File>();
+                List<File> added = new ArrayList<File>();
+                Map<File, DeploymentFingerprint> exploded = new HashMap<File, DeploymentFingerprint>();
+                ContentStamps stamps = new ContentStamps();
+                scanDirectory(deploymentDir, foundDeployed, added, exploded, stamps);
+
                 Set<String> newlyAdded = new HashSet<String>();
-                Set<String> registeredDeployments = getDeploymentNames();
-                scanDirectory(deploymentDir, updates, foundDeployed, newlyAdded, registeredDeployments);
+                if (! added.isEmpty()) {
+                    Set<String> registeredDeployments = getDeploymentNames();
+                    if (! addContent(added, exploded, updates, newlyAdded, registeredDeployments)) {
+                        return;
+                    }
+                }
 
                 // Add remove actions to the plan for anything we count as
                 // deployed that we didn't find on the scan
@@ -248,6 +272,9 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 Set<String> validFinds = cleanSpuriousMarkerFiles(foundDeployed);
                 validFinds.addAll(newlyAdded);
                 this.deployed = validFinds;
+                this.contentStamps = stamps;
+                this.lastScanStart = scanStart;
+                this.unchangedChecks = 0;
 
                 log.tracef("Scan complete");
             }
@@ -256,6 +283,46 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    /**
+     * Scan the deployment directory if any directory or file found by the last scan has changed, or if the last
+     * {@link #RECONCILE_CHECKS} checks found no change.  Adding, removing or renaming a file changes the modification
+     * time of its directory, and content changed in place changes the size or modification time of the deployment
+     * file or of a file of the exploded deployment.  The periodic full scan catches anything else.
+     */
+    private void scanIfChanged() throws OperationFailedException {
+        try {
+            scanLock.lockInterruptibly();
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            if (scanEnabled) {
+                if (unchangedChecks < RECONCILE_CHECKS && ! contentChanged()) {
+                    unchangedChecks++;
+                    log.tracef("No changes found in directory %s", deploymentDir.getAbsolutePath());
+                    return;
+                }
+                scan();
+            }
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    /**
+     * Invoke with the scan lock held
+     */
+    private boolean contentChanged() {
+        final ContentStamps stamps = this.contentStamps;
+        if (stamps.isEmpty()) {
+            return true;
+        }
+        // a change made within the timestamp granularity of the last scan may not have altered the timestamp
+        return stamps.changed(lastScanStart - TIMESTAMP_GRANULARITY);
+    }
+
     private Set<String> cleanSpuriousMarkerFiles(Map<String, File> found) {
         Set<String> valid = new HashSet<String>();
 
@@ -274,14 +341,17 @@ class FileSystemDeploymentService implements DeploymentScanner {
      * Scan the given directory for content changes.
      *
      * @param directory     the directory to scan
-     * @param updates       the update list;
      * @param foundDeployed place to store marker files found in the directory; key is the name
      *                      of the deployment, value is the marker file
-     * @param newlyAdded    place to store names of newly added content
-     * @param registeredDeployments TODO
-     * @return the builder the current builder following any changes
+     * @param added         place to store content files found in the directory, and exploded deployments
+     *                      whose content changed
+     * @param exploded      place to store the fingerprints of the changed exploded deployments
+     * @param stamps        place to store the state of each directory and content file scanned
      */
-    private void scanDirectory(File directory, final List<ModelNode> updates, Map<String, File> foundDeployed, Set<String> newlyAdded, Set<String> registeredDeployments) {
+    private void scanDirectory(File directory, Map<String, File> foundDeployed, List<File> added, Map<File, DeploymentFingerprint> exploded, ContentStamps stamps) {
+
+        // read before listing, so a change made while listing is seen by the next check
+        stamps.add(directory);
 
         //TODO externalize config of filter?
         File[] children = directory.listFiles(filter);
@@ -295,52 +365,169 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
             if (fileName.endsWith(DEPLOYED)) {
                 String origName = fileName.substring(0, fileName.length() - DEPLOYED.length());
+                if (! new File(directory, origName).exists() && DeploymentFingerprint.read(child) != null) {
+                    // The exploded content was removed; drop the marker so the deployment is removed too
+                    if (! child.delete()) {
+                        log.warnf("Cannot remove deployment marker file %s", child.getAbsolutePath());
+                    }
+                    continue;
+                }
                 foundDeployed.put(origName, child);
             } else if (child.isDirectory()) {
-                int idx = fileName.lastIndexOf('.');
-                if (idx > -1 && ARCHIVES.contains(fileName.substring(idx))) {
-                    // FIXME handle exploded deployments
-                    log.warnf("%s is an exploded deployment and exploded deployments are not currently handled by %s", child.getName(), getClass().getSimpleName());
+                if (isExplodedDeployment(child)) {
+                    DeploymentFingerprint previous = DeploymentFingerprint.read(new File(directory, fileName + DEPLOYED));
+                    DeploymentFingerprint current = DeploymentFingerprint.create(child, stamps);
+                    if (! current.matches(previous)) {
+                        if (previous != null) {
+                            current.setHash(previous.getHash());
+                        }
+                        added.add(child);
+                        exploded.put(child, current);
+                    }
                 } else {
                     // It's just a dir for organizing content. Recurse
-                    scanDirectory(child, updates, foundDeployed, newlyAdded, registeredDeployments);
+                    scanDirectory(child, foundDeployed, added, exploded, stamps);
                 }
             } else {
                 // Found a single non-marker file
-                boolean uploaded = false;
-                if (registeredDeployments.contains(fileName)) {
+                stamps.add(child);
+                added.add(child);
+            }
+        }
+    }
 
-                    byte[] hash = new byte[0];
-                    try {
-                        final InputStream inputStream = new FileInputStream(child);
-                        hash = deploymentRepository.addDeploymentContent(fileName, fileName, inputStream);
-                    } catch (IOException e) {
-                        log.error("Failed to add content to deployment repository for [" + fileName + "]", e);
-                        continue;
-                    }
-                    updates.add(getFullReplaceOperation(fileName, hash));
-                    uploaded = true;
-                } else {
-                    byte[] hash = new byte[0];
-                    try {
-                        final InputStream inputStream = new FileInputStream(child);
-                        hash = deploymentRepository.addDeploymentContent(fileName, fileName, inputStream);
-                    } catch (IOException e) {
-                        log.error("Failed to add content to deployment repository for [" + fileName + "]", e);
-                        continue;
+    /**
+     * Add the content files found by a scan to the deployment repository, several at a time, and add the
+     * operations which deploy them to the update list.
+     *
+     * @return {@code false} if the thread was interrupted before all the content was added
+     */
+    private boolean addContent(List<File> added, final Map<File, DeploymentFingerprint> exploded, final List<ModelNode> updates, Set<String> newlyAdded, Set<String> registeredDeployments) {
+        final List<Future<byte[]>> hashes = new ArrayList<Future<byte[]>>(added.size());
+        if (added.size() > 1) {
+            for (final File child : added) {
+                hashes.add(scheduledExecutor.submit(new Callable<byte[]>() {
+                    public byte[] call() throws IOException {
+                        return addContent(child, exploded.get(child));
                     }
-                    updates.add(getAddOperation(fileName, hash));
-                    updates.add(getDeployOperation(fileName));
-                    uploaded = true;
+                }));
+            }
+        }
+
+        for (int i = 0; i < added.size(); i++) {
+            final File child = added.get(i);
+            final String fileName = child.getName();
+            final DeploymentFingerprint fingerprint = exploded.get(child);
+            final byte[] previousHash = fingerprint == null ? null : fingerprint.getHash();
+            final byte[] hash;
+            try {
+                hash = hashes.isEmpty() ? addContent(child, exploded.get(child)) : hashes.get(i).get();
+            } catch (IOException e) {
+                log.error("Failed to add content to deployment repository for [" + fileName + "]", e);
+                continue;
+            } catch (ExecutionException e) {
+                log.error("Failed to add content to deployment repository for [" + fileName + "]", e.getCause());
+                continue;
+            } catch (InterruptedException e) {
+                for (Future<byte[]> future : hashes) {
+                    future.cancel(true);
                 }
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (! registeredDeployments.contains(fileName)) {
+                updates.add(getAddOperation(fileName, hash));
+                updates.add(getDeployOperation(fileName));
+            } else if (Arrays.equals(hash, previousHash)) {
+                // files of the exploded deployment were touched but hold the same content
+                log.debugf("Content of %s is unchanged", fileName);
+            } else {
+                updates.add(getFullReplaceOperation(fileName, hash));
+            }
 
-                if (uploaded && replaceWithDeployedMarker(child)) {
+            if (fingerprint != null) {
+                fingerprint.setHash(hash);
+                if (writeExplodedMarker(child, fingerprint)) {
                     newlyAdded.add(fileName);
                 }
+            } else if (replaceWithDeployedMarker(child)) {
+                newlyAdded.add(fileName);
+            }
+        }
+        return true;
+    }
+
+    private byte[] addContent(File child, DeploymentFingerprint fingerprint) throws IOException {
+        final String fileName = child.getName();
+        if (fingerprint != null) {
+            return addExplodedContent(fileName, fingerprint);
+        }
+        final InputStream inputStream = new FileInputStream(child);
+        try {
+            return deploymentRepository.addDeploymentContent(fileName, fileName, inputStream);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException ignored) {
             }
         }
     }
 
+    /**
+     * Archive an exploded deployment to a temporary file and add that to the repository.  The repository holds each
+     * deployment as one archive named by its hash, and replacing a deployment needs the whole archive, so a change
+     * to any file means archiving and hashing the complete tree; hashing single files would need a repository which
+     * stores trees.  Scans only get here once the fingerprint shows a change, and the archive of a tree whose files
+     * hold the same content as before is identical to the last one added, so passing the last hash lets the
+     * repository compare instead of storing it again.
+     */
+    private byte[] addExplodedContent(String fileName, DeploymentFingerprint fingerprint) throws IOException {
+        final File archive = File.createTempFile("exploded-", ".zip");
+        try {
+            final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(archive));
+            try {
+                fingerprint.writeArchive(outputStream);
+            } finally {
+                outputStream.close();
+            }
+            final InputStream inputStream = new FileInputStream(archive);
+            try {
+                return deploymentRepository.addDeploymentContent(fileName, fileName, inputStream, fingerprint.getHash());
+            } finally {
+                try {
+                    inputStream.close();
+                } catch (IOException ignored) {
+                }
+            }
+        } finally {
+            if (! archive.delete()) {
+                archive.deleteOnExit();
+            }
+        }
+    }
+
+    private static boolean isExplodedDeployment(File directory) {
+        String fileName = directory.getName();
+        int idx = fileName.lastIndexOf('.');
+        return idx > -1 && ARCHIVES.contains(fileName.substring(idx));
+    }
+
+    /**
+     * Adds a marker file holding the fingerprint of an exploded deployment, leaving the content in place
+     */
+    private boolean writeExplodedMarker(File child, DeploymentFingerprint fingerprint) {
+        File marker = new File(child.getParent(), child.getName() + DEPLOYED);
+        try {
+            fingerprint.write(marker);
+            return true;
+        }
+        catch (IOException io) {
+            log.errorf(io, "Caught exception writing deployment marker file %s", marker.getAbsolutePath());
+            marker.delete();
+            return false;
+        }
+    }
+
     /**
      * Adds a marker file, deletes the regular content file
      */
@@ -387,7 +574,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 @Override
                 public void run() {
                     try {
-                        scan();
+                        if (scanInterval > 0) {
+                            scanIfChanged();
+                        } else {
+                            scan();
+                        }
                     } catch (Exception e) {
                         log.errorf(e, "Scan of %s threw Exception", deploymentDir.getAbsolutePath());
                     }
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the fingerprints and archives of exploded deployments.
+ */
+public class DeploymentFingerprintTestCase {
+
+    private File dir;
+    private File root;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile("fingerprint", null);
+        dir.delete();
+        root = new File(dir, "test.war");
+        write(new File(root, "index.html"), "<html/>");
+        write(new File(root, "WEB-INF/web.xml"), "<web-app/>");
+        write(new File(root, "WEB-INF/classes/Test.class"), "class");
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    @Test
+    public void testMatches() throws Exception {
+        final DeploymentFingerprint fingerprint = DeploymentFingerprint.create(root, new ContentStamps());
+        assertTrue(fingerprint.matches(DeploymentFingerprint.create(root, new ContentStamps())));
+        assertFalse(fingerprint.matches(null));
+
+        write(new File(root, "index.html"), "<html></html>");
+        assertFalse(fingerprint.matches(DeploymentFingerprint.create(root, new ContentStamps())));
+    }
+
+    @Test
+    public void testTouchedFileDoesNotMatch() throws Exception {
+        final File file = new File(root, "WEB-INF/web.xml");
+        final DeploymentFingerprint fingerprint = DeploymentFingerprint.create(root, new ContentStamps());
+        assertTrue(file.setLastModified(file.lastModified() - 10000L));
+        assertFalse(fingerprint.matches(DeploymentFingerprint.create(root, new ContentStamps())));
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        final DeploymentFingerprint fingerprint = DeploymentFingerprint.create(root, new ContentStamps());
+        final File marker = new File(dir, "test.war.deployed");
+        assertNull(fingerprint.getHash());
+        fingerprint.write(marker);
+        DeploymentFingerprint read = DeploymentFingerprint.read(marker);
+        assertNotNull(read);
+        assertNull(read.getHash());
+        assertTrue(fingerprint.matches(read));
+
+        final byte[] hash = new byte[20];
+        hash[19] = 0x7f;
+        fingerprint.setHash(hash);
+        fingerprint.write(marker);
+        read = DeploymentFingerprint.read(marker);
+        assertArrayEquals(hash, read.getHash());
+        assertTrue(fingerprint.matches(read));
+    }
+
+    @Test
+    public void testReadOtherMarkers() throws Exception {
+        final File marker = new File(dir, "test.jar.deployed");
+        // the marker of an archive deployment holds its name
+        write(marker, "test.jar");
+        assertNull(DeploymentFingerprint.read(marker));
+        write(marker, "#exploded \nnot a fingerprint line");
+        assertNull(DeploymentFingerprint.read(marker));
+        assertNull(DeploymentFingerprint.read(new File(dir, "missing.deployed")));
+    }
+
+    @Test
+    public void testArchive() throws Exception {
+        final byte[] archive = archive(DeploymentFingerprint.create(root, new ContentStamps()));
+        final ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive));
+        assertEntry(zip, "WEB-INF/", null);
+        assertEntry(zip, "WEB-INF/classes/", null);
+        assertEntry(zip, "WEB-INF/classes/Test.class", "class");
+        assertEntry(zip, "WEB-INF/web.xml", "<web-app/>");
+        assertEntry(zip, "index.html", "<html/>");
+        assertNull(zip.getNextEntry());
+    }
+
+    @Test
+    public void testArchiveIgnoresModificationTimes() throws Exception {
+        final byte[] archive = archive(DeploymentFingerprint.create(root, new ContentStamps()));
+        final File file = new File(root, "index.html");
+        assertTrue(file.setLastModified(file.lastModified() - 10000L));
+        assertArrayEquals(archive, archive(DeploymentFingerprint.create(root, new ContentStamps())));
+
+        write(file, "<html></html>");
+        assertFalse(Arrays.equals(archive, archive(DeploymentFingerprint.create(root, new ContentStamps()))));
+    }
+
+    @Test
+    public void testCreateRecordsStamps() throws Exception {
+        final ContentStamps stamps = new ContentStamps();
+        DeploymentFingerprint.create(root, stamps);
+        assertFalse(stamps.changed(Long.MAX_VALUE));
+
+        final File file = new File(root, "WEB-INF/classes/Test.class");
+        final long modified = file.lastModified();
+        write(file, "changed class");
+        assertTrue(file.setLastModified(modified));
+        // the size gives the change away
+        assertTrue(stamps.changed(Long.MAX_VALUE));
+    }
+
+    private static byte[] archive(final DeploymentFingerprint fingerprint) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        fingerprint.writeArchive(bytes);
+        return bytes.toByteArray();
+    }
+
+    private static void assertEntry(final ZipInputStream zip, final String name, final String content) throws IOException {
+        final ZipEntry entry = zip.getNextEntry();
+        assertNotNull(entry);
+        assertEquals(name, entry.getName());
+        if (content != null) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[256];
+            int read;
+            while ((read = zip.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            assertEquals(content, new String(bytes.toByteArray(), "UTF-8"));
+        }
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        file.getParentFile().mkdirs();
+        final FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(content.getBytes("UTF-8"));
+        } finally {
+            fos.close();
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -121,6 +121,7 @@ class DomainModelImpl extends BasicModelController implements DomainModel {
         root.registerOperationHandler(READ_RESOURCE_OPERATION, GlobalOperationHandlers.READ_RESOURCE, CommonProviders.READ_RESOURCE_PROVIDER, true);
         root.registerOperationHandler(READ_ATTRIBUTE_OPERATION, GlobalOperationHandlers.READ_ATTRIBUTE, CommonProviders.READ_ATTRIBUTE_PROVIDER, true);
         root.registerOperationHandler(READ_RESOURCE_DESCRIPTION_OPERATION, GlobalOperationHandlers.READ_RESOURCE_DESCRIPTION, CommonProviders.READ_RESOURCE_DESCRIPTION_PROVIDER, true);
+        root.registerMetric("description-cache-size", GlobalOperationHandlers.READ_DESCRIPTION_CACHE_SIZE);
         root.registerOperationHandler(READ_CHILDREN_NAMES_OPERATION, GlobalOperationHandlers.READ_CHILDREN_NAMES, CommonProviders.READ_CHILDREN_NAMES_PROVIDER, true);
         root.registerOperationHandler(READ_OPERATION_NAMES_OPERATION, GlobalOperationHandlers.READ_OPERATION_NAMES, CommonProviders.READ_OPERATION_NAMES_PROVIDER, true);
         root.registerOperationHandler(READ_OPERATION_DESCRIPTION_OPERATION, GlobalOperationHandlers.READ_OPERATION_DESCRIPTION, CommonProviders.READ_OPERATION_PROVIDER, true);
@@ -181,12 +182,12 @@ class DomainModelImpl extends BasicModelController implements DomainModel {
     void registerProxy(final ProxyController controller) {
         final PathElement element = controller.getProxyNodeAddress().getLastElement();
         getRegistry().registerProxyController(element, controller);
-        getModel().get(element.getKey(), element.getValue());
+        createModel(PathAddress.pathAddress(element));
     }
 
     void unregisterProxy(final PathAddress proxyNodeAddress) {
         final PathElement element = proxyNodeAddress.getLastElement();
-        getModel().get(element.getKey()).remove(element.getValue());
+        updateModel(PathAddress.pathAddress(element), null);
         getRegistry().unregisterProxyController(element);
     }
 
@@ -1,23 +1,32 @@
 package org.jboss.as.domain.http.server;
 
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.PrintStream;
+import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
 
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.logging.Logger;
 
 import com.sun.net.httpserver.Headers;
@@ -34,6 +43,10 @@ import com.sun.net.httpserver.HttpServer;
 public class DomainHttpServer implements HttpHandler {
 
     private static final String DOMAIN_API_CONTEXT = "/domain-api";
+    private static final String DMR_ENCODED = "application/dmr-encoded";
+    private static final String COMPOSITE = "composite";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_REQUEST_LENGTH = 1 << 20;
     private static final Logger log = Logger.getLogger("org.jboss.as.domain.http.api");
 
 
@@ -69,8 +82,11 @@ public class DomainHttpServer implements HttpHandler {
     @Override
     public void handle(HttpExchange http) throws IOException {
         URI request = http.getRequestURI();
+        final String method = http.getRequestMethod();
+        final boolean post = method.equals("POST");
 
-        if (! http.getRequestMethod().equals("GET")) {
+        if (! post && ! method.equals("GET")) {
+            http.getResponseHeaders().add("Allow", "GET, POST");
             http.sendResponseHeaders(405, -1);
             return;
         }
@@ -80,11 +96,41 @@ public class DomainHttpServer implements HttpHandler {
         int status = 200;
 
         Headers requestHeaders = http.getRequestHeaders();
-        boolean encode = "application/dmr-encoded".equals(requestHeaders.getFirst("Accept")) ||
-                         "application/dmr-encoded".equals(requestHeaders.getFirst("Content-Type"));
+        boolean encode = DMR_ENCODED.equals(requestHeaders.getFirst("Accept")) ||
+                         DMR_ENCODED.equals(requestHeaders.getFirst("Content-Type"));
+
+        if (post) {
+            final String contentLength = requestHeaders.getFirst("Content-Length");
+            if (contentLength != null && isTooLong(contentLength)) {
+                http.sendResponseHeaders(413, -1);
+                return;
+            }
+            try {
+                dmr = convertPostRequest(new LimitedInputStream(http.getRequestBody()), DMR_ENCODED.equals(requestHeaders.getFirst("Content-Type")));
+            } catch (RequestTooLongException e) {
+                http.sendResponseHeaders(413, -1);
+                return;
+            } catch (IOException e) {
+                log.debugf(e, "Invalid model request");
+                http.sendResponseHeaders(400, -1);
+                return;
+            } catch (StackOverflowError e) {
+                // a deeply nested dmr-encoded request
+                log.debugf("Invalid model request nested too deeply");
+                http.sendResponseHeaders(400, -1);
+                return;
+            }
+            // the API is unauthenticated and allows any origin, so it must not be usable to change the model
+            if (! isReadOnly(dmr)) {
+                http.sendResponseHeaders(403, -1);
+                return;
+            }
+        }
 
         try {
-            dmr = convertToRequest(request);
+            if (dmr == null) {
+                dmr = convertToRequest(request);
+            }
             response = modelController.execute(dmr);
         } catch (OperationFailedException e) {
             response = e.getFailureDescription();
@@ -95,13 +141,19 @@ public class DomainHttpServer implements HttpHandler {
             return;
         }
 
+        final boolean gzip = acceptsGzip(requestHeaders);
         Headers responseHeaders = http.getResponseHeaders();
-        responseHeaders.add("Content-Type", encode ? "application/dmr-encoded" : "application/json");
+        responseHeaders.add("Content-Type", encode ? DMR_ENCODED : "application/json");
         responseHeaders.add("Access-Control-Allow-Origin", "*");
+        if (gzip) {
+            responseHeaders.add("Content-Encoding", "gzip");
+        }
         http.sendResponseHeaders(status, 0);
 
         OutputStream out = http.getResponseBody();
-        PrintStream print = new PrintStream(out);
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
 
         // Successful responses are wrapped in a result field to allow for an outcome,
         // which is already represented in the HTTP status, unwrap it.
@@ -112,14 +164,103 @@ public class DomainHttpServer implements HttpHandler {
             if (encode) {
                 response.writeBase64(out);
             } else {
-                // TODO: Change DMR to stream JSON output
-                print.println(response.toJSONString(false));
+                // written as it is generated, so the document is never held in memory as a whole
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"), BUFFER_SIZE);
+                ModelNodeJson.write(response, writer);
+                writer.write('\n');
+                writer.flush();
+            }
+        } finally {
+            // also finishes the gzip stream
+            out.close();
+        }
+    }
+
+    /**
+     * Read the operation sent as the body of a POST request.  A JSON array is a batch, executed as a single
+     * composite operation whose steps are the elements of the array.
+     */
+    private ModelNode convertPostRequest(InputStream body, boolean encoded) throws IOException {
+        try {
+            if (encoded) {
+                return ModelNode.fromBase64(body);
             }
+            final ModelNode dmr = ModelNodeJson.read(new BufferedReader(new InputStreamReader(body, "UTF-8")));
+            if (dmr.getType() == ModelType.LIST) {
+                final ModelNode composite = new ModelNode();
+                composite.get("operation").set(COMPOSITE);
+                composite.get("address").setEmptyList();
+                composite.get("steps").set(dmr);
+                return composite;
+            }
+            if (dmr.getType() != ModelType.OBJECT) {
+                throw new IOException("Request body is not an operation");
+            }
+            return dmr;
         } finally {
-            out.flush();
-            print.flush();
-            print.close();
+            body.close();
+        }
+    }
+
+    private boolean isTooLong(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim()) > MAX_REQUEST_LENGTH;
+        } catch (NumberFormatException e) {
+            // left to the limited stream
+            return false;
+        }
+    }
+
+    private boolean isReadOnly(ModelNode operation) {
+        if (! operation.hasDefined("operation")) {
+            return false;
+        }
+        final String name = operation.get("operation").asString();
+        if (COMPOSITE.equals(name)) {
+            if (! operation.hasDefined("steps")) {
+                return false;
+            }
+            for (ModelNode step : operation.get("steps").asList()) {
+                if (! isReadOnly(step)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (GetOperation get : GetOperation.values()) {
+            if (get.realOperation().equals(name)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private boolean acceptsGzip(Headers requestHeaders) {
+        final List<String> values = requestHeaders.get("Accept-Encoding");
+        if (values == null)
+            return false;
+
+        for (String value : values) {
+            for (String encoding : value.split(",")) {
+                String[] parameters = encoding.split(";");
+                if (! parameters[0].trim().equalsIgnoreCase("gzip"))
+                    continue;
+
+                // an encoding with a quality of 0 is not acceptable
+                for (int i = 1; i < parameters.length; i++) {
+                    String parameter = parameters[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            return Float.parseFloat(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
     }
 
     private ModelNode convertToRequest(URI request) {
@@ -240,4 +381,58 @@ public class DomainHttpServer implements HttpHandler {
         return new DomainHttpServer(server, modelController);
     }
 
+    /**
+     * Thrown when a request body is longer than {@link #MAX_REQUEST_LENGTH}.
+     */
+    private static final class RequestTooLongException extends IOException {
+        private static final long serialVersionUID = -3452893049837454389L;
+
+        RequestTooLongException() {
+            super("Request body longer than " + MAX_REQUEST_LENGTH + " bytes");
+        }
+    }
+
+    /**
+     * A request body which fails once more than {@link #MAX_REQUEST_LENGTH} bytes have been read, whatever its
+     * declared length.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining = MAX_REQUEST_LENGTH;
+
+        LimitedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1 && --remaining < 0) {
+                throw new RequestTooLongException();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0 && (remaining -= n) < 0) {
+                throw new RequestTooLongException();
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(Math.min(n, remaining + 1));
+            if ((remaining -= skipped) < 0) {
+                throw new RequestTooLongException();
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,372 @@
+package org.jboss.as.domain.http.server;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * Streaming conversion between {@link ModelNode}s and JSON.  Unlike {@link ModelNode#toJSONString(boolean)}, the
+ * writer never holds the whole document in memory, so large results go straight to the response body.
+ *
+ * The output is compact JSON.  Byte, expression and type values use the same representation as
+ * {@code toJSONString}; NaN and infinite doubles, which JSON cannot represent as numbers, are written as the strings
+ * {@code "NaN"}, {@code "Infinity"} and {@code "-Infinity"}.
+ */
+final class ModelNodeJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The maximum nesting depth of objects and arrays accepted by {@link #read(Reader)}.
+     */
+    static final int MAX_DEPTH = 64;
+
+    /**
+     * The maximum length of a number accepted by {@link #read(Reader)}, since parsing a big number takes time
+     * quadratic in its length.
+     */
+    static final int MAX_NUMBER_LENGTH = 64;
+
+    private ModelNodeJson() {
+    }
+
+    /**
+     * Write a model node as JSON.  The writer is neither flushed nor closed.
+     *
+     * @param node the node
+     * @param out the destination
+     * @throws IOException if writing fails
+     */
+    static void write(final ModelNode node, final Writer out) throws IOException {
+        switch (node.getType()) {
+            case OBJECT: {
+                out.write('{');
+                boolean first = true;
+                for (String key : node.keys()) {
+                    if (! first) out.write(',');
+                    first = false;
+                    writeString(key, out);
+                    out.write(':');
+                    write(node.get(key), out);
+                }
+                out.write('}');
+                break;
+            }
+            case LIST: {
+                out.write('[');
+                boolean first = true;
+                for (ModelNode element : node.asList()) {
+                    if (! first) out.write(',');
+                    first = false;
+                    write(element, out);
+                }
+                out.write(']');
+                break;
+            }
+            case PROPERTY: {
+                final Property property = node.asProperty();
+                out.write('{');
+                writeString(property.getName(), out);
+                out.write(':');
+                write(property.getValue(), out);
+                out.write('}');
+                break;
+            }
+            case STRING:
+                writeString(node.asString(), out);
+                break;
+            case DOUBLE: {
+                final double value = node.asDouble();
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    writeString(Double.toString(value), out);
+                } else {
+                    out.write(node.asString());
+                }
+                break;
+            }
+            case BOOLEAN:
+            case INT:
+            case LONG:
+            case BIG_DECIMAL:
+            case BIG_INTEGER:
+                out.write(node.asString());
+                break;
+            case UNDEFINED:
+                out.write("null");
+                break;
+            default:
+                // bytes, expressions and types are small leaves
+                out.write(node.toJSONString(true));
+        }
+    }
+
+    private static void writeString(final String string, final Writer out) throws IOException {
+        out.write('"');
+        final int length = string.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = string.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.write(string, start, i - start);
+            start = i + 1;
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                case '\b': out.write("\\b"); break;
+                case '\f': out.write("\\f"); break;
+                default:
+                    out.write("\\u00");
+                    out.write(HEX[c >> 4]);
+                    out.write(HEX[c & 0xf]);
+            }
+        }
+        out.write(string, start, length - start);
+        out.write('"');
+    }
+
+    /**
+     * Read a single JSON value as a model node.  Objects become object nodes, arrays list nodes and {@code null}
+     * an undefined node; integral numbers become {@code int}, {@code long} or big integer nodes depending on their
+     * size.  Objects and arrays may be nested at most {@link #MAX_DEPTH} levels deep, and numbers may be at most
+     * {@link #MAX_NUMBER_LENGTH} characters long.
+     *
+     * @param in the source
+     * @return the node
+     * @throws IOException if reading fails, the input is not valid JSON or it exceeds the limits above
+     */
+    static ModelNode read(final Reader in) throws IOException {
+        final Parser parser = new Parser(in);
+        final ModelNode node = parser.readValue();
+        if (parser.skipWhitespace() != -1) {
+            throw parser.error("Unexpected content after JSON value");
+        }
+        return node;
+    }
+
+    private static final class Parser {
+        private final Reader in;
+        private int next = -2;
+        private long position;
+        private int depth;
+
+        Parser(final Reader in) {
+            this.in = in;
+        }
+
+        private int peek() throws IOException {
+            if (next == -2) {
+                next = in.read();
+            }
+            return next;
+        }
+
+        private int read() throws IOException {
+            final int c = peek();
+            next = -2;
+            position++;
+            return c;
+        }
+
+        int skipWhitespace() throws IOException {
+            int c;
+            while ((c = peek()) == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                read();
+            }
+            return c;
+        }
+
+        private void expect(final char expected) throws IOException {
+            if (read() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        IOException error(final String message) {
+            return new IOException(message + " at character " + position);
+        }
+
+        ModelNode readValue() throws IOException {
+            final ModelNode node = new ModelNode();
+            final int c = skipWhitespace();
+            switch (c) {
+                case '{': {
+                    enter();
+                    node.setEmptyObject();
+                    if (skipWhitespace() == '}') {
+                        read();
+                        depth--;
+                        break;
+                    }
+                    do {
+                        if (skipWhitespace() != '"') {
+                            throw error("Expected a member name");
+                        }
+                        final String key = readString();
+                        skipWhitespace();
+                        expect(':');
+                        node.get(key).set(readValue());
+                    } while (readSeparator('}'));
+                    depth--;
+                    break;
+                }
+                case '[': {
+                    enter();
+                    node.setEmptyList();
+                    if (skipWhitespace() == ']') {
+                        read();
+                        depth--;
+                        break;
+                    }
+                    do {
+                        node.add(readValue());
+                    } while (readSeparator(']'));
+                    depth--;
+                    break;
+                }
+                case '"':
+                    node.set(readString());
+                    break;
+                case 't':
+                    readLiteral("true");
+                    node.set(true);
+                    break;
+                case 'f':
+                    readLiteral("false");
+                    node.set(false);
+                    break;
+                case 'n':
+                    readLiteral("null");
+                    break;
+                case -1:
+                    throw error("Unexpected end of input");
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        readNumber(node);
+                    } else {
+                        throw error("Unexpected character '" + (char) c + "'");
+                    }
+            }
+            return node;
+        }
+
+        /**
+         * Consume the opening character of an object or array, which must not exceed the maximum depth.  The
+         * parser is recursive, so this also bounds its stack usage.
+         */
+        private void enter() throws IOException {
+            if (++depth > MAX_DEPTH) {
+                throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+            }
+            read();
+        }
+
+        /**
+         * Read the separator after an object member or array element.
+         *
+         * @return {@code true} if another member or element follows
+         */
+        private boolean readSeparator(final char end) throws IOException {
+            final int c = skipWhitespace();
+            read();
+            if (c == ',') {
+                return true;
+            }
+            if (c == end) {
+                return false;
+            }
+            throw error("Expected ',' or '" + end + "'");
+        }
+
+        private void readLiteral(final String literal) throws IOException {
+            for (int i = 0; i < literal.length(); i++) {
+                if (read() != literal.charAt(i)) {
+                    throw error("Expected '" + literal + "'");
+                }
+            }
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            final StringBuilder builder = new StringBuilder();
+            for (;;) {
+                final int c = read();
+                switch (c) {
+                    case '"':
+                        return builder.toString();
+                    case '\\': {
+                        final int e = read();
+                        switch (e) {
+                            case '"': case '\\': case '/': builder.append((char) e); break;
+                            case 'n': builder.append('\n'); break;
+                            case 'r': builder.append('\r'); break;
+                            case 't': builder.append('\t'); break;
+                            case 'b': builder.append('\b'); break;
+                            case 'f': builder.append('\f'); break;
+                            case 'u': {
+                                int value = 0;
+                                for (int i = 0; i < 4; i++) {
+                                    final int digit = Character.digit(read(), 16);
+                                    if (digit == -1) {
+                                        throw error("Invalid unicode escape");
+                                    }
+                                    value = value << 4 | digit;
+                                }
+                                builder.append((char) value);
+                                break;
+                            }
+                            default:
+                                throw error("Invalid escape");
+                        }
+                        break;
+                    }
+                    case -1:
+                        throw error("Unterminated string");
+                    default:
+                        builder.append((char) c);
+                }
+            }
+        }
+
+        private void readNumber(final ModelNode node) throws IOException {
+            final StringBuilder builder = new StringBuilder();
+            boolean decimal = false;
+            int c;
+            while ((c = peek()) == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                }
+                if (builder.length() == MAX_NUMBER_LENGTH) {
+                    throw error("Number longer than " + MAX_NUMBER_LENGTH + " characters");
+                }
+                builder.append((char) read());
+            }
+            final String number = builder.toString();
+            try {
+                if (decimal) {
+                    node.set(new BigDecimal(number).doubleValue());
+                    return;
+                }
+                final BigInteger value = new BigInteger(number);
+                if (value.bitLength() < 32) {
+                    node.set(value.intValue());
+                } else if (value.bitLength() < 64) {
+                    node.set(value.longValue());
+                } else {
+                    node.set(value);
+                }
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + number + "'");
+            }
+        }
+    }
+}
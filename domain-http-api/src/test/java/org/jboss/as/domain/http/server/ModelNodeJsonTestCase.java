@@ -0,0 +1,122 @@
+package org.jboss.as.domain.http.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests the streaming JSON conversion of the HTTP management API.
+ */
+public class ModelNodeJsonTestCase {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final ModelNode node = new ModelNode();
+        node.get("string").set("value");
+        node.get("int").set(42);
+        node.get("long").set(1L << 40);
+        node.get("big-integer").set(BigInteger.ONE.shiftLeft(80));
+        node.get("double").set(1.5);
+        node.get("boolean").set(true);
+        node.get("undefined");
+        node.get("empty-object").setEmptyObject();
+        node.get("empty-list").setEmptyList();
+        node.get("list").add(1).add("two").add(false);
+        node.get("nested", "child").set("grandchild");
+
+        assertEquals(node, read(write(node)));
+    }
+
+    @Test
+    public void testStringEscapes() throws Exception {
+        final String value = "quote\" backslash\\ slash/ newline\n tab\t control\u0001 unicode\u00e9";
+        final String json = write(new ModelNode().set(value));
+
+        assertEquals("\"quote\\\" backslash\\\\ slash/ newline\\n tab\\t control\\u0001 unicode\u00e9\"", json);
+        assertEquals(value, read(json).asString());
+        assertEquals("/\u00e9", read("\"\\/\\u00E9\"").asString());
+    }
+
+    @Test
+    public void testNonFiniteDoubles() throws Exception {
+        final ModelNode node = new ModelNode();
+        node.add(Double.NaN).add(Double.POSITIVE_INFINITY).add(Double.NEGATIVE_INFINITY);
+        final String json = write(node);
+
+        assertEquals("[\"NaN\",\"Infinity\",\"-Infinity\"]", json);
+        // still valid JSON
+        assertEquals(3, read(json).asList().size());
+    }
+
+    @Test
+    public void testMaximumDepth() throws Exception {
+        read(nestedArrays(ModelNodeJson.MAX_DEPTH));
+        try {
+            read(nestedArrays(ModelNodeJson.MAX_DEPTH + 1));
+            fail("Nesting deeper than the maximum was accepted");
+        } catch (IOException expected) {
+        }
+        try {
+            // far deeper than the stack allows if the depth were not checked
+            read(nestedArrays(1000000));
+            fail("Deep nesting was accepted");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void testMaximumNumberLength() throws Exception {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < ModelNodeJson.MAX_NUMBER_LENGTH; i++) {
+            builder.append('9');
+        }
+        assertEquals(new BigInteger(builder.toString()), read(builder.toString()).asBigInteger());
+        try {
+            read(builder.append('9').toString());
+            fail("Number longer than the maximum was accepted");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void testInvalidInput() throws Exception {
+        final String[] invalid = { "", "{", "[1,]", "{\"a\" 1}", "\"unterminated", "\"\\x\"", "tru", "1 2", "-" };
+        for (String json : invalid) {
+            try {
+                read(json);
+                fail("Accepted " + json);
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage().contains("at character"));
+            }
+        }
+    }
+
+    private static String nestedArrays(final int depth) {
+        final StringBuilder builder = new StringBuilder(depth * 2);
+        for (int i = 0; i < depth; i++) {
+            builder.append('[');
+        }
+        for (int i = 0; i < depth; i++) {
+            builder.append(']');
+        }
+        return builder.toString();
+    }
+
+    private static String write(final ModelNode node) throws IOException {
+        final StringWriter writer = new StringWriter();
+        ModelNodeJson.write(node, writer);
+        return writer.toString();
+    }
+
+    private static ModelNode read(final String json) throws IOException {
+        return ModelNodeJson.read(new StringReader(json));
+    }
+}
@@ -52,6 +52,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRI
 import org.jboss.as.controller.BasicModelController;
 import org.jboss.as.controller.ExtensionContext;
 import org.jboss.as.controller.ExtensionContextImpl;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.descriptions.common.CommonProviders;
@@ -102,6 +103,7 @@ class HostModel extends BasicModelController {
         root.registerOperationHandler(READ_RESOURCE_OPERATION, GlobalOperationHandlers.READ_RESOURCE, CommonProviders.READ_RESOURCE_PROVIDER, true);
         root.registerOperationHandler(READ_ATTRIBUTE_OPERATION, GlobalOperationHandlers.READ_ATTRIBUTE, CommonProviders.READ_ATTRIBUTE_PROVIDER, true);
         root.registerOperationHandler(READ_RESOURCE_DESCRIPTION_OPERATION, GlobalOperationHandlers.READ_RESOURCE_DESCRIPTION, CommonProviders.READ_RESOURCE_DESCRIPTION_PROVIDER, true);
+        root.registerMetric("description-cache-size", GlobalOperationHandlers.READ_DESCRIPTION_CACHE_SIZE);
         root.registerOperationHandler(READ_CHILDREN_NAMES_OPERATION, GlobalOperationHandlers.READ_CHILDREN_NAMES, CommonProviders.READ_CHILDREN_NAMES_PROVIDER, true);
         root.registerOperationHandler(READ_OPERATION_NAMES_OPERATION, GlobalOperationHandlers.READ_OPERATION_NAMES, CommonProviders.READ_OPERATION_NAMES_PROVIDER, true);
         root.registerOperationHandler(READ_OPERATION_DESCRIPTION_OPERATION, GlobalOperationHandlers.READ_OPERATION_DESCRIPTION, CommonProviders.READ_OPERATION_PROVIDER, true);
@@ -208,12 +210,12 @@ class HostModel extends BasicModelController {
     void registerProxy(final ProxyController controller) {
         final PathElement element = controller.getProxyNodeAddress().getLastElement();
         getRegistry().registerProxyController(element, controller);
-        getModel().get(element.getKey(), element.getValue());
+        createModel(PathAddress.pathAddress(element));
     }
 
     void unregisterProxy(final String serverName) {
         PathElement element = PathElement.pathElement(RUNNING_SERVER, serverName);
-        getModel().get(element.getKey()).remove(element.getValue());
+        updateModel(PathAddress.pathAddress(element), null);
         getRegistry().unregisterProxyController(element);
     }
 }
@@ -82,6 +82,7 @@ public class ManagementCommunicationService implements Service<ManagementCommuni
             config.setReadExecutor(executorService);
             config.setSocketFactory(ServerSocketFactory.getDefault());
             config.setBacklog(50);
+            config.setNonBlocking(true);
             config.setConnectionHandler(this);
 
             server = new ProtocolServer(config);
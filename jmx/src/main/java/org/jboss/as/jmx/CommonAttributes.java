@@ -30,4 +30,6 @@ interface CommonAttributes {
     String SERVER_BINDING = "server-binding";
     String REGISTRY_BINDING = "registry-binding";
     String JMX_CONNECTOR = "jmx-connector";
+    String OBJECT_NAME = "object-name";
+    String ATTRIBUTES = "attributes";
 }
@@ -76,6 +76,7 @@ public class JMXExtension implements Extension {
         registration.registerOperationHandler(DESCRIBE, JMXDescribeHandler.INSTANCE, JMXDescribeHandler.INSTANCE, false);
         registration.registerOperationHandler(JMXConnectorAdd.OPERATION_NAME, JMXConnectorAdd.INSTANCE, JMXSubsystemProviders.JMX_CONNECTOR_ADD, false);
         registration.registerOperationHandler(JMXConnectorRemove.OPERATION_NAME, JMXConnectorRemove.INSTANCE, JMXSubsystemProviders.JMX_CONNECTOR_REMOVE, false);
+        registration.registerOperationHandler(ReadMBeanAttributes.OPERATION_NAME, ReadMBeanAttributes.INSTANCE, ReadMBeanAttributes.INSTANCE, false);
 
         subsystem.registerXMLElementWriter(parsers);
     }
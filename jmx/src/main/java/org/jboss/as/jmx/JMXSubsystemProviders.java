@@ -22,11 +22,20 @@
 
 package org.jboss.as.jmx;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * @author Emanuel Muckenhuber
@@ -92,6 +101,24 @@ public class JMXSubsystemProviders {
 
     };
 
+    static ModelNode getReadMBeanAttributes(final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+
+        final ModelNode node = new ModelNode();
+        node.get(OPERATION_NAME).set(ReadMBeanAttributes.OPERATION_NAME);
+        node.get(DESCRIPTION).set(bundle.getString("read-mbean-attributes"));
+        node.get(REQUEST_PROPERTIES, CommonAttributes.OBJECT_NAME, DESCRIPTION).set(bundle.getString("read-mbean-attributes.object-name"));
+        node.get(REQUEST_PROPERTIES, CommonAttributes.OBJECT_NAME, TYPE).set(ModelType.STRING);
+        node.get(REQUEST_PROPERTIES, CommonAttributes.OBJECT_NAME, REQUIRED).set(true);
+        node.get(REQUEST_PROPERTIES, CommonAttributes.ATTRIBUTES, DESCRIPTION).set(bundle.getString("read-mbean-attributes.attributes"));
+        node.get(REQUEST_PROPERTIES, CommonAttributes.ATTRIBUTES, TYPE).set(ModelType.LIST);
+        node.get(REQUEST_PROPERTIES, CommonAttributes.ATTRIBUTES, VALUE_TYPE).set(ModelType.STRING);
+        node.get(REQUEST_PROPERTIES, CommonAttributes.ATTRIBUTES, REQUIRED).set(false);
+        node.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString("read-mbean-attributes.reply"));
+        node.get(REPLY_PROPERTIES, TYPE).set(ModelType.OBJECT);
+        return node;
+    }
+
     private static ResourceBundle getResourceBundle(Locale locale) {
         if (locale == null) {
             locale = Locale.getDefault();
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx;
+
+import java.util.List;
+import java.util.Locale;
+
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.jmx.tcl.TcclMBeanServer;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Operation reading attributes of all MBeans matching an object name pattern in one request, so monitoring clients
+ * do not need a JMX round trip per MBean and attribute.
+ */
+class ReadMBeanAttributes implements ModelQueryOperationHandler, RuntimeOperationHandler, DescriptionProvider {
+
+    static final String OPERATION_NAME = "read-mbean-attributes";
+
+    static final ReadMBeanAttributes INSTANCE = new ReadMBeanAttributes();
+
+    /** Private to ensure a singleton. */
+    private ReadMBeanAttributes() {
+    }
+
+    @Override
+    public ModelNode getModelDescription(Locale locale) {
+        return JMXSubsystemProviders.getReadMBeanAttributes(locale);
+    }
+
+    @Override
+    public Cancellable execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
+        final ObjectName name;
+        try {
+            name = new ObjectName(operation.require(CommonAttributes.OBJECT_NAME).asString());
+        } catch (MalformedObjectNameException e) {
+            resultHandler.handleFailed(new ModelNode().set("Invalid object name: " + e.getMessage()));
+            return Cancellable.NULL;
+        }
+        String[] attributes = null;
+        if (operation.hasDefined(CommonAttributes.ATTRIBUTES)) {
+            final List<ModelNode> list = operation.get(CommonAttributes.ATTRIBUTES).asList();
+            attributes = new String[list.size()];
+            for (int i = 0; i < attributes.length; i++) {
+                attributes[i] = list.get(i).asString();
+            }
+        }
+
+        ModelNode result = new ModelNode();
+        if (context instanceof RuntimeOperationContext) {
+            final RuntimeOperationContext runtimeContext = (RuntimeOperationContext) context;
+            final ServiceController<?> controller = runtimeContext.getServiceRegistry().getService(MBeanServerService.SERVICE_NAME);
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                final MBeanServer server = (MBeanServer) controller.getValue();
+                final TcclMBeanServer tcclServer = server instanceof TcclMBeanServer ? (TcclMBeanServer) server : new TcclMBeanServer(server);
+                result = tcclServer.getAttributes(name, null, attributes);
+            }
+        }
+        resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+}
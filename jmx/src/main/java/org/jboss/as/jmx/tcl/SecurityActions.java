@@ -39,6 +39,18 @@ class SecurityActions {
         }
     }
 
+    static ClassLoader getThreadContextClassLoader() {
+        if (System.getSecurityManager() == null) {
+            return Thread.currentThread().getContextClassLoader();
+        } else {
+            return AccessController.doPrivileged(new PrivilegedAction<ClassLoader>() {
+                public ClassLoader run() {
+                    return Thread.currentThread().getContextClassLoader();
+                }
+            });
+        }
+    }
+
     static void resetThreadContextClassLoader(ClassLoader cl) {
         if (System.getSecurityManager() == null) {
             SetThreadContextClassLoaderAction.NON_PRIVILEGED.setThreadContextClassLoader(cl, false);
@@ -22,6 +22,11 @@
 package org.jboss.as.jmx.tcl;
 
 import java.io.ObjectInputStream;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import javax.management.Attribute;
@@ -32,6 +37,9 @@ import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
 import javax.management.InvalidAttributeValueException;
 import javax.management.ListenerNotFoundException;
+import javax.management.JMException;
+import javax.management.JMRuntimeException;
+import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanException;
 import javax.management.MBeanInfo;
 import javax.management.MBeanRegistrationException;
@@ -45,6 +53,9 @@ import javax.management.OperationsException;
 import javax.management.QueryExp;
 import javax.management.ReflectionException;
 import javax.management.loading.ClassLoaderRepository;
+import javax.management.openmbean.CompositeData;
+
+import org.jboss.dmr.ModelNode;
 
 /**
  * An MBeanServer wrapper that sets the thread context classloader before
@@ -147,6 +158,56 @@ public class TcclMBeanServer implements MBeanServer {
         }
     }
 
+    /**
+     * Reads the attributes of all MBeans matching a name pattern and query in a single call. Unlike calling
+     * {@link #getAttributes(ObjectName, String[])} for each MBean, the thread context classloader is only switched when
+     * an MBean has a different classloader than the previous one, and is restored once at the end.
+     * <p>
+     * MBeans unregistered while the attributes are read or failing to report them are left out of the result, as are
+     * attributes which cannot be read. Attribute values are converted to model nodes: numbers, booleans and strings as such, arrays and collections
+     * as lists, maps and {@code CompositeData} as objects, and anything else as its string representation.
+     *
+     * @param name the object name pattern, or null to match all MBeans
+     * @param query the query expression, or null to not filter the matched MBeans
+     * @param attributes the names of the attributes to read, or null to read all readable attributes of each MBean
+     * @return an object node with an entry per MBean, keyed by canonical object name, holding its attribute values
+     */
+    public ModelNode getAttributes(ObjectName name, QueryExp query, String[] attributes) {
+        final ModelNode result = new ModelNode();
+        result.setEmptyObject();
+        final ClassLoader old = SecurityActions.getThreadContextClassLoader();
+        ClassLoader current = old;
+        try {
+            for (ObjectName mbeanName : delegate.queryNames(name, query)) {
+                try {
+                    final ClassLoader mbeanCl = delegate.getClassLoaderFor(mbeanName);
+                    if (mbeanCl != current) {
+                        SecurityActions.resetThreadContextClassLoader(mbeanCl);
+                        current = mbeanCl;
+                    }
+                    final String[] names = attributes != null ? attributes : getReadableAttributes(mbeanName);
+                    final AttributeList values = delegate.getAttributes(mbeanName, names);
+                    final ModelNode node = new ModelNode();
+                    node.setEmptyObject();
+                    for (Object o : values) {
+                        final Attribute attribute = (Attribute) o;
+                        node.get(attribute.getName()).set(toModelNode(attribute.getValue()));
+                    }
+                    result.get(mbeanName.getCanonicalName()).set(node);
+                } catch (JMException e) {
+                    // unregistered since the query or its attributes cannot be listed, leave it out
+                } catch (JMRuntimeException e) {
+                    // the MBean itself failed, so one broken MBean does not fail the whole read
+                }
+            }
+        } finally {
+            if (current != old) {
+                resetClassLoader(old);
+            }
+        }
+        return result;
+    }
+
     public ClassLoader getClassLoader(ObjectName loaderName) throws InstanceNotFoundException {
         return delegate.getClassLoader(loaderName);
     }
@@ -300,6 +361,71 @@ public class TcclMBeanServer implements MBeanServer {
         delegate.unregisterMBean(name);
     }
 
+    private String[] getReadableAttributes(ObjectName name) throws JMException {
+        final MBeanAttributeInfo[] infos = delegate.getMBeanInfo(name).getAttributes();
+        int count = 0;
+        final String[] names = new String[infos.length];
+        for (MBeanAttributeInfo info : infos) {
+            if (info.isReadable()) {
+                names[count++] = info.getName();
+            }
+        }
+        if (count == names.length) {
+            return names;
+        }
+        final String[] readable = new String[count];
+        System.arraycopy(names, 0, readable, 0, count);
+        return readable;
+    }
+
+    private static ModelNode toModelNode(Object value) {
+        final ModelNode node = new ModelNode();
+        if (value == null) {
+            return node;
+        } else if (value instanceof String) {
+            node.set((String) value);
+        } else if (value instanceof Boolean) {
+            node.set(((Boolean) value).booleanValue());
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            node.set(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            node.set(((Long) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            node.set(((Number) value).doubleValue());
+        } else if (value instanceof BigInteger) {
+            node.set((BigInteger) value);
+        } else if (value instanceof BigDecimal) {
+            node.set((BigDecimal) value);
+        } else if (value instanceof byte[]) {
+            node.set((byte[]) value);
+        } else if (value.getClass().isArray()) {
+            node.setEmptyList();
+            final int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                node.add(toModelNode(Array.get(value, i)));
+            }
+        } else if (value instanceof Collection<?>) {
+            node.setEmptyList();
+            for (Object element : (Collection<?>) value) {
+                node.add(toModelNode(element));
+            }
+        } else if (value instanceof Map<?, ?>) {
+            node.setEmptyObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                node.get(String.valueOf(entry.getKey())).set(toModelNode(entry.getValue()));
+            }
+        } else if (value instanceof CompositeData) {
+            final CompositeData data = (CompositeData) value;
+            node.setEmptyObject();
+            for (String key : data.getCompositeType().keySet()) {
+                node.get(key).set(toModelNode(data.get(key)));
+            }
+        } else {
+            node.set(value.toString());
+        }
+        return node;
+    }
+
     private ClassLoader pushClassLoader(ObjectName name) throws InstanceNotFoundException {
         ClassLoader mbeanCl = delegate.getClassLoaderFor(name);
         return SecurityActions.setThreadContextClassLoader(mbeanCl);
@@ -22,8 +22,7 @@
 
 package org.jboss.as.naming;
 
-import org.jboss.as.naming.util.FastCopyHashMap;
-
+import org.jboss.as.naming.context.ModularReference;
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
 import javax.naming.CompositeName;
@@ -38,10 +37,10 @@ import javax.naming.event.NamingEvent;
 import javax.naming.event.NamingListener;
 import javax.naming.spi.ResolveResult;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.jboss.as.naming.util.NamingUtils.asReference;
 import static org.jboss.as.naming.util.NamingUtils.cannotProceedException;
@@ -58,6 +57,12 @@ import static org.jboss.as.naming.util.NamingUtils.notAContextException;
  * In-memory implementation of the NamingStore.  The backing for the entries is a basic tree structure with either context
  * nodes or binding nodes.  The context nodes are allowed to have children and can be represented by a NamingContext.  A
  * binding node is only allowed to have a normal object binding.
+ * <p>
+ * Every node except the root is also held in an index keyed by its full name, so a lookup of a bound name is a single
+ * hash probe without walking the tree; the tree is still used to list contexts and to resolve names which are not
+ * bound, such as those continuing through a reference.  Lookups do not lock.  Changes lock the store only while
+ * updating the tree and the index, so binding into a large context does not copy its children.
+ * </p>
  *
  * @author John E. Bailey
  */
@@ -66,6 +71,12 @@ public class InMemoryNamingStore implements NamingStore {
     /* The root node of the tree.  Represents a JNDI name of "" */
     private final ContextNode root = new ContextNode(emptyName(), null);
 
+    /* Every node other than the root by full name */
+    private final ConcurrentMap<Name, TreeNode> index = new ConcurrentHashMap<Name, TreeNode>();
+
+    /* Held while changing the tree and the index */
+    private final Object writeLock = new Object();
+
     /* Cached security namanger */
     private transient SecurityManager securityManager;
 
@@ -152,6 +163,10 @@ public class InMemoryNamingStore implements NamingStore {
             return new NamingContext(emptyName, this, new Hashtable<String, Object>());
         }
         checkPermissions(name, JndiPermission.Action.LOOKUP);
+        final TreeNode node = index.get(name);
+        if (node != null) {
+            return node.binding.getObject();
+        }
         return root.accept(new LookupVisitor(name));
     }
 
@@ -261,7 +276,8 @@ public class InMemoryNamingStore implements NamingStore {
         protected final Binding binding;
 
         private TreeNode(final Name fullName, final Binding binding) {
-            this.fullName = fullName;
+            // the name is an index key, so must not change with the caller's copy
+            this.fullName = (Name) fullName.clone();
             this.binding = binding;
         }
 
@@ -269,42 +285,59 @@ public class InMemoryNamingStore implements NamingStore {
     }
 
     private class ContextNode extends TreeNode {
-        private volatile Map<String, TreeNode> children = Collections.emptyMap();
+        private final ConcurrentMap<String, TreeNode> children = new ConcurrentHashMap<String, TreeNode>();
 
         private ContextNode(final Name fullName, final NamingContext context) {
             super(fullName, new Binding(getLastComponent(fullName), Context.class.getName(), context));
         }
 
-        private synchronized void addChild(final String childName, final TreeNode childNode) throws NamingException {
-            if (children.containsKey(childName)) {
-                throw nameAlreadyBoundException(fullName.add(childName));
+        private void addChild(final String childName, final TreeNode childNode) throws NamingException {
+            synchronized (writeLock) {
+                checkAttached();
+                if (children.putIfAbsent(childName, childNode) != null) {
+                    throw nameAlreadyBoundException(((Name) fullName.clone()).add(childName));
+                }
+                index.put(childNode.fullName, childNode);
+            }
+        }
+
+        private TreeNode replaceChild(final String childName, final TreeNode childNode) throws NamingException {
+            synchronized (writeLock) {
+                checkAttached();
+                final TreeNode existing = children.put(childName, childNode);
+                if (existing != null) {
+                    removeFromIndex(existing);
+                }
+                index.put(childNode.fullName, childNode);
+                return existing;
             }
-            final Map<String, TreeNode> copy = new FastCopyHashMap<String, TreeNode>(children);
-            copy.put(childName, childNode);
-            children = copy;
         }
 
-        private synchronized TreeNode replaceChild(final String childName, final TreeNode childNode) throws NamingException {
-            final Map<String, TreeNode> copy = new FastCopyHashMap<String, TreeNode>(children);
-            final TreeNode existing = copy.put(childName, childNode);
-            children = copy;
-            return existing;
+        private TreeNode removeChild(final String childName) throws NameNotFoundException {
+            synchronized (writeLock) {
+                final TreeNode existing = children.remove(childName);
+                if (existing == null) {
+                    throw nameNotFoundException(childName, fullName);
+                }
+                removeFromIndex(existing);
+                return existing;
+            }
         }
 
-        private synchronized TreeNode removeChild(final String childName) throws NameNotFoundException {
-            if (!children.containsKey(childName)) {
-                throw nameNotFoundException(childName, fullName);
+        private void clear() {
+            synchronized (writeLock) {
+                for (TreeNode child : children.values()) {
+                    removeFromIndex(child);
+                }
+                children.clear();
             }
-            final Map<String, TreeNode> copy = new FastCopyHashMap<String, TreeNode>(children);
-            final TreeNode existing = copy.remove(childName);
-            children = copy;
-            return existing;
         }
 
-        private synchronized void clear() {
-            final Map<String, TreeNode> copy = new FastCopyHashMap<String, TreeNode>(children);
-            copy.clear();
-            children = copy;
+        /* A context removed from the tree may still be held by a concurrent change, which must not index new nodes */
+        private void checkAttached() throws NameNotFoundException {
+            if (this != root && index.get(fullName) != this) {
+                throw nameNotFoundException(getLastComponent(fullName), fullName.getPrefix(fullName.size() - 1));
+            }
         }
 
         protected final <T> T accept(NodeVisitor<T> visitor) throws NamingException {
@@ -312,6 +345,20 @@ public class InMemoryNamingStore implements NamingStore {
         }
     }
 
+    private void removeFromIndex(final TreeNode node) {
+        index.remove(node.fullName);
+        final Object object = node.binding.getObject();
+        if (object instanceof ModularReference) {
+            // the same reference may be bound again later, and must then be resolved again
+            ((ModularReference) object).clearResolved();
+        }
+        if (node instanceof ContextNode) {
+            for (TreeNode child : ((ContextNode) node).children.values()) {
+                removeFromIndex(child);
+            }
+        }
+    }
+
     private class BindingNode extends TreeNode {
         private BindingNode(final Name fullName, final Binding binding) {
             super(fullName, binding);
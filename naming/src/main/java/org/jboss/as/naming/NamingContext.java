@@ -32,6 +32,8 @@ import static org.jboss.as.naming.util.NamingUtils.namingException;
 import static org.jboss.as.naming.util.NamingUtils.notAContextException;
 
 import java.util.Hashtable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -51,6 +53,7 @@ import javax.naming.spi.NamingManager;
 import javax.naming.spi.ObjectFactory;
 import javax.naming.spi.ResolveResult;
 
+import org.jboss.as.naming.context.ModularReference;
 import org.jboss.as.naming.context.ObjectFactoryBuilder;
 import org.jboss.as.naming.util.NameParser;
 import org.jboss.as.naming.util.NamingUtils;
@@ -80,6 +83,13 @@ public class NamingContext implements EventContext {
 
     private static final String PACKAGE_PREFIXES = "org.jboss.as.naming.interfaces";
 
+    /**
+     * Environment property which, when {@code "true"}, makes lookups cache the object resolved from a bound
+     * {@link ModularReference} until it is unbound, so later lookups return the same object without calling the
+     * object factory.  Only suitable for bindings whose objects are immutable or otherwise safe to share.
+     */
+    public static final String CACHE_RESOLVED_OBJECTS = "org.jboss.as.naming.cache-resolved-objects";
+
     static {
         try {
             NamingManager.setObjectFactoryBuilder(ObjectFactoryBuilder.INSTANCE);
@@ -106,6 +116,12 @@ public class NamingContext implements EventContext {
     /* The name parser */
     private static final NameParser nameParser = new NameParser();
 
+    /* The maximum number of parsed lookup names to cache */
+    private static final int MAX_CACHED_NAMES = 1024;
+
+    /* Parsed names of looked up strings.  These are shared, so only copies of them may be handed out */
+    private static final ConcurrentMap<String, Name> lookupNames = new ConcurrentHashMap<String, Name>();
+
     /* The naming store providing the back-end storage */
     private final NamingStore namingStore;
 
@@ -208,7 +224,7 @@ public class NamingContext implements EventContext {
 
     /** {@inheritDoc} */
     public Object lookup(final String name) throws NamingException {
-        return lookup(parseName(name));
+        return lookup(parseLookupName(name));
     }
 
     /** {@inheritDoc} */
@@ -368,7 +384,7 @@ public class NamingContext implements EventContext {
 
     /** {@inheritDoc} */
     public Object lookupLink(String name) throws NamingException {
-        return lookup(parseName(name));
+        return lookup(parseLookupName(name));
     }
 
     /** {@inheritDoc} */
@@ -444,6 +460,23 @@ public class NamingContext implements EventContext {
         return getNameParser(name).parse(name);
     }
 
+    /**
+     * Parse a name to look up, copying the cached result for names looked up before.  Names are mutable and the
+     * lookup may pass them on to stores, continuation contexts and exceptions, so the cached instance never leaves
+     * this method.
+     */
+    private Name parseLookupName(final String name) throws NamingException {
+        final Name cached = lookupNames.get(name);
+        if (cached != null) {
+            return (Name) cached.clone();
+        }
+        final Name parsed = parseName(name);
+        if (lookupNames.size() < MAX_CACHED_NAMES) {
+            lookupNames.putIfAbsent(name, (Name) parsed.clone());
+        }
+        return parsed;
+    }
+
     private Name getAbsoluteName(final Name name) throws NamingException {
         if(name.isEmpty()) {
             return composeName(name, prefix);
@@ -464,6 +497,19 @@ public class NamingContext implements EventContext {
     }
 
     private Object getObjectInstance(final Object object, final Name name, final Hashtable environment) throws NamingException {
+        if (object instanceof ModularReference && environment != null && Boolean.parseBoolean(String.valueOf(environment.get(CACHE_RESOLVED_OBJECTS)))) {
+            final ModularReference.Resolved resolved = ((ModularReference) object).getResolved();
+            Object result = resolved.getObject();
+            if (result == null) {
+                result = createObjectInstance(object, name, environment);
+                resolved.setObject(result);
+            }
+            return result;
+        }
+        return createObjectInstance(object, name, environment);
+    }
+
+    private Object createObjectInstance(final Object object, final Name name, final Hashtable environment) throws NamingException {
         try {
             final ObjectFactoryBuilder factoryBuilder = ObjectFactoryBuilder.INSTANCE;
             final ObjectFactory objectFactory = factoryBuilder.createObjectFactory(object, environment);
@@ -24,6 +24,8 @@ package org.jboss.as.naming.context;
 
 import javax.naming.RefAddr;
 import javax.naming.Reference;
+import javax.naming.spi.ObjectFactory;
+
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
 
@@ -37,6 +39,10 @@ public class ModularReference extends Reference {
     private static final long serialVersionUID = -4805781394834948096L;
     private final ModuleIdentifier moduleIdentifier;
 
+    /* What has been resolved from this reference since it was last bound.  Replaced rather than cleared when the
+       reference is unbound, so a resolution still in progress at that time can not repopulate it. */
+    private transient volatile Resolved resolved;
+
     /**
      * Create a ModuleReference from a target type and factory class.
      *
@@ -117,4 +123,59 @@ public class ModularReference extends Reference {
     public ModuleIdentifier getModuleIdentifier() {
         return moduleIdentifier;
     }
+
+    /**
+     * Get what has been resolved from this reference since it was bound.
+     *
+     * @return The resolved state
+     */
+    public Resolved getResolved() {
+        Resolved resolved = this.resolved;
+        if (resolved == null) {
+            synchronized (this) {
+                resolved = this.resolved;
+                if (resolved == null) {
+                    this.resolved = resolved = new Resolved();
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Discard the object factory and object resolved from this reference.  Called by the naming store when the
+     * reference is unbound or replaced.
+     */
+    public void clearResolved() {
+        resolved = null;
+    }
+
+    /**
+     * The object factory and, if caching is enabled, the object resolved from a bound reference.
+     */
+    public static final class Resolved {
+        volatile ObjectFactory objectFactory;
+        private volatile Object object;
+
+        private Resolved() {
+        }
+
+        /**
+         * Get the object resolved from the reference.
+         *
+         * @return The object, or {@code null} if it has not been cached
+         */
+        public Object getObject() {
+            return object;
+        }
+
+        /**
+         * Cache the object resolved from the reference.
+         *
+         * @param object The object
+         */
+        public void setObject(final Object object) {
+            this.object = object;
+        }
+    }
 }
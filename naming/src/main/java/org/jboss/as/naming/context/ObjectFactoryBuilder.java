@@ -121,9 +121,16 @@ public class ObjectFactoryBuilder implements javax.naming.spi.ObjectFactoryBuild
     }
 
     private ObjectFactory factoryFromModularReference(ModularReference modularReference, final Hashtable<?, ?> environment) throws Exception {
-        final Module module = Module.getCurrentModuleLoader().loadModule(modularReference.getModuleIdentifier());
-        final ClassLoader classLoader = module.getClassLoader();
-        return factoryFromReference(modularReference, classLoader, environment);
+        // The factory only depends on the reference, so is loaded once for as long as the reference is bound
+        final ModularReference.Resolved resolved = modularReference.getResolved();
+        ObjectFactory factory = resolved.objectFactory;
+        if (factory == null) {
+            final Module module = Module.getCurrentModuleLoader().loadModule(modularReference.getModuleIdentifier());
+            final ClassLoader classLoader = module.getClassLoader();
+            factory = factoryFromReference(modularReference, classLoader, environment);
+            resolved.objectFactory = factory;
+        }
+        return factory;
     }
 
     private ObjectFactory factoryFromReference(final Reference reference, final ClassLoader classLoader, final Hashtable<?, ?> environment) throws Exception {
@@ -22,6 +22,7 @@
 
 package org.jboss.as.naming;
 
+import org.jboss.as.naming.context.ModularReference;
 import org.junit.After;
 import org.junit.Test;
 
@@ -40,6 +41,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -172,6 +174,34 @@ public class InMemoryNamingStoreTestCase {
         assertEquals(object, result);
     }
 
+    @Test
+    public void testUnbindSubcontextUnbindsChildren() throws Exception {
+        final Name name = new CompositeName("subcontext");
+        final Context context = nameStore.createSubcontext(null, name);
+        context.bind("test", new Object());
+        nameStore.unbind(null, name);
+        try {
+            nameStore.lookup(new CompositeName("subcontext/test"));
+            fail("Should have thrown and NameNotFoundException");
+        } catch(NameNotFoundException expected) {}
+        try {
+            context.bind("other", new Object());
+            fail("Should have thrown and NameNotFoundException");
+        } catch(NameNotFoundException expected) {}
+    }
+
+    @Test
+    public void testUnbindClearsResolvedReference() throws Exception {
+        final Name name = new CompositeName("test");
+        final ModularReference reference = new ModularReference(String.class.getName(), Object.class.getName(), null);
+        nameStore.bind(null, name, reference, ModularReference.class.getName());
+        reference.getResolved().setObject("resolved");
+        assertEquals("resolved", reference.getResolved().getObject());
+
+        nameStore.unbind(null, name);
+        assertNull(reference.getResolved().getObject());
+    }
+
     @Test
     public void testRebindEmptyName() throws Exception {
         try {
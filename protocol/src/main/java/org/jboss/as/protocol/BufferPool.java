@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of equally sized byte buffers.  Buffers are taken with {@link #allocate()} and should be handed back
+ * with {@link #free(byte[])} once they are no longer referenced; a buffer which is never freed is simply garbage
+ * collected.  At most {@code maxPooled} free buffers are retained, so the pool never holds on to more than
+ * {@code bufferSize * maxPooled} bytes.
+ */
+public final class BufferPool {
+
+    /**
+     * The pool shared by the connections and chunked streams of the protocol.
+     */
+    public static final BufferPool DEFAULT = new BufferPool(8192, 512);
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<byte[]> buffers = new ConcurrentLinkedQueue<byte[]>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param bufferSize the size of each buffer
+     * @param maxPooled the maximum number of free buffers to retain
+     */
+    public BufferPool(final int bufferSize, final int maxPooled) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1");
+        }
+        if (maxPooled < 0) {
+            throw new IllegalArgumentException("maxPooled may not be less than 0");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Take a buffer from the pool, or create a new one if the pool is empty.  The contents of the buffer are undefined.
+     *
+     * @return a buffer of {@link #getBufferSize()} bytes
+     */
+    public byte[] allocate() {
+        final byte[] buffer = buffers.poll();
+        if (buffer != null) {
+            pooled.decrementAndGet();
+            hits.incrementAndGet();
+            return buffer;
+        }
+        misses.incrementAndGet();
+        return new byte[bufferSize];
+    }
+
+    /**
+     * Return a buffer to the pool.  Buffers of a different size are ignored, as are buffers beyond the pool's
+     * capacity.  The caller must not use the buffer afterwards.
+     *
+     * @param buffer the buffer, may be {@code null}
+     */
+    public void free(final byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) {
+            return;
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        buffers.add(buffer);
+    }
+
+    /**
+     * Get the size of the buffers of this pool.
+     *
+     * @return the buffer size
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Get the number of free buffers currently held by the pool.
+     *
+     * @return the number of pooled buffers
+     */
+    public int getPooledCount() {
+        return pooled.get();
+    }
+
+    /**
+     * Get the number of allocations which were satisfied from the pool.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of allocations which had to create a new buffer.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+}
@@ -38,30 +38,33 @@ public class ChunkyByteOutput extends OutputStream implements ByteOutput {
     public static final int CHUNK_START = 0x98;
     public static final int END = 0x99;
     private final ByteOutput output;
-    private final byte[] buffer;
+    private final byte[] header = new byte[5];
+    private byte[] buffer;
     private int position;
 
+    /**
+     * Construct a new instance using a buffer from the shared {@link BufferPool}, which is returned when the stream is
+     * closed.
+     *
+     * @param output the output to write the chunks to
+     */
     public ChunkyByteOutput(final ByteOutput output) {
-        this(output, 8192);
+        this.output = output;
+        buffer = BufferPool.DEFAULT.allocate();
     }
 
     public ChunkyByteOutput(final ByteOutput output, final int bufferSize) {
         this.output = output;
-        buffer = new byte[bufferSize];
+        buffer = bufferSize == BufferPool.DEFAULT.getBufferSize() ? BufferPool.DEFAULT.allocate() : new byte[bufferSize];
     }
 
     /** {@inheritDoc} */
     public void write(int v) throws IOException {
-        final byte[] buffer = this.buffer;
-        final int position = this.position;
+        final byte[] buffer = getBuffer();
         if (position == buffer.length) {
             flush();
-            buffer[0] = (byte) v;
-            this.position = 1;
-        } else {
-            buffer[position] = (byte) v;
-            this.position = position + 1;
         }
+        buffer[position++] = (byte) v;
     }
 
    /** {@inheritDoc} */
@@ -70,23 +73,17 @@ public class ChunkyByteOutput extends OutputStream implements ByteOutput {
     }
 
     /** {@inheritDoc} */
-    public void write(final byte[] bytes, final int off, int len) throws IOException {
-        byte[] buffer = this.buffer;
-        final int position = this.position;
-        int offSet = off;
-        while (offSet < len) {
-            int remaining = buffer.length - position;
-            int toRead = len - offSet;
-            if (toRead < remaining) {
-                System.arraycopy(bytes, offSet, buffer, position, toRead);
-                this.position = position + toRead;
-                offSet = offSet + len;
-            } else {
-                System.arraycopy(bytes, offSet, buffer, position, remaining);
-                this.position += remaining;
+    public void write(final byte[] bytes, int off, int len) throws IOException {
+        final byte[] buffer = getBuffer();
+        while (len > 0) {
+            if (position == buffer.length) {
                 flush();
-                offSet = offSet + remaining;
             }
+            final int cnt = Math.min(len, buffer.length - position);
+            System.arraycopy(bytes, off, buffer, position, cnt);
+            position += cnt;
+            off += cnt;
+            len -= cnt;
         }
     }
 
@@ -96,8 +93,16 @@ public class ChunkyByteOutput extends OutputStream implements ByteOutput {
      * @throws IOException
      */
     public void close() throws IOException {
-        flush();
-        output.write(END); // Don't close the underlying output
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flush();
+            output.write(END); // Don't close the underlying output
+        } finally {
+            BufferPool.DEFAULT.free(buffer);
+            buffer = null;
+        }
     }
 
     /**
@@ -110,21 +115,32 @@ public class ChunkyByteOutput extends OutputStream implements ByteOutput {
         final ByteOutput output = this.output;
         final int pos = this.position;
         if (pos > 0) {
-            output.write(CHUNK_START);
-            writeInt(pos);
-            final byte[] buffer = this.buffer;
-            output.write(buffer, 0, pos);
+            final byte[] header = this.header;
+            header[0] = (byte) CHUNK_START;
+            header[1] = (byte) (pos >> 24);
+            header[2] = (byte) (pos >> 16);
+            header[3] = (byte) (pos >> 8);
+            header[4] = (byte) pos;
+            output.write(header);
+            output.write(getBuffer(), 0, pos);
         }
         this.position = 0;
     }
 
     public void writeInt(final int i) throws IOException {
-        final ByteOutput output = this.output;
-        byte[] bytes = new byte[4];
-        bytes[0] = (byte) (i >> 24);
-        bytes[1] = (byte) (i >> 16);
-        bytes[2] = (byte) (i >> 8);
-        bytes[3] = (byte) i;
-        output.write(bytes);
+        final byte[] header = this.header;
+        header[0] = (byte) (i >> 24);
+        header[1] = (byte) (i >> 16);
+        header[2] = (byte) (i >> 8);
+        header[3] = (byte) i;
+        output.write(header, 0, 4);
+    }
+
+    private byte[] getBuffer() throws IOException {
+        final byte[] buffer = this.buffer;
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+        return buffer;
     }
 }
@@ -0,0 +1,185 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Input stream which reads content written by a {@link CompressedOutputStream}, inflating it if it was compressed.
+ * The stream never reads past the end of the content, and closing it skips any unread content, leaving the underlying
+ * stream positioned after it.  <em>Closing this stream does not close the underlying input stream.</em>
+ */
+public class CompressedInputStream extends InputStream {
+    private final InputStream input;
+    private final byte[] single = new byte[1];
+    private Inflater inflater;
+    private byte[] buffer;
+    // the number of stored bytes left, or -1 if the content was deflated
+    private int remaining;
+    private boolean eof;
+    private boolean closed;
+
+    /**
+     * Construct a new instance, reading the header of the content.
+     *
+     * @param input the input to read the content from
+     * @throws IOException if the header can not be read
+     */
+    public CompressedInputStream(final InputStream input) throws IOException {
+        this.input = input;
+        final int mode = StreamUtils.readUnsignedByte(input);
+        switch (mode) {
+            case CompressedOutputStream.STORED:
+                remaining = StreamUtils.readInt(input);
+                if (remaining < 0) {
+                    throw new IOException("Invalid content length " + remaining);
+                }
+                eof = remaining == 0;
+                break;
+            case CompressedOutputStream.DEFLATED:
+                remaining = -1;
+                inflater = new Inflater();
+                buffer = BufferPool.DEFAULT.allocate();
+                break;
+            default:
+                throw new IOException("Invalid content encoding " + mode);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public int read() throws IOException {
+        final byte[] single = this.single;
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    /** {@inheritDoc} */
+    public int read(final byte[] bytes, final int off, final int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (eof) {
+            return -1;
+        }
+        if (inflater == null) {
+            final int cnt = input.read(bytes, off, Math.min(len, remaining));
+            if (cnt == -1) {
+                throw new EOFException();
+            }
+            remaining -= cnt;
+            eof = remaining == 0;
+            return cnt;
+        }
+        try {
+            for (;;) {
+                final int cnt = inflater.inflate(bytes, off, len);
+                if (cnt > 0) {
+                    return cnt;
+                }
+                if (inflater.finished() || inflater.needsDictionary()) {
+                    // consume the end of content marker
+                    while (nextBlock()) {
+                        // discard
+                    }
+                    return -1;
+                }
+                if (inflater.needsInput() && ! nextBlock()) {
+                    throw new EOFException("Compressed content ended unexpectedly");
+                }
+            }
+        } catch (DataFormatException e) {
+            final IOException ioe = new IOException("Invalid compressed content");
+            ioe.initCause(e);
+            throw ioe;
+        }
+    }
+
+    /** {@inheritDoc} */
+    public int available() throws IOException {
+        if (closed || eof) {
+            return 0;
+        }
+        return inflater == null ? Math.min(remaining, input.available()) : 0;
+    }
+
+    /**
+     * Skips any unread content.  <em>This will not close the underlying input stream.</em>
+     *
+     * @throws IOException if an error occurs skipping the content
+     */
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (! eof) {
+                if (inflater == null) {
+                    while (remaining > 0) {
+                        final long cnt = input.skip(remaining);
+                        if (cnt <= 0) {
+                            StreamUtils.readByte(input);
+                            remaining--;
+                        } else {
+                            remaining -= cnt;
+                        }
+                    }
+                } else {
+                    while (nextBlock()) {
+                        // discard
+                    }
+                }
+            }
+        } finally {
+            closed = true;
+            eof = true;
+            if (inflater != null) {
+                inflater.end();
+                BufferPool.DEFAULT.free(buffer);
+                buffer = null;
+            }
+        }
+    }
+
+    private boolean nextBlock() throws IOException {
+        if (eof) {
+            return false;
+        }
+        final int length = StreamUtils.readInt(input);
+        if (length == 0) {
+            eof = true;
+            return false;
+        }
+        // the writer never deflates into more than one pooled buffer at a time
+        if (length < 0 || length > buffer.length) {
+            throw new IOException("Invalid compressed block length " + length);
+        }
+        StreamUtils.readFully(input, buffer, 0, length);
+        inflater.setInput(buffer, 0, length);
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream which writes content that can be read by a {@link CompressedInputStream}.  Content no larger than the
+ * threshold is written as is, preceded by {@link #STORED} and its length, so that small messages do not pay for
+ * compression.  Once the threshold is exceeded the content is deflated and written as {@link #DEFLATED} followed by
+ * length-prefixed blocks of compressed data and a zero length, which allows the reader to stop exactly at the end of
+ * the content.  <em>Closing this stream does not close the underlying output stream.</em>
+ */
+public class CompressedOutputStream extends OutputStream {
+    public static final int STORED = 0x00;
+    public static final int DEFLATED = 0x01;
+
+    private final OutputStream output;
+    private final byte[] header = new byte[4];
+    private final byte[] single = new byte[1];
+    private byte[] buffer;
+    private int position;
+    private Deflater deflater;
+    private byte[] block;
+
+    /**
+     * Construct a new instance which compresses content larger than the buffers of the shared {@link BufferPool}.
+     *
+     * @param output the output to write the content to
+     */
+    public CompressedOutputStream(final OutputStream output) {
+        this.output = output;
+        buffer = BufferPool.DEFAULT.allocate();
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param output the output to write the content to
+     * @param threshold the size above which the content is compressed
+     */
+    public CompressedOutputStream(final OutputStream output, final int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be greater than 0");
+        }
+        this.output = output;
+        buffer = threshold == BufferPool.DEFAULT.getBufferSize() ? BufferPool.DEFAULT.allocate() : new byte[threshold];
+    }
+
+    /** {@inheritDoc} */
+    public void write(final int b) throws IOException {
+        final byte[] buffer = getBuffer();
+        if (deflater == null && position < buffer.length) {
+            buffer[position++] = (byte) b;
+        } else {
+            single[0] = (byte) b;
+            write(single, 0, 1);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void write(final byte[] bytes, final int off, final int len) throws IOException {
+        final byte[] buffer = getBuffer();
+        if (deflater == null) {
+            if (len <= buffer.length - position) {
+                System.arraycopy(bytes, off, buffer, position, len);
+                position += len;
+                return;
+            }
+            // over the threshold; deflate what has been buffered so far and everything that follows
+            output.write(DEFLATED);
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            block = BufferPool.DEFAULT.allocate();
+            deflate(buffer, 0, position);
+            position = 0;
+        }
+        deflate(bytes, off, len);
+    }
+
+    /**
+     * Writes the remaining content and the end of content marker.  <em>This will not close the underlying output
+     * stream.</em>
+     *
+     * @throws IOException if an error occurs writing the content
+     */
+    public void close() throws IOException {
+        final byte[] buffer = this.buffer;
+        if (buffer == null) {
+            return;
+        }
+        try {
+            final Deflater deflater = this.deflater;
+            if (deflater == null) {
+                output.write(STORED);
+                writeLength(position);
+                output.write(buffer, 0, position);
+            } else {
+                deflater.finish();
+                while (! deflater.finished()) {
+                    writeBlock();
+                }
+                writeLength(0);
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+                BufferPool.DEFAULT.free(block);
+                block = null;
+            }
+            BufferPool.DEFAULT.free(buffer);
+            this.buffer = null;
+        }
+    }
+
+    private void deflate(final byte[] bytes, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return;
+        }
+        final Deflater deflater = this.deflater;
+        deflater.setInput(bytes, off, len);
+        while (! deflater.needsInput()) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        final byte[] block = this.block;
+        final int cnt = deflater.deflate(block);
+        if (cnt > 0) {
+            writeLength(cnt);
+            output.write(block, 0, cnt);
+        }
+    }
+
+    private void writeLength(final int length) throws IOException {
+        final byte[] header = this.header;
+        header[0] = (byte) (length >> 24);
+        header[1] = (byte) (length >> 16);
+        header[2] = (byte) (length >> 8);
+        header[3] = (byte) length;
+        output.write(header);
+    }
+
+    private byte[] getBuffer() throws IOException {
+        final byte[] buffer = this.buffer;
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+        return buffer;
+    }
+}
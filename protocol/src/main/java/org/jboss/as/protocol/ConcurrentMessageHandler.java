@@ -0,0 +1,41 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.protocol;
+
+/**
+ * A message handler which can handle some messages while the handlers of earlier messages are still running.  By
+ * default a message which was written after the previous ones were complete waits for their handlers, since those may
+ * replace the message handler of the connection.  Messages which can never lead to such a switch, such as the
+ * numbered requests of a multiplexed channel, need not wait.
+ */
+public interface ConcurrentMessageHandler extends MessageHandler {
+
+    /**
+     * Determine whether a message may be handled without waiting for the handlers of earlier messages.
+     *
+     * @param first the first byte of the message, or {@code -1} if the message is empty
+     * @return {@code true} if the message may be handled concurrently
+     */
+    boolean isConcurrent(int first);
+}
@@ -36,7 +36,10 @@ public interface Connection extends Closeable {
 
     /**
      * Write a protocol message.  Returns a stream which can be written to, to transmit the
-     * data.  When the stream is closed, the message is concluded.
+     * data.  When the stream is closed, the message is concluded.  Once {@link #enableMultiplexing()
+     * multiplexing is enabled} any number of messages may be written concurrently and their data is
+     * interleaved on the connection; until then this method waits for the previous message to be
+     * concluded.
      *
      * @return the stream to which the message should be written
      * @throws IOException if an I/O error occurs
@@ -51,6 +54,21 @@ public interface Connection extends Closeable {
      */
     void shutdownWrites() throws IOException;
 
+    /**
+     * Allow the messages written to this connection to be interleaved.  This must only be called once
+     * the remote side is known to understand multiplexed messages, as peers which predate them can only
+     * read one message at a time.
+     */
+    void enableMultiplexing();
+
+    /**
+     * Determine whether {@link #enableMultiplexing()} has been called, that is whether the remote side is known to
+     * understand multiplexed messages.
+     *
+     * @return {@code true} if messages written to this connection may be interleaved
+     */
+    boolean isMultiplexing();
+
     /**
      * Close the connection.  This will interrupt both reads and writes and so should only be
      * done in the event of an unrecoverable failure of the connection.
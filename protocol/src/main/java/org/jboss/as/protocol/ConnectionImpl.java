@@ -24,58 +24,134 @@ package org.jboss.as.protocol;
 
 import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
 import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
+import static org.jboss.as.protocol.ProtocolConstants.STREAM_CHUNK;
+import static org.jboss.as.protocol.ProtocolConstants.STREAM_END;
 
-import java.io.BufferedOutputStream;
 import java.io.EOFException;
-import java.io.FilterInputStream;
-import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.logging.Logger;
 
 /**
+ * A connection which multiplexes any number of concurrently written messages over one socket.  Once the peer is known
+ * to understand it and {@link #enableMultiplexing()} was called, each message is sent as a series of
+ * {@link ProtocolConstants#STREAM_CHUNK} frames tagged with a stream id, so a large message does not hold up small
+ * ones.  Until then messages are written one at a time in unnumbered {@link ProtocolConstants#CHUNK_START} frames,
+ * which are accepted on input as well.
+ * <p>
+ * Input is either read by a dedicated thread running {@link #getReadTask()}, or by a shared {@link ConnectionSelector}
+ * when the connection is backed by a non-blocking {@link SocketChannel}.  Received chunks are queued for the handler of
+ * their message in buffers taken from the shared {@link BufferPool}; once more than {@link #MAX_QUEUED} bytes are
+ * waiting to be consumed, reading from the connection is suspended until the handlers catch up.  Messages which were
+ * written concurrently are handled concurrently, while a message written after the previous ones were complete is
+ * handled after them, unless a {@link ConcurrentMessageHandler} accepts it on its first byte.
+ * </p>
+ *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 final class ConnectionImpl implements Connection {
 
     private static final Logger log = Logger.getLogger("org.jboss.as.protocol.connection");
 
+    static final long MAX_QUEUED = 1024 * 1024;
+    /** Received chunks smaller than this are copied into a buffer of their own size instead of a pooled one. */
+    static final int MIN_POOLED_CHUNK = 512;
+
+    private static final int LEGACY_STREAM_ID = -1;
+    private static final int NO_COMMAND = -1;
+
     private final Socket socket;
+    private final SocketChannel channel;
 
     private final Object lock = new Object();
 
     // protected by {@link #lock}
-    private OutputStream sender;
+    private int senders;
     // protected by {@link #lock}
     private boolean readDone;
     // protected by {@link #lock}
-    private boolean writeDone;
+    private boolean multiplexed;
+    // written under {@link #lock}
+    private volatile boolean writeDone;
+
+    private final Object writeLock = new Object();
+    // written under {@link #writeLock}
+    private volatile Selector writeSelector;
+
+    private final AtomicInteger nextStreamId = new AtomicInteger();
 
     private volatile MessageHandler messageHandler;
 
     private final Executor readExecutor;
 
+    private final BufferPool bufferPool = BufferPool.DEFAULT;
+
     private volatile Object attachment;
 
+    // input state, only accessed by the reading thread
+    private final Map<Integer, MessageInputStream> inputs = new HashMap<Integer, MessageInputStream>();
+    private final ByteBuffer header = ByteBuffer.allocate(8);
+    private int command = NO_COMMAND;
+    private int chunkRemaining;
+    private MessageInputStream chunkTarget;
+
+    // message dispatch
+    private final Object dispatchLock = new Object();
+    // protected by {@link #dispatchLock}
+    private int activeHandlers;
+    // protected by {@link #dispatchLock}
+    private final ArrayDeque<List<MessageInputStream>> waiting = new ArrayDeque<List<MessageInputStream>>();
+    // protected by {@link #dispatchLock}
+    private boolean endOfInput;
+
+    // input flow control
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicBoolean suspended = new AtomicBoolean();
+    private volatile ConnectionSelector selector;
+    private volatile SelectionKey selectionKey;
+
     ConnectionImpl(final Socket socket, final MessageHandler handler, final Executor readExecutor) {
+        this(socket, null, handler, readExecutor);
+    }
+
+    ConnectionImpl(final Socket socket, final SocketChannel channel, final MessageHandler handler, final Executor readExecutor) {
         this.socket = socket;
+        this.channel = channel;
         messageHandler = handler;
         this.readExecutor = readExecutor;
     }
 
     public OutputStream writeMessage() throws IOException {
-        final OutputStream os;
+        final boolean multiplexed;
         synchronized (lock) {
-            if (writeDone) {
-                throw new IOException("Writes are already shut down");
-            }
-            while (sender != null) {
+            for (;;) {
+                if (writeDone) {
+                    throw new IOException("Writes are already shut down");
+                }
+                if (this.multiplexed || senders == 0) {
+                    break;
+                }
+                // a peer which does not understand numbered streams reads one message at a time
                 try {
                     lock.wait();
                 } catch (InterruptedException e) {
@@ -83,25 +159,29 @@ final class ConnectionImpl implements Connection {
                     throw new InterruptedIOException();
                 }
             }
-            boolean ok = false;
-            try {
-                sender = new MessageOutputStream();
-                os = new BufferedOutputStream(sender);
-                ok = true;
-            } finally {
-                if (! ok) {
-                    // let someone else try
-                    lock.notify();
-                }
-            }
+            multiplexed = this.multiplexed;
+            senders++;
+        }
+        return new MessageOutputStream(multiplexed ? nextStreamId.getAndIncrement() : LEGACY_STREAM_ID);
+    }
+
+    public void enableMultiplexing() {
+        synchronized (lock) {
+            multiplexed = true;
+            lock.notifyAll();
+        }
+    }
+
+    public boolean isMultiplexing() {
+        synchronized (lock) {
+            return multiplexed;
         }
-        return os;
     }
 
     public void shutdownWrites() throws IOException {
         synchronized (lock) {
             if (writeDone) return;
-            while (sender != null) {
+            while (senders > 0) {
                 try {
                     lock.wait();
                 } catch (InterruptedException e) {
@@ -111,7 +191,7 @@ final class ConnectionImpl implements Connection {
             }
             writeDone = true;
             if (readDone) {
-                socket.close();
+                closeSocket();
             } else {
                 socket.shutdownOutput();
             }
@@ -121,15 +201,28 @@ final class ConnectionImpl implements Connection {
 
     public void close() throws IOException {
         synchronized (lock) {
-            lock.notifyAll();
-            sender = null;
+            senders = 0;
             readDone = true;
             writeDone = true;
-            socket.close();
+            closeSocket();
             lock.notifyAll();
         }
     }
 
+    private void closeSocket() throws IOException {
+        try {
+            socket.close();
+        } finally {
+            // closing the selector wakes up a writer waiting for the channel to become writable
+            final Selector writeSelector = this.writeSelector;
+            if (writeSelector != null) try {
+                writeSelector.close();
+            } catch (IOException e) {
+                log.errorf(e, "Failed to close write selector");
+            }
+        }
+    }
+
     public void setMessageHandler(final MessageHandler messageHandler) {
         if (messageHandler == null) {
             throw new IllegalArgumentException("messageHandler is null");
@@ -156,86 +249,354 @@ final class ConnectionImpl implements Connection {
         return attachment;
     }
 
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    void setSelectionKey(final ConnectionSelector selector, final SelectionKey selectionKey) {
+        this.selector = selector;
+        this.selectionKey = selectionKey;
+    }
+
+    SelectionKey getSelectionKey() {
+        return selectionKey;
+    }
+
     Runnable getReadTask() {
         return new Runnable() {
             public void run() {
+                final byte[] buffer = bufferPool.allocate();
                 try {
-                    Pipe pipe = null;
                     final InputStream is = socket.getInputStream();
-                    OutputStream mos = null;
-                    final int bufferSize = 8192;
-                    final byte[] buffer = new byte[bufferSize];
                     for (;;) {
-
-                        int cmd = is.read();
-                        switch (cmd) {
-                            case -1: {
-                                log.trace("Received end of stream");
-                                // end of stream
-                                safeHandleShutdown();
-                                boolean done;
-                                if (mos != null) {
-                                    mos.close();
-                                    pipe.await();
-                                }
-                                synchronized (lock) {
-                                    readDone = true;
-                                    done = writeDone;
-                                }
-                                if (done) {
-                                    StreamUtils.safeClose(socket);
-                                    safeHandleFinished();
-                                }
-                                return;
-                            }
-                            case CHUNK_START: {
-                                if (mos == null) {
-                                    pipe = new Pipe(8192);
-                                    // new message!
-                                    final InputStream pis = pipe.getIn();
-                                    mos = pipe.getOut();
-
-                                    readExecutor.execute(new Runnable() {
-                                        public void run() {
-                                            safeHandleMessage(new MessageInputStream(pis));
-                                        }
-                                    });
-                                }
-                                int cnt = StreamUtils.readInt(is);
-                                log.tracef("Received data chunk of size %d", Integer.valueOf(cnt));
-                                while (cnt > 0) {
-                                    int sc = is.read(buffer, 0, Math.min(cnt, bufferSize));
-                                    if (sc == -1) {
-                                        throw new EOFException("Unexpected end of stream");
-                                    }
-                                    mos.write(buffer, 0, sc);
-                                    cnt -= sc;
-                                }
-                                break;
-                            }
-                            case CHUNK_END: {
-                                log.trace("Received end data marker");
-                                if (mos != null) {
-                                    // end message
-                                    mos.close();
-                                    pipe.await();
-                                    mos = null;
-                                    pipe = null;
-                                }
-                                break;
-                            }
-                            default: {
-                                throw new IOException("Invalid command byte read: " + cmd);
-                            }
+                        final int cnt = is.read(buffer);
+                        if (cnt == -1) {
+                            handleEndOfInput();
+                            return;
                         }
+                        handleInput(ByteBuffer.wrap(buffer, 0, cnt));
+                        awaitQueueDrained();
                     }
                 } catch (IOException e) {
-                    safeHandlerFailure(e);
+                    handleInputFailure(e);
+                } finally {
+                    bufferPool.free(buffer);
                 }
             }
         };
     }
 
+    /**
+     * Process received bytes.  Called by the reading thread only.
+     *
+     * @param buffer the received bytes
+     * @throws IOException if the input is not valid
+     */
+    void handleInput(final ByteBuffer buffer) throws IOException {
+        final ByteBuffer header = this.header;
+        while (buffer.hasRemaining()) {
+            if (command == NO_COMMAND) {
+                command = buffer.get() & 0xff;
+                header.clear();
+                switch (command) {
+                    case CHUNK_START: header.limit(4); break;
+                    case CHUNK_END: header.limit(0); break;
+                    case STREAM_CHUNK: header.limit(8); break;
+                    case STREAM_END: header.limit(4); break;
+                    default: throw new IOException("Invalid command byte read: " + command);
+                }
+            }
+            if (chunkTarget == null) {
+                // reading a frame header
+                while (header.hasRemaining() && buffer.hasRemaining()) {
+                    header.put(buffer.get());
+                }
+                if (header.hasRemaining()) {
+                    return;
+                }
+                header.flip();
+                switch (command) {
+                    case CHUNK_START: {
+                        chunkTarget = getInput(LEGACY_STREAM_ID);
+                        chunkRemaining = header.getInt();
+                        break;
+                    }
+                    case STREAM_CHUNK: {
+                        chunkTarget = getInput(header.getInt());
+                        chunkRemaining = header.getInt();
+                        break;
+                    }
+                    case CHUNK_END: {
+                        log.trace("Received end data marker");
+                        endInput(LEGACY_STREAM_ID);
+                        break;
+                    }
+                    case STREAM_END: {
+                        endInput(header.getInt());
+                        break;
+                    }
+                }
+                if (chunkTarget != null) {
+                    log.tracef("Received data chunk of size %d", Integer.valueOf(chunkRemaining));
+                }
+                if (chunkRemaining <= 0) {
+                    chunkTarget = null;
+                    command = NO_COMMAND;
+                }
+            } else {
+                // reading chunk data
+                final int cnt = Math.min(Math.min(chunkRemaining, buffer.remaining()), bufferPool.getBufferSize());
+                final byte[] bytes = cnt < MIN_POOLED_CHUNK ? new byte[cnt] : bufferPool.allocate();
+                buffer.get(bytes, 0, cnt);
+                if (! chunkTarget.dispatched) {
+                    dispatch(chunkTarget, bytes[0] & 0xff);
+                }
+                chunkTarget.push(ByteBuffer.wrap(bytes, 0, cnt));
+                chunkRemaining -= cnt;
+                if (chunkRemaining == 0) {
+                    chunkTarget = null;
+                    command = NO_COMMAND;
+                }
+            }
+        }
+    }
+
+    /**
+     * Process the end of input.  Called by the reading thread only.
+     */
+    void handleEndOfInput() {
+        log.trace("Received end of stream");
+        if (command != NO_COMMAND) {
+            failInputs(new EOFException("Unexpected end of stream"));
+        } else {
+            for (MessageInputStream input : inputs.values()) {
+                if (! input.dispatched) {
+                    dispatch(input, -1);
+                }
+                input.finish();
+            }
+            inputs.clear();
+        }
+        synchronized (dispatchLock) {
+            if (activeHandlers > 0 || ! waiting.isEmpty()) {
+                // the last handler to return signals the shutdown
+                endOfInput = true;
+                return;
+            }
+        }
+        completeEndOfInput();
+    }
+
+    /**
+     * Signal the end of input to the message handler once all received messages were handled.
+     */
+    private void completeEndOfInput() {
+        safeHandleShutdown();
+        boolean done;
+        synchronized (lock) {
+            readDone = true;
+            done = writeDone;
+        }
+        if (done) {
+            StreamUtils.safeClose(socket);
+            safeHandleFinished();
+        }
+    }
+
+    /**
+     * Process an input failure.  Called by the reading thread only.
+     *
+     * @param e the failure
+     */
+    void handleInputFailure(final IOException e) {
+        failInputs(e);
+        safeHandlerFailure(e);
+    }
+
+    private void failInputs(final IOException e) {
+        for (MessageInputStream input : inputs.values()) {
+            if (! input.dispatched) {
+                dispatch(input, -1);
+            }
+            input.fail(e);
+        }
+        inputs.clear();
+    }
+
+    private MessageInputStream getInput(final int streamId) {
+        final Integer key = Integer.valueOf(streamId);
+        MessageInputStream input = inputs.get(key);
+        if (input == null) {
+            // new message!  it is dispatched once its first byte is known
+            input = new MessageInputStream();
+            // a message which starts while no other is open was written after the previous ones were complete
+            input.sequential = inputs.isEmpty();
+            inputs.put(key, input);
+        }
+        return input;
+    }
+
+    /**
+     * Pass a new message to the handler.  Messages whose frames overlap were written concurrently and are handled
+     * concurrently.  A message written after the previous ones were complete is only handled once their handlers have
+     * returned, since those handlers may change the message handler of the connection, unless the current
+     * {@link ConcurrentMessageHandler} accepts it regardless.
+     *
+     * @param input the message input
+     * @param first the first byte of the message, or {@code -1} if it has none
+     */
+    private void dispatch(final MessageInputStream input, final int first) {
+        input.dispatched = true;
+        final MessageHandler handler = messageHandler;
+        final boolean concurrent = handler instanceof ConcurrentMessageHandler && ((ConcurrentMessageHandler) handler).isConcurrent(first);
+        final boolean sequential = input.sequential && ! concurrent;
+        synchronized (dispatchLock) {
+            if (waiting.isEmpty() && (! sequential || activeHandlers == 0)) {
+                activeHandlers++;
+            } else {
+                if (sequential || waiting.isEmpty()) {
+                    waiting.addLast(new ArrayList<MessageInputStream>(1));
+                }
+                waiting.getLast().add(input);
+                return;
+            }
+        }
+        executeHandler(input);
+    }
+
+    private void handlerDone() {
+        final List<MessageInputStream> next;
+        synchronized (dispatchLock) {
+            if (--activeHandlers > 0) {
+                return;
+            }
+            if (waiting.isEmpty()) {
+                if (! endOfInput) {
+                    return;
+                }
+                endOfInput = false;
+                next = null;
+            } else {
+                next = waiting.removeFirst();
+                activeHandlers = next.size();
+            }
+        }
+        if (next == null) {
+            completeEndOfInput();
+            return;
+        }
+        for (MessageInputStream input : next) {
+            executeHandler(input);
+        }
+    }
+
+    private void executeHandler(final MessageInputStream input) {
+        try {
+            readExecutor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        safeHandleMessage(input);
+                    } finally {
+                        handlerDone();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.errorf(e, "Failed to handle a message");
+            StreamUtils.safeClose(input);
+            handlerDone();
+        }
+    }
+
+    private void endInput(final int streamId) {
+        final MessageInputStream input = inputs.remove(Integer.valueOf(streamId));
+        if (input != null) {
+            if (! input.dispatched) {
+                dispatch(input, -1);
+            }
+            input.finish();
+        }
+    }
+
+    private void queued(final int cnt) {
+        if (queued.addAndGet(cnt) > MAX_QUEUED) {
+            final SelectionKey key = selectionKey;
+            if (key != null && suspended.compareAndSet(false, true)) try {
+                // called on the selector thread; stop reading until the handlers catch up
+                key.interestOps(0);
+                if (queued.get() <= MAX_QUEUED / 2 && suspended.compareAndSet(true, false)) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } catch (CancelledKeyException e) {
+                // connection is gone
+            }
+        }
+    }
+
+    private void consumed(final int cnt) {
+        if (queued.addAndGet(-cnt) <= MAX_QUEUED / 2) {
+            final ConnectionSelector selector = this.selector;
+            if (selector != null) {
+                if (suspended.compareAndSet(true, false)) {
+                    selector.resume(this);
+                }
+            } else {
+                synchronized (queued) {
+                    queued.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void awaitQueueDrained() throws InterruptedIOException {
+        if (queued.get() <= MAX_QUEUED) {
+            return;
+        }
+        synchronized (queued) {
+            while (queued.get() > MAX_QUEUED / 2) {
+                try {
+                    queued.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write one or more complete frames.  The frames of one call are never interleaved with those of another.
+     */
+    private void writeFrames(final byte[] b, final int off, final int len) throws IOException {
+        synchronized (writeLock) {
+            if (writeDone) {
+                throw new IOException("Write channel closed");
+            }
+            if (channel == null) {
+                socket.getOutputStream().write(b, off, len);
+            } else {
+                final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                while (buffer.hasRemaining()) {
+                    if (channel.write(buffer) == 0) {
+                        awaitWritable();
+                    }
+                }
+            }
+        }
+    }
+
+    private void awaitWritable() throws IOException {
+        // called with writeLock held
+        Selector writeSelector = this.writeSelector;
+        if (writeSelector == null) {
+            writeSelector = Selector.open();
+            channel.register(writeSelector, SelectionKey.OP_WRITE);
+            this.writeSelector = writeSelector;
+        }
+        writeSelector.select();
+        writeSelector.selectedKeys().clear();
+    }
+
     void safeHandleMessage(final InputStream pis) {
         try {
             messageHandler.handleMessage(this, pis);
@@ -277,90 +638,276 @@ final class ConnectionImpl implements Connection {
         }
     }
 
-    final class MessageInputStream extends FilterInputStream {
+    /**
+     * The input stream of a single received message, fed with chunks by the reading thread.  Chunks are handed back to
+     * the buffer pool as soon as they have been read.
+     */
+    final class MessageInputStream extends InputStream {
+
+        // only accessed by the reading thread
+        boolean sequential;
+        boolean dispatched;
+
+        // all protected by this
+        private final ArrayDeque<ByteBuffer> chunks = new ArrayDeque<ByteBuffer>();
+        private ByteBuffer current;
+        private boolean finished;
+        private boolean closed;
+        private IOException failure;
+
+        synchronized void push(final ByteBuffer chunk) {
+            if (closed) {
+                // nobody is going to read it
+                bufferPool.free(chunk.array());
+                return;
+            }
+            chunks.add(chunk);
+            queued(chunk.capacity());
+            notifyAll();
+        }
 
-        protected MessageInputStream(InputStream in) {
-            super(in);
+        synchronized void finish() {
+            finished = true;
+            notifyAll();
+        }
+
+        synchronized void fail(final IOException e) {
+            failure = e;
+            finished = true;
+            notifyAll();
+        }
+
+        public synchronized int read() throws IOException {
+            if (! awaitData()) {
+                return -1;
+            }
+            final int b = current.get() & 0xff;
+            releaseCurrent();
+            return b;
+        }
+
+        public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (! awaitData()) {
+                return -1;
+            }
+            final int cnt = Math.min(len, current.remaining());
+            current.get(b, off, cnt);
+            releaseCurrent();
+            return cnt;
+        }
+
+        public synchronized int available() throws IOException {
+            return current == null ? 0 : current.remaining();
         }
 
-        @Override
         public void close() throws IOException {
-            try {
-                while (in.read() != -1) {}
-            } finally {
-                super.close();
+            final List<ByteBuffer> dropped = new ArrayList<ByteBuffer>();
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                // closing drops the rest of the message
+                if (current != null) {
+                    dropped.add(current);
+                    current = null;
+                }
+                dropped.addAll(chunks);
+                chunks.clear();
+            }
+            for (ByteBuffer chunk : dropped) {
+                release(chunk);
             }
         }
-    }
 
-    final class MessageOutputStream extends FilterOutputStream {
+        private boolean awaitData() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            while (current == null) {
+                current = chunks.poll();
+                if (current != null) {
+                    break;
+                }
+                if (failure != null) {
+                    final IOException e = new IOException("Connection failed while reading message");
+                    e.initCause(failure);
+                    throw e;
+                }
+                if (finished) {
+                    return false;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            return true;
+        }
 
-        private final byte[] hdr = new byte[5];
+        private void releaseCurrent() {
+            if (! current.hasRemaining()) {
+                release(current);
+                current = null;
+            }
+        }
 
-        MessageOutputStream() throws IOException {
-            super(socket.getOutputStream());
+        private void release(final ByteBuffer chunk) {
+            consumed(chunk.capacity());
+            bufferPool.free(chunk.array());
+        }
+    }
+
+    /**
+     * The output stream of a single message.  Data is collected in a pooled buffer behind room for the frame header,
+     * so that each chunk, and the end of a short message along with it, goes out in a single write.
+     */
+    final class MessageOutputStream extends OutputStream {
+
+        private static final int CHUNK_HEADER = 9;
+        private static final int END_HEADER = 5;
+        private static final int LEGACY_CHUNK_HEADER = 5;
+        private static final int LEGACY_END_HEADER = 1;
+
+        private final int streamId;
+        private byte[] buffer;
+        private int position = CHUNK_HEADER;
+        private boolean closed;
+
+        MessageOutputStream(final int streamId) {
+            this.streamId = streamId;
+            buffer = bufferPool.allocate();
         }
 
         @Override
         public void write(final int b) throws IOException {
-            throw new IllegalStateException();
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (position == buffer.length) {
+                flushChunk(false);
+            }
+            buffer[position++] = (byte) b;
         }
 
         @Override
-        public void write(final byte[] b, final int off, final int len) throws IOException {
-            if (len == 0) {
-                return;
+        public void write(final byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
             }
-            final byte[] hdr = this.hdr;
-            hdr[0] = (byte) CHUNK_START;
-            hdr[1] = (byte) (len >> 24);
-            hdr[2] = (byte) (len >> 16);
-            hdr[3] = (byte) (len >> 8);
-            hdr[4] = (byte) (len >> 0);
-            synchronized (lock) {
-                if (sender != this || writeDone) {
-                    if (sender == this) sender = null;
-                    lock.notifyAll();
-                    throw new IOException("Write channel closed");
+            while (len > 0) {
+                if (position == buffer.length) {
+                    flushChunk(false);
                 }
-                log.tracef("Sending data chunk of size %d", Integer.valueOf(len));
-                out.write(hdr);
-                out.write(b, off, len);
+                final int cnt = Math.min(len, buffer.length - position);
+                System.arraycopy(b, off, buffer, position, cnt);
+                position += cnt;
+                off += cnt;
+                len -= cnt;
             }
         }
 
         @Override
-        public void close() throws IOException {
-            synchronized (lock) {
-                if (sender != this) {
-                    return;
+        public void flush() throws IOException {
+            if (! closed && position > CHUNK_HEADER) {
+                flushChunk(false);
+            }
+        }
+
+        /**
+         * Write the buffered data as one chunk, optionally followed by the end of the message.
+         */
+        private void flushChunk(final boolean end) throws IOException {
+            final byte[] buffer = this.buffer;
+            final int len = position - CHUNK_HEADER;
+            int start = CHUNK_HEADER;
+            int limit = CHUNK_HEADER;
+            final boolean legacy = streamId == LEGACY_STREAM_ID;
+            if (len > 0) {
+                limit = position;
+                if (legacy) {
+                    start = CHUNK_HEADER - LEGACY_CHUNK_HEADER;
+                    buffer[start] = (byte) CHUNK_START;
+                    writeInt(buffer, start + 1, len);
+                } else {
+                    start = 0;
+                    buffer[0] = (byte) STREAM_CHUNK;
+                    writeInt(buffer, 1, streamId);
+                    writeInt(buffer, 5, len);
                 }
-                sender = null;
-                // wake up waiters
-                lock.notify();
-                if (writeDone) throw new IOException("Write channel closed");
-                if (readDone) {
-                    readExecutor.execute(new Runnable() {
-                        public void run() {
-                            safeHandleFinished();
-                        }
-                    });
+                log.tracef("Sending data chunk of size %d", Integer.valueOf(len));
+            }
+            if (end) {
+                final int endHeader = legacy ? LEGACY_END_HEADER : END_HEADER;
+                if (limit + endHeader > buffer.length) {
+                    writeFrames(buffer, start, limit - start);
+                    start = limit = CHUNK_HEADER;
                 }
                 log.tracef("Sending end of message");
-                out.write(CHUNK_END);
+                if (legacy) {
+                    buffer[limit] = (byte) CHUNK_END;
+                } else {
+                    buffer[limit] = (byte) STREAM_END;
+                    writeInt(buffer, limit + 1, streamId);
+                }
+                limit += endHeader;
+            }
+            position = CHUNK_HEADER;
+            if (limit > start) {
+                writeFrames(buffer, start, limit - start);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            boolean finished = false;
+            try {
+                flushChunk(true);
+            } finally {
+                bufferPool.free(buffer);
+                buffer = null;
+                synchronized (lock) {
+                    // the count is reset if the connection was closed
+                    if (senders > 0) {
+                        senders--;
+                        finished = readDone;
+                    }
+                    // wake up waiters
+                    lock.notifyAll();
+                }
+            }
+            if (finished) {
+                readExecutor.execute(new Runnable() {
+                    public void run() {
+                        safeHandleFinished();
+                    }
+                });
             }
         }
 
         @Override
         protected void finalize() throws Throwable {
             super.finalize();
-            synchronized (lock) {
-                if (sender == this) {
-                    log.warnf("Leaked a message output stream; cleaning");
-                    close();
-                }
+            if (! closed) {
+                log.warnf("Leaked a message output stream; cleaning");
+                close();
             }
         }
     }
 
+    private static void writeInt(final byte[] bytes, final int off, final int v) {
+        bytes[off] = (byte) (v >> 24);
+        bytes[off + 1] = (byte) (v >> 16);
+        bytes[off + 2] = (byte) (v >> 8);
+        bytes[off + 3] = (byte) v;
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A single thread which reads from any number of non-blocking connections.
+ */
+final class ConnectionSelector implements Runnable {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.connection");
+
+    private final Selector selector;
+    private final Queue<ConnectionImpl> registrations = new ConcurrentLinkedQueue<ConnectionImpl>();
+    private final Queue<ConnectionImpl> resumptions = new ConcurrentLinkedQueue<ConnectionImpl>();
+    // direct, so that the channel reads straight into it; received chunks are copied out into pooled buffers
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BufferPool.DEFAULT.getBufferSize());
+    private volatile boolean stop;
+
+    ConnectionSelector() throws IOException {
+        selector = Selector.open();
+    }
+
+    /**
+     * Start reading from a connection.  The connection's channel must be in non-blocking mode.
+     *
+     * @param connection the connection
+     */
+    void register(final ConnectionImpl connection) {
+        registrations.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Resume reading from a connection which was suspended because its messages were not being consumed.
+     *
+     * @param connection the connection
+     */
+    void resume(final ConnectionImpl connection) {
+        resumptions.add(connection);
+        selector.wakeup();
+    }
+
+    void stop() {
+        stop = true;
+        selector.wakeup();
+    }
+
+    public void run() {
+        try {
+            while (! stop) {
+                selector.select();
+                ConnectionImpl connection;
+                while ((connection = registrations.poll()) != null) {
+                    try {
+                        final SelectionKey key = connection.getChannel().register(selector, SelectionKey.OP_READ, connection);
+                        connection.setSelectionKey(this, key);
+                    } catch (ClosedChannelException e) {
+                        connection.handleInputFailure(e);
+                    }
+                }
+                while ((connection = resumptions.poll()) != null) {
+                    try {
+                        connection.getSelectionKey().interestOps(SelectionKey.OP_READ);
+                    } catch (CancelledKeyException e) {
+                        // connection is gone
+                    }
+                }
+                final Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    final SelectionKey key = iterator.next();
+                    iterator.remove();
+                    if (key.isValid() && key.isReadable()) {
+                        handleReadable(key, (ConnectionImpl) key.attachment());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.errorf(e, "Connection selector failed");
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                StreamUtils.safeClose(key.channel());
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.errorf(e, "Failed to close selector");
+            }
+        }
+    }
+
+    private void handleReadable(final SelectionKey key, final ConnectionImpl connection) {
+        final ByteBuffer buffer = this.buffer;
+        buffer.clear();
+        try {
+            final int cnt = connection.getChannel().read(buffer);
+            if (cnt == -1) {
+                key.cancel();
+                connection.handleEndOfInput();
+            } else if (cnt > 0) {
+                buffer.flip();
+                connection.handleInput(buffer);
+            }
+        } catch (IOException e) {
+            key.cancel();
+            connection.handleInputFailure(e);
+        }
+    }
+}
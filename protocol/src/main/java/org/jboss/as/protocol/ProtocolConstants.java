@@ -28,6 +28,15 @@ package org.jboss.as.protocol;
 public final class ProtocolConstants {
     public static final int CHUNK_START = 0x98;
     public static final int CHUNK_END = 0x99;
+    /**
+     * A chunk of a numbered message stream, followed by the stream id and the chunk length (both {@code int}s) and
+     * the chunk data.  Chunks of different streams may be interleaved on one connection.
+     */
+    public static final int STREAM_CHUNK = 0x9A;
+    /**
+     * The end of a numbered message stream, followed by the stream id ({@code int}).
+     */
+    public static final int STREAM_END = 0x9B;
 
     private ProtocolConstants() {
     }
@@ -27,6 +27,9 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 
@@ -48,7 +51,9 @@ public final class ProtocolServer {
     private final int backlog;
     private final int readTimeout;
     private final Executor readExecutor;
+    private final boolean nonBlocking;
     private volatile boolean stop;
+    private volatile ConnectionSelector connectionSelector;
     private volatile Thread thread;
     private volatile ServerSocket serverSocket;
     private volatile InetSocketAddress boundAddress;
@@ -61,6 +66,7 @@ public final class ProtocolServer {
         backlog = configuration.getBacklog();
         readTimeout = configuration.getReadTimeout();
         readExecutor = configuration.getReadExecutor();
+        nonBlocking = configuration.isNonBlocking();
         if (bindAddress == null) {
             throw new IllegalArgumentException("bindAddress is null");
         }
@@ -72,9 +78,22 @@ public final class ProtocolServer {
     public void start() throws IOException {
         stop = false;
 
-        final ServerSocket serverSocket = socketFactory.createServerSocket();
+        // the channel's socket accepts in blocking mode; the accepted channels are read by the selector
+        final ServerSocket serverSocket = nonBlocking ? ServerSocketChannel.open().socket() : socketFactory.createServerSocket();
+        boolean ok = false;
+        try {
+            // bound before any thread is started, so a failure leaves nothing running
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(bindAddress, backlog);
+            ok = true;
+        } finally {
+            if (! ok) {
+                StreamUtils.safeClose(serverSocket);
+            }
+        }
         this.serverSocket = serverSocket;
-        thread = threadFactory.newThread(new Runnable() {
+        boundAddress = (InetSocketAddress) serverSocket.getLocalSocketAddress();
+        final Thread thread = threadFactory.newThread(new Runnable() {
             public void run() {
                 try {
                     while (! serverSocket.isClosed() && ! stop) {
@@ -100,6 +119,11 @@ public final class ProtocolServer {
                                 // ServerSocket
                                 log.errorf(e, "Failed to accept a connection");
                             }
+                        } catch (AsynchronousCloseException e) {
+                            // thrown instead of SocketException by a channel's socket when it is closed
+                            if (!stop) {
+                                log.errorf(e, "Failed to accept a connection");
+                            }
                         } catch (IOException e) {
                             log.errorf(e, "Failed to accept a connection");
                         }
@@ -111,12 +135,22 @@ public final class ProtocolServer {
             }
         });
         if (thread == null) {
+            stop();
             throw new IOException("Failed to create server thread");
         }
         thread.setName("Accept thread");
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(bindAddress, backlog);
-        boundAddress = (InetSocketAddress) serverSocket.getLocalSocketAddress();
+        if (nonBlocking) {
+            final ConnectionSelector connectionSelector = new ConnectionSelector();
+            final Thread selectorThread = threadFactory.newThread(connectionSelector);
+            if (selectorThread == null) {
+                stop();
+                throw new IOException("Failed to create selector thread");
+            }
+            selectorThread.setName("Read selector thread");
+            selectorThread.start();
+            this.connectionSelector = connectionSelector;
+        }
+        this.thread = thread;
         thread.start();
     }
 
@@ -129,11 +163,26 @@ public final class ProtocolServer {
             thread.interrupt();
         }
         StreamUtils.safeClose(serverSocket);
+        final ConnectionSelector connectionSelector = this.connectionSelector;
+        if (connectionSelector != null) {
+            connectionSelector.stop();
+            this.connectionSelector = null;
+        }
     }
 
     private void safeHandleConnection(final Socket socket) {
         boolean ok = false;
         try {
+            final SocketChannel channel = socket.getChannel();
+            final ConnectionSelector connectionSelector = this.connectionSelector;
+            if (channel != null && connectionSelector != null) {
+                channel.configureBlocking(false);
+                final ConnectionImpl connection = new ConnectionImpl(socket, channel, MessageHandler.NULL, readExecutor);
+                connection.setMessageHandler(connectionHandler.handleConnected(connection));
+                connectionSelector.register(connection);
+                ok = true;
+                return;
+            }
             final ConnectionImpl connection = new ConnectionImpl(socket, MessageHandler.NULL, readExecutor);
             connection.setMessageHandler(connectionHandler.handleConnected(connection));
             final Thread thread = threadFactory.newThread(connection.getReadTask());
@@ -169,6 +218,7 @@ public final class ProtocolServer {
         private int backlog;
         private int readTimeout;
         private Executor readExecutor;
+        private boolean nonBlocking;
 
         public ThreadFactory getThreadFactory() {
             return threadFactory;
@@ -233,5 +283,19 @@ public final class ProtocolServer {
         public void setReadExecutor(final Executor readExecutor) {
             this.readExecutor = readExecutor;
         }
+
+        public boolean isNonBlocking() {
+            return nonBlocking;
+        }
+
+        /**
+         * Set whether accepted connections are read by a single selector thread instead of a thread per connection.
+         * The socket factory and read timeout are not used in this mode.
+         *
+         * @param nonBlocking {@code true} to use non-blocking connections
+         */
+        public void setNonBlocking(final boolean nonBlocking) {
+            this.nonBlocking = nonBlocking;
+        }
     }
 }
@@ -34,10 +34,13 @@ import org.jboss.marshalling.SimpleDataInput;
  * @author John Bailey
  */
 public class SimpleByteDataInput extends InputStream implements ByteDataInput {
+    // kept small since these typically wrap a message stream and only read a few header fields
+    private static final int BUFFER_SIZE = 256;
+
     private final SimpleDataInput input;
 
     public SimpleByteDataInput(final InputStream inputStream) {
-        this.input = new SimpleDataInput(Marshalling.createByteInput(inputStream));
+        this.input = new SimpleDataInput(BUFFER_SIZE, Marshalling.createByteInput(inputStream));
     }
 
     public int read() throws IOException {
@@ -34,10 +34,13 @@ import org.jboss.marshalling.SimpleDataOutput;
  * @author John Bailey
  */
 public class SimpleByteDataOutput extends OutputStream implements ByteDataOutput {
+    // the streams used for messages are buffered already; this only needs to hold a few header fields
+    private static final int BUFFER_SIZE = 256;
+
     private final SimpleDataOutput output;
 
     public SimpleByteDataOutput(final OutputStream outputStream) {
-        this.output = new SimpleDataOutput(Marshalling.createByteOutput(outputStream));
+        this.output = new SimpleDataOutput(BUFFER_SIZE, Marshalling.createByteOutput(outputStream));
     }
 
     public void write(int b) throws IOException {
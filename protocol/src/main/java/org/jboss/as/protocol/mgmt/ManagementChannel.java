@@ -0,0 +1,395 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
+import static org.jboss.as.protocol.StreamUtils.safeClose;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.SocketFactory;
+
+import org.jboss.as.protocol.ConcurrentMessageHandler;
+import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.ProtocolClient;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.logging.Logger;
+
+/**
+ * A connection shared by any number of concurrent management requests.  Each request is given its own
+ * {@link Connection} whose messages are prefixed with {@link ManagementProtocol#REQUEST_MESSAGE}, the request id and
+ * a sequence number, so the messages of many outstanding requests can be interleaved on one connection and each one
+ * is routed to the handler of the request it belongs to.
+ * <p>
+ * On the client side a channel is created by {@link #connect(InetAddress, int, int, ExecutorService, ThreadFactory)}
+ * and requests are started with {@link #openRequest()}; messages for unknown requests, such as late responses to a
+ * cancelled request, are discarded.  A client must only use a channel once the server has negotiated at least
+ * {@link ManagementProtocol#MULTIPLEXED_VERSION}, since older servers do not understand the prefixed messages.  On the server side the channel is created by the
+ * {@link ManagementHeaderMessageHandler} when the first prefixed message arrives, and each new request starts with that
+ * handler.
+ * </p>
+ */
+public final class ManagementChannel {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.management");
+
+    /** The sequence number of the message sent when a request is closed. */
+    private static final int CLOSED = -1;
+
+    private final Connection connection;
+    private final MessageHandler initialHandler;
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+    private final ConcurrentMap<Integer, RequestConnection> requests = new ConcurrentHashMap<Integer, RequestConnection>();
+    private volatile boolean closed;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param connection the shared connection
+     * @param initialHandler the handler for requests started by the remote side, or {@code null} if the remote side
+     *                       may not start requests
+     */
+    ManagementChannel(final Connection connection, final MessageHandler initialHandler) {
+        this.connection = connection;
+        this.initialHandler = initialHandler;
+    }
+
+    /**
+     * Connect a new client channel.
+     *
+     * @param address the address of the management interface
+     * @param port the port of the management interface
+     * @param connectTimeout the connect timeout, in milliseconds
+     * @param executorService the executor used to handle received messages
+     * @param threadFactory the thread factory for the read thread
+     * @return the channel
+     * @throws IOException if the connection cannot be established
+     */
+    public static ManagementChannel connect(final InetAddress address, final int port, final int connectTimeout, final ExecutorService executorService, final ThreadFactory threadFactory) throws IOException {
+        final ProtocolClient.Configuration config = new ProtocolClient.Configuration();
+        config.setMessageHandler(MessageHandler.NULL);
+        config.setConnectTimeout(connectTimeout);
+        config.setReadExecutor(executorService);
+        config.setSocketFactory(SocketFactory.getDefault());
+        config.setServerAddress(new InetSocketAddress(address, port));
+        config.setThreadFactory(threadFactory);
+
+        final Connection connection = new ProtocolClient(config).connect();
+        final ManagementChannel channel = new ManagementChannel(connection, null);
+        connection.setMessageHandler(channel.new ClientMessageHandler());
+        return channel;
+    }
+
+    /**
+     * Start a new request.  Messages written to the returned connection are sent over this channel, and messages
+     * received for the request are passed to its message handler.  Closing the returned connection ends the request;
+     * any response still to come for it is discarded.
+     *
+     * @return the connection for the request
+     * @throws IOException if the channel is closed
+     */
+    public Connection openRequest() throws IOException {
+        if (closed) {
+            throw new IOException("Channel is closed");
+        }
+        final RequestConnection request = new RequestConnection(nextRequestId.incrementAndGet(), MessageHandler.NULL);
+        requests.put(Integer.valueOf(request.id), request);
+        if (closed) {
+            // raced with failure of the connection
+            requests.remove(Integer.valueOf(request.id));
+            throw new IOException("Channel is closed");
+        }
+        return request;
+    }
+
+    /**
+     * Determine whether this channel can still be used for new requests.
+     *
+     * @return {@code true} if the channel is open
+     */
+    public boolean isOpen() {
+        return ! closed;
+    }
+
+    /**
+     * Get the number of requests currently using this channel.
+     *
+     * @return the number of open requests
+     */
+    public int getRequestCount() {
+        return requests.size();
+    }
+
+    /**
+     * Close the channel and its connection, failing any outstanding request.
+     */
+    public void close() {
+        safeClose(connection);
+        failRequests(new IOException("Channel is closed"));
+    }
+
+    /**
+     * Handle a message received on the shared connection.  The {@link ManagementProtocol#REQUEST_MESSAGE} prefix
+     * has already been read.
+     *
+     * @param input the rest of the message
+     * @throws IOException if the message cannot be handled
+     */
+    void handleMessage(final InputStream input) throws IOException {
+        final Integer id = Integer.valueOf(StreamUtils.readInt(input));
+        final int sequence = StreamUtils.readInt(input);
+        if (sequence == CLOSED) {
+            final RequestConnection request = requests.remove(id);
+            if (request != null) {
+                request.remotelyClosed();
+            }
+            return;
+        }
+        RequestConnection request = requests.get(id);
+        if (request == null) {
+            if (initialHandler == null || sequence != 0) {
+                log.tracef("Discarding message %d for unknown request %d", Integer.valueOf(sequence), id);
+                return;
+            }
+            request = new RequestConnection(id.intValue(), initialHandler);
+            final RequestConnection existing = requests.putIfAbsent(id, request);
+            if (existing != null) {
+                request = existing;
+            }
+        }
+        request.handleMessage(sequence, input);
+    }
+
+    /**
+     * Fail all outstanding requests after the shared connection has failed or been shut down.
+     *
+     * @param e the failure
+     */
+    void failRequests(final IOException e) {
+        closed = true;
+        final List<RequestConnection> failed = new ArrayList<RequestConnection>(requests.values());
+        requests.clear();
+        for (RequestConnection request : failed) {
+            request.failed(e);
+        }
+    }
+
+    /**
+     * The handler of the shared connection on the client side.  Every message belongs to a request, which orders its
+     * own messages, so none of them waits for the handlers of other requests.
+     */
+    private final class ClientMessageHandler implements ConcurrentMessageHandler {
+
+        public boolean isConcurrent(final int first) {
+            return first == ManagementProtocol.REQUEST_MESSAGE;
+        }
+
+        public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+            try {
+                expectHeader(dataStream, ManagementProtocol.REQUEST_MESSAGE);
+                ManagementChannel.this.handleMessage(dataStream);
+            } finally {
+                safeClose(dataStream);
+            }
+        }
+
+        public void handleShutdown(final Connection connection) throws IOException {
+            failRequests(new EOFException("Connection closed by the remote side"));
+            connection.shutdownWrites();
+        }
+
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+            failRequests(e);
+            connection.close();
+        }
+
+        public void handleFinished(final Connection connection) throws IOException {
+            failRequests(new EOFException("Connection closed"));
+        }
+    }
+
+    /**
+     * The connection used by a single request.
+     */
+    private final class RequestConnection implements Connection {
+        private final int id;
+        private volatile MessageHandler messageHandler;
+        private volatile Object attachment;
+        // protected by this
+        private int nextOutput;
+        private int nextInput;
+        private boolean done;
+
+        RequestConnection(final int id, final MessageHandler messageHandler) {
+            this.id = id;
+            this.messageHandler = messageHandler;
+        }
+
+        public OutputStream writeMessage() throws IOException {
+            final int sequence;
+            synchronized (this) {
+                if (done) {
+                    throw new IOException("Request " + id + " is closed");
+                }
+                sequence = nextOutput++;
+            }
+            return writeMessage(sequence);
+        }
+
+        private OutputStream writeMessage(final int sequence) throws IOException {
+            final OutputStream output = connection.writeMessage();
+            boolean ok = false;
+            try {
+                output.write(ManagementProtocol.REQUEST_MESSAGE);
+                StreamUtils.writeInt(output, id);
+                StreamUtils.writeInt(output, sequence);
+                ok = true;
+                return output;
+            } finally {
+                if (! ok) {
+                    safeClose(output);
+                }
+            }
+        }
+
+        public void shutdownWrites() throws IOException {
+            // the shared connection stays open for the other requests
+        }
+
+        public void enableMultiplexing() {
+            connection.enableMultiplexing();
+        }
+
+        public boolean isMultiplexing() {
+            return connection.isMultiplexing();
+        }
+
+        public void close() throws IOException {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                notifyAll();
+            }
+            if (requests.remove(Integer.valueOf(id), this) && ! closed) {
+                final OutputStream output = writeMessage(CLOSED);
+                output.close();
+            }
+        }
+
+        public void setMessageHandler(final MessageHandler messageHandler) {
+            if (messageHandler == null) {
+                throw new IllegalArgumentException("messageHandler is null");
+            }
+            this.messageHandler = messageHandler;
+        }
+
+        public InetAddress getPeerAddress() {
+            return connection.getPeerAddress();
+        }
+
+        public void attach(final Object attachment) {
+            this.attachment = attachment;
+        }
+
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        /**
+         * Pass a message to the current handler.  Messages of one request are handled strictly in the order they were
+         * written, since each handler may change the handler for the next message.
+         */
+        void handleMessage(final int sequence, final InputStream input) throws IOException {
+            boolean intr = false;
+            try {
+                synchronized (this) {
+                    while (nextInput != sequence && ! done) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            intr = true;
+                        }
+                    }
+                    if (done) {
+                        return;
+                    }
+                }
+            } finally {
+                if (intr) Thread.currentThread().interrupt();
+            }
+            try {
+                messageHandler.handleMessage(this, input);
+            } finally {
+                synchronized (this) {
+                    nextInput++;
+                    notifyAll();
+                }
+            }
+        }
+
+        void remotelyClosed() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                notifyAll();
+            }
+            try {
+                messageHandler.handleShutdown(this);
+            } catch (IOException e) {
+                log.tracef(e, "Failed to handle close of request %d", Integer.valueOf(id));
+            }
+        }
+
+        void failed(final IOException e) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                notifyAll();
+            }
+            try {
+                messageHandler.handleFailure(this, e);
+            } catch (IOException e1) {
+                log.tracef(e1, "Failed to handle failure of request %d", Integer.valueOf(id));
+            }
+        }
+    }
+}
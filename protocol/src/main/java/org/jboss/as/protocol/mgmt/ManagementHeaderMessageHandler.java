@@ -26,22 +26,44 @@ import static org.jboss.as.protocol.StreamUtils.safeClose;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
 
 import org.jboss.as.protocol.ByteDataInput;
 import org.jboss.as.protocol.ByteDataOutput;
+import org.jboss.as.protocol.ConcurrentMessageHandler;
 import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.MessageHandler;
 import org.jboss.as.protocol.SimpleByteDataInput;
 import org.jboss.as.protocol.SimpleByteDataOutput;
 
 /**
+ * Handles the header which starts each management request and passes the rest of the request to the handler it
+ * names.  Connections shared by several requests through a {@link ManagementChannel} are demultiplexed here as well.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  * @version $Revision: 1.1 $
  */
-public abstract class ManagementHeaderMessageHandler extends AbstractMessageHandler {
+public abstract class ManagementHeaderMessageHandler extends AbstractMessageHandler implements ConcurrentMessageHandler {
+
+    /**
+     * Messages of requests sharing a {@link ManagementChannel} never replace the handler of the connection, so they are
+     * handled without waiting for the requests which are still running.
+     */
+    public boolean isConcurrent(final int first) {
+        return first == ManagementProtocol.REQUEST_MESSAGE;
+    }
+
+    public void handle(Connection connection, InputStream inputStream) throws IOException {
+        final PushbackInputStream dataStream = new PushbackInputStream(inputStream);
+        final int first = dataStream.read();
+        if (first == ManagementProtocol.REQUEST_MESSAGE) {
+            // a message for one of the requests sharing this connection
+            getChannel(connection).handleMessage(dataStream);
+            return;
+        } else if (first != -1) {
+            dataStream.unread(first);
+        }
 
-    public void handle(Connection connection, InputStream dataStream) throws IOException {
         final int workingVersion;
         final ManagementRequestHeader requestHeader;
         final MessageHandler handler;
@@ -54,6 +76,9 @@ public abstract class ManagementHeaderMessageHandler extends AbstractMessageHand
 
             // Work with the lowest protocol version
             workingVersion = Math.min(ManagementProtocol.VERSION, requestHeader.getVersion());
+            if (workingVersion >= ManagementProtocol.MULTIPLEXED_VERSION) {
+                connection.enableMultiplexing();
+            }
 
             byte handlerId = requestHeader.getOperationHandlerId();
             if (handlerId == -1) {
@@ -98,4 +123,14 @@ public abstract class ManagementHeaderMessageHandler extends AbstractMessageHand
 
     protected abstract MessageHandler getHandlerForId(byte handlerId);
 
+    private synchronized ManagementChannel getChannel(final Connection connection) {
+        final Object attachment = connection.getAttachment();
+        if (attachment instanceof ManagementChannel) {
+            return (ManagementChannel) attachment;
+        }
+        final ManagementChannel channel = new ManagementChannel(connection, this);
+        connection.attach(channel);
+        return channel;
+    }
+
 }
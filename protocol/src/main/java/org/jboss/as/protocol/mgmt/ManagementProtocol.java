@@ -29,7 +29,9 @@ public interface ManagementProtocol {
     // Headers
     byte[] SIGNATURE = {Byte.MAX_VALUE, Byte.MIN_VALUE, Byte.MAX_VALUE, Byte.MIN_VALUE};
     int VERSION_FIELD = 0x00; // The version field header
-    int VERSION = 1; // The current protocol version
+    int VERSION = 2; // The current protocol version
+    int COMPRESSED_CONTENT_VERSION = 2; // The first protocol version which accepts compressed content
+    int MULTIPLEXED_VERSION = 2; // The first protocol version which reads interleaved messages
 
     int REQUEST_START = 0x01;
     int REQUEST_OPERATION = 0x02;
@@ -38,6 +40,9 @@ public interface ManagementProtocol {
     int RESPONSE_START = 0x05;
     int RESPONSE_BODY = 0x06;
     int RESPONSE_END = 0x07;
+    // Prefix of a message belonging to one of the requests sharing a ManagementChannel, followed by the request id
+    // and the sequence number of the message within the request
+    int REQUEST_MESSAGE = 0x08;
 
 
 }
@@ -22,14 +22,17 @@
 
 package org.jboss.as.protocol.mgmt;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.protocol.ByteDataInput;
 import org.jboss.as.protocol.ByteDataOutput;
@@ -44,13 +47,20 @@ import static org.jboss.as.protocol.StreamUtils.safeClose;
 /**
  * Base management request used for remote requests.  Provides the basic mechanism for connecting to a remote host controller
  * for performing a task.  It will manage connecting and retrieving the correct response.
+ * <p>
+ * Each request has a unique id which the remote side echoes in its response header.  The returned future supports
+ * timed waits and cancellation; cancelling a request completes it with the connection strategy, so a request sharing
+ * a {@link ManagementChannel} with others just stops listening for its response.
+ * </p>
  *
  * @author John Bailey
  */
 public abstract class ManagementRequest<T> extends AbstractMessageHandler {
-    private int requestId = 0;
+    private static final AtomicInteger requestIds = new AtomicInteger();
+
+    private final int requestId = requestIds.incrementAndGet();
     private final ResponseFuture<T> future = new ResponseFuture<T>();
-    private ManagementRequestConnectionStrategy connectionStrategy;
+    private volatile ManagementRequestConnectionStrategy connectionStrategy;
     // @GuardedBy(resultLock)
     private T result;
     /**
@@ -107,6 +117,36 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
         return execute(connectionStrategy).get();
     }
 
+    /**
+     * Execute the request and wait for the result for at most the given time.  The request is cancelled if the result
+     * does not arrive in time.
+     *
+     * @param connectionStrategy The connection strategy
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return The result
+     * @throws TimeoutException If the result did not arrive in time
+     * @throws Exception If any other problems occur
+     */
+    public T executeForResult(final ManagementRequestConnectionStrategy connectionStrategy, final long timeout, final TimeUnit unit) throws Exception {
+        final Future<T> future = execute(connectionStrategy);
+        try {
+            return future.get(timeout, unit);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the id of this request.
+     *
+     * @return The request id
+     */
+    public int getRequestId() {
+        return requestId;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void handle(Connection connection, InputStream input) throws IOException {
@@ -122,7 +162,38 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
         }
     }
 
-    private MessageHandler initiatingMessageHandler = new AbstractMessageHandler() {
+    /** {@inheritDoc} */
+    @Override
+    public void handleShutdown(final Connection connection) throws IOException {
+        future.setException(new EOFException("Connection closed before the response was received"));
+        super.handleShutdown(connection);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleFailure(final Connection connection, final IOException e) throws IOException {
+        future.setException(e);
+        super.handleFailure(connection, e);
+    }
+
+    /**
+     * Base class for the handlers of the response messages, which fail the request if the connection goes away.
+     */
+    private abstract class ResponseMessageHandler extends AbstractMessageHandler {
+        /** {@inheritDoc} */
+        @Override
+        public void handleShutdown(final Connection connection) throws IOException {
+            ManagementRequest.this.handleShutdown(connection);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+            ManagementRequest.this.handleFailure(connection, e);
+        }
+    }
+
+    private MessageHandler initiatingMessageHandler = new ResponseMessageHandler() {
         @Override
         public final void handle(final Connection connection, final InputStream inputStream) throws IOException {
             final ManagementResponseHeader responseHeader;
@@ -133,6 +204,9 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
                 if (requestId != responseHeader.getResponseId()) {
                     throw new IOException("Invalid request ID expecting " + requestId + " received " + responseHeader.getResponseId());
                 }
+                if (responseHeader.getVersion() >= ManagementProtocol.MULTIPLEXED_VERSION) {
+                    connection.enableMultiplexing();
+                }
                 connection.setMessageHandler(ManagementRequest.this);
                 sendRequest(responseHeader.getVersion(), connection);
             } catch (Exception e) {
@@ -200,7 +274,7 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
 
     protected abstract byte getResponseCode();
 
-    private MessageHandler responseBodyHandler = new AbstractMessageHandler() {
+    private MessageHandler responseBodyHandler = new ResponseMessageHandler() {
         @Override
         public final void handle(final Connection connection, final InputStream input) throws IOException {
             try {
@@ -216,7 +290,7 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
         }
     };
 
-    private MessageHandler responseEndHandler = new AbstractMessageHandler() {
+    private MessageHandler responseEndHandler = new ResponseMessageHandler() {
         @Override
         public final void handle(final Connection connection, final InputStream input) throws IOException {
             try {
@@ -242,6 +316,7 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
     private final class ResponseFuture<R> implements Future<R>{
         private volatile R result;
         private volatile Exception exception;
+        private volatile boolean cancelled;
         private AtomicBoolean valueSet = new AtomicBoolean();
 
         public R get() throws InterruptedException, ExecutionException {
@@ -256,15 +331,35 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
                         }
                     }
                 }
-                if (exception != null) {
-                    throw new ExecutionException(exception);
-                }
-                return result;
+                return getValue();
             } finally {
                 if (intr) Thread.currentThread().interrupt();
             }
         }
 
+        public R get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                while (!valueSet.get()) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new TimeoutException("No response received for request " + requestId);
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            return getValue();
+        }
+
+        private R getValue() throws ExecutionException {
+            if (cancelled) {
+                throw new CancellationException("Request " + requestId + " was cancelled");
+            }
+            if (exception != null) {
+                throw new ExecutionException(exception);
+            }
+            return result;
+        }
 
         void set(final R result) {
             synchronized (this) {
@@ -285,19 +380,26 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
         }
 
         public boolean cancel(boolean mayInterruptIfRunning) {
-            return false;
+            synchronized (this) {
+                if(!valueSet.compareAndSet(false, true)) {
+                    return false;
+                }
+                cancelled = true;
+                notifyAll();
+            }
+            final ManagementRequestConnectionStrategy connectionStrategy = ManagementRequest.this.connectionStrategy;
+            if (connectionStrategy != null) {
+                connectionStrategy.complete();
+            }
+            return true;
         }
 
         public boolean isCancelled() {
-            return false;
+            return cancelled;
         }
 
-        public synchronized boolean isDone() {
-            return result != null || exception != null;
-        }
-
-        public R get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-            return null;
+        public boolean isDone() {
+            return valueSet.get();
         }
     }
 }
@@ -117,4 +117,29 @@ public interface ManagementRequestConnectionStrategy {
             safeClose(connection);
         }
     }
+
+    /**
+     * Strategy that runs the request over a connection shared with other requests.
+     */
+    static class ChannelConnectionStrategy implements ManagementRequestConnectionStrategy {
+        private final ManagementChannel channel;
+        private Connection connection;
+
+        public ChannelConnectionStrategy(final ManagementChannel channel) {
+            this.channel = channel;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized Connection getConnection() throws IOException {
+            if (connection == null) {
+                connection = channel.openRequest();
+            }
+            return connection;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized void complete() {
+            safeClose(connection);
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Tests reuse and bounding of {@link BufferPool} buffers.
+ */
+public class BufferPoolTest {
+
+    @Test
+    public void testReuse() {
+        final BufferPool pool = new BufferPool(16, 2);
+        final byte[] first = pool.allocate();
+        assertEquals(16, first.length);
+        assertEquals(0L, pool.getHitCount());
+        assertEquals(1L, pool.getMissCount());
+
+        pool.free(first);
+        assertSame(first, pool.allocate());
+        assertEquals(1L, pool.getHitCount());
+        assertEquals(1L, pool.getMissCount());
+    }
+
+    @Test
+    public void testBounded() {
+        final BufferPool pool = new BufferPool(16, 2);
+        final byte[] a = pool.allocate();
+        final byte[] b = pool.allocate();
+        final byte[] c = pool.allocate();
+        pool.free(a);
+        pool.free(b);
+        pool.free(c);
+        assertEquals(2, pool.getPooledCount());
+
+        // buffers of the wrong size are not pooled
+        pool.allocate();
+        pool.free(new byte[8]);
+        assertEquals(1, pool.getPooledCount());
+        assertNotSame(c, pool.allocate());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the content written by {@link CompressedOutputStream} and read by {@link CompressedInputStream}.
+ */
+public class CompressedStreamTest {
+
+    @Test
+    public void testSmallContentIsStored() throws Exception {
+        final byte[] content = "small".getBytes("UTF-8");
+        final byte[] written = write(content, 64);
+        assertEquals(CompressedOutputStream.STORED, written[0]);
+        assertEquals(1 + 4 + content.length + 1, written.length);
+        assertArrayEquals(content, read(written));
+    }
+
+    @Test
+    public void testLargeContentIsDeflated() throws Exception {
+        final byte[] content = new byte[100000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 10);
+        }
+        final byte[] written = write(content, 64);
+        assertEquals(CompressedOutputStream.DEFLATED, written[0]);
+        assertTrue(written.length < content.length / 10);
+        assertArrayEquals(content, read(written));
+    }
+
+    @Test
+    public void testIncompressibleContent() throws Exception {
+        final byte[] content = new byte[50000];
+        new Random(17).nextBytes(content);
+        assertArrayEquals(content, read(write(content, 8192)));
+    }
+
+    @Test
+    public void testCloseSkipsUnreadContent() throws Exception {
+        final byte[] content = new byte[20000];
+        new Random(3).nextBytes(content);
+        for (final int threshold : new int[] {64, 65536}) {
+            final InputStream input = new ByteArrayInputStream(write(content, threshold));
+            final CompressedInputStream compressed = new CompressedInputStream(input);
+            assertEquals(content[0] & 0xff, compressed.read());
+            compressed.close();
+            assertEquals(0x7f, input.read());
+            assertEquals(-1, input.read());
+        }
+    }
+
+    @Test
+    public void testOversizedBlockIsRejected() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(CompressedOutputStream.DEFLATED);
+        StreamUtils.writeInt(bytes, BufferPool.DEFAULT.getBufferSize() + 1);
+        final CompressedInputStream compressed = new CompressedInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        try {
+            compressed.read();
+            fail("Block larger than a pooled buffer should have been rejected");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void testNegativeStoredLengthIsRejected() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(CompressedOutputStream.STORED);
+        StreamUtils.writeInt(bytes, -1);
+        try {
+            new CompressedInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            fail("Negative content length should have been rejected");
+        } catch (IOException expected) {
+        }
+    }
+
+    // writes the content followed by a trailing byte which must not be consumed by the reader
+    private static byte[] write(final byte[] content, final int threshold) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CompressedOutputStream output = new CompressedOutputStream(bytes, threshold);
+        for (int i = 0; i < content.length; i += 1000) {
+            output.write(content, i, Math.min(1000, content.length - i));
+        }
+        output.close();
+        bytes.write(0x7f);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] read(final byte[] written) throws Exception {
+        final InputStream input = new ByteArrayInputStream(written);
+        final CompressedInputStream compressed = new CompressedInputStream(input);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StreamUtils.copyStream(compressed, bytes);
+        compressed.close();
+        assertEquals(0x7f, input.read());
+        assertEquals(-1, input.read());
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.SocketFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that messages written concurrently on a multiplexed connection are delivered independently, while messages
+ * written one after another are still handled in order.
+ */
+public final class ConnectionMultiplexingTest {
+
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<String>();
+    private ExecutorService executor;
+    private ProtocolServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        final ProtocolServer.Configuration config = new ProtocolServer.Configuration();
+        config.setBindAddress(new InetSocketAddress(InetAddress.getByName("localhost"), 0));
+        config.setThreadFactory(Executors.defaultThreadFactory());
+        config.setReadExecutor(executor);
+        config.setNonBlocking(true);
+        config.setBacklog(5);
+        config.setConnectionHandler(new ConnectionHandler() {
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return new AbstractHandler() {
+                    public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                        StreamUtils.copyStream(dataStream, bytes);
+                        final String message = new String(bytes.toByteArray(), "UTF-8");
+                        if (message.startsWith("slow")) {
+                            try {
+                                Thread.sleep(200L);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        received.add(message);
+                    }
+
+                    @Override
+                    public void handleShutdown(final Connection connection) throws IOException {
+                        received.add("shutdown");
+                        super.handleShutdown(connection);
+                    }
+                };
+            }
+        });
+        server = new ProtocolServer(config);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSmallMessageOvertakesLargeMessage() throws Exception {
+        final Connection connection = connect();
+        connection.enableMultiplexing();
+        try {
+            final OutputStream large = connection.writeMessage();
+            large.write("large-".getBytes("UTF-8"));
+            large.flush();
+
+            final OutputStream small = connection.writeMessage();
+            small.write("small".getBytes("UTF-8"));
+            small.close();
+            assertEquals("small", received.poll(10L, TimeUnit.SECONDS));
+
+            large.write("message".getBytes("UTF-8"));
+            large.close();
+            assertEquals("large-message", received.poll(10L, TimeUnit.SECONDS));
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testSequentialMessagesAreHandledInOrder() throws Exception {
+        final Connection connection = connect();
+        try {
+            final OutputStream first = connection.writeMessage();
+            first.write("slow-first".getBytes("UTF-8"));
+            first.close();
+
+            final OutputStream second = connection.writeMessage();
+            second.write("second".getBytes("UTF-8"));
+            second.close();
+
+            assertEquals("slow-first", received.poll(10L, TimeUnit.SECONDS));
+            assertEquals("second", received.poll(10L, TimeUnit.SECONDS));
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testMessagesAreNotInterleavedUntilMultiplexingIsEnabled() throws Exception {
+        final Connection connection = connect();
+        try {
+            final OutputStream large = connection.writeMessage();
+            large.write("large-".getBytes("UTF-8"));
+            large.flush();
+
+            final Thread writer = new Thread() {
+                public void run() {
+                    try {
+                        final OutputStream small = connection.writeMessage();
+                        small.write("small".getBytes("UTF-8"));
+                        small.close();
+                    } catch (IOException e) {
+                        received.add(e.toString());
+                    }
+                }
+            };
+            writer.start();
+            assertNull(received.poll(200L, TimeUnit.MILLISECONDS));
+
+            large.write("message".getBytes("UTF-8"));
+            large.close();
+            assertEquals("large-message", received.poll(10L, TimeUnit.SECONDS));
+            assertEquals("small", received.poll(10L, TimeUnit.SECONDS));
+            writer.join();
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testShutdownWaitsForRunningHandlers() throws Exception {
+        final Connection connection = connect();
+        try {
+            final OutputStream message = connection.writeMessage();
+            message.write("slow-message".getBytes("UTF-8"));
+            message.close();
+            connection.shutdownWrites();
+
+            assertEquals("slow-message", received.poll(10L, TimeUnit.SECONDS));
+            assertEquals("shutdown", received.poll(10L, TimeUnit.SECONDS));
+        } finally {
+            connection.close();
+        }
+    }
+
+    private Connection connect() throws IOException {
+        final ProtocolClient.Configuration config = new ProtocolClient.Configuration();
+        config.setServerAddress(server.getBoundAddress());
+        config.setThreadFactory(Executors.defaultThreadFactory());
+        config.setSocketFactory(SocketFactory.getDefault());
+        config.setReadExecutor(executor);
+        config.setMessageHandler(MessageHandler.NULL);
+        return new ProtocolClient(config).connect();
+    }
+
+    private abstract static class AbstractHandler implements MessageHandler {
+        public void handleShutdown(final Connection connection) throws IOException {
+            connection.shutdownWrites();
+        }
+
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+            connection.close();
+        }
+
+        public void handleFinished(final Connection connection) throws IOException {
+        }
+    }
+}
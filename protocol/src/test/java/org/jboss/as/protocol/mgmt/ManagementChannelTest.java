@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.ConnectionHandler;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.ProtocolServer;
+import org.jboss.as.protocol.StreamUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests running many management requests over one {@link ManagementChannel}.
+ */
+public final class ManagementChannelTest {
+
+    private static final byte HANDLER_ID = 0x11;
+    private static final byte REQUEST_CODE = 0x21;
+    private static final byte RESPONSE_CODE = 0x22;
+    private static final int SLOW = -1;
+    private static final long SLOW_MILLIS = 5000L;
+
+    private ExecutorService executor;
+    private ProtocolServer server;
+    private ManagementChannel channel;
+
+    @Before
+    public void start() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        final ProtocolServer.Configuration config = new ProtocolServer.Configuration();
+        config.setBindAddress(new InetSocketAddress(InetAddress.getByName("localhost"), 0));
+        config.setThreadFactory(Executors.defaultThreadFactory());
+        config.setReadExecutor(executor);
+        config.setNonBlocking(true);
+        config.setBacklog(5);
+        config.setConnectionHandler(new ConnectionHandler() {
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return new DoublingHeaderHandler();
+            }
+        });
+        server = new ProtocolServer(config);
+        server.start();
+        final InetSocketAddress address = server.getBoundAddress();
+        channel = ManagementChannel.connect(address.getAddress(), address.getPort(), 5000, executor, Executors.defaultThreadFactory());
+    }
+
+    @After
+    public void stop() {
+        channel.close();
+        server.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(new DoublingRequest(i).execute(new ManagementRequestConnectionStrategy.ChannelConnectionStrategy(channel)));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i * 2), futures.get(i).get(10L, TimeUnit.SECONDS));
+        }
+        // a request leaves the channel just after its result is set
+        awaitNoRequests();
+    }
+
+    @Test
+    public void testTimedOutRequestDoesNotBlockChannel() throws Exception {
+        try {
+            new DoublingRequest(SLOW).executeForResult(new ManagementRequestConnectionStrategy.ChannelConnectionStrategy(channel), 100L, TimeUnit.MILLISECONDS);
+            fail("Request should have timed out");
+        } catch (TimeoutException expected) {
+        }
+        assertEquals(0, channel.getRequestCount());
+        // the slow handler is still running on the server
+        final Integer result = new DoublingRequest(21).executeForResult(new ManagementRequestConnectionStrategy.ChannelConnectionStrategy(channel), 1L, TimeUnit.SECONDS);
+        assertEquals(Integer.valueOf(42), result);
+    }
+
+    @Test
+    public void testFastRequestCompletesWhileSlowRequestRuns() throws Exception {
+        final Future<Integer> slow = new DoublingRequest(SLOW).execute(new ManagementRequestConnectionStrategy.ChannelConnectionStrategy(channel));
+        for (int i = 0; i < 5; i++) {
+            final Integer result = new DoublingRequest(i).executeForResult(new ManagementRequestConnectionStrategy.ChannelConnectionStrategy(channel), 1L, TimeUnit.SECONDS);
+            assertEquals(Integer.valueOf(i * 2), result);
+        }
+        assertFalse(slow.isDone());
+        assertEquals(Integer.valueOf(SLOW * 2), slow.get(SLOW_MILLIS * 2, TimeUnit.MILLISECONDS));
+    }
+
+    private void awaitNoRequests() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (channel.getRequestCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(0, channel.getRequestCount());
+    }
+
+    private static final class DoublingRequest extends ManagementRequest<Integer> {
+        private final int value;
+
+        DoublingRequest(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        protected byte getHandlerId() {
+            return HANDLER_ID;
+        }
+
+        @Override
+        protected byte getRequestCode() {
+            return REQUEST_CODE;
+        }
+
+        @Override
+        protected byte getResponseCode() {
+            return RESPONSE_CODE;
+        }
+
+        @Override
+        protected void sendRequest(final int protocolVersion, final OutputStream output) throws IOException {
+            StreamUtils.writeInt(output, value);
+        }
+
+        @Override
+        protected Integer receiveResponse(final InputStream input) throws IOException {
+            return Integer.valueOf(StreamUtils.readInt(input));
+        }
+    }
+
+    private static final class DoublingHeaderHandler extends ManagementHeaderMessageHandler {
+        private final MessageHandler operationHandler = new AbstractMessageHandler() {
+            @Override
+            public void handle(final Connection connection, final InputStream input) throws IOException {
+                expectHeader(input, ManagementProtocol.REQUEST_OPERATION);
+                expectHeader(input, REQUEST_CODE);
+                new DoublingResponse(DoublingHeaderHandler.this).handle(connection, input);
+            }
+        };
+
+        @Override
+        protected MessageHandler getHandlerForId(final byte handlerId) {
+            return handlerId == HANDLER_ID ? operationHandler : null;
+        }
+    }
+
+    private static final class DoublingResponse extends ManagementResponse {
+        private int value;
+
+        DoublingResponse(final MessageHandler finalMessageHandler) {
+            super(finalMessageHandler);
+        }
+
+        @Override
+        protected byte getResponseCode() {
+            return RESPONSE_CODE;
+        }
+
+        @Override
+        protected void readRequest(final InputStream input) throws IOException {
+            value = StreamUtils.readInt(input);
+        }
+
+        @Override
+        protected void sendResponse(final OutputStream output) throws IOException {
+            if (value == SLOW) {
+                try {
+                    Thread.sleep(SLOW_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StreamUtils.writeInt(output, value * 2);
+        }
+    }
+}
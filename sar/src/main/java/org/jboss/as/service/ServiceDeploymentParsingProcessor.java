@@ -28,7 +28,7 @@ import org.jboss.as.service.descriptor.JBossServiceXmlDescriptor;
 import org.jboss.as.service.descriptor.JBossServiceXmlDescriptorParser;
 import org.jboss.as.service.descriptor.ParseResult;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.staxmapper.XMLMapper;
 import org.jboss.vfs.VFSUtils;
@@ -44,7 +44,7 @@ import java.io.InputStream;
  *
  * @author John E. Bailey
  */
-public class ServiceDeploymentParsingProcessor implements DeploymentUnitProcessor {
+public class ServiceDeploymentParsingProcessor implements ParallelDeploymentUnitProcessor {
     static final String SERVICE_DESCRIPTOR_PATH = "META-INF/jboss-service.xml";
     static final String SERVICE_DESCRIPTOR_SUFFIX = "-service.xml";
     private final XMLMapper xmlMapper = XMLMapper.Factory.create();
@@ -34,6 +34,8 @@ public enum Attribute {
     // must be first
     UNKNOWN(null),
 
+    AUTHENTICATION_CACHE_MAX_ENTRIES("authentication-cache-max-entries"),
+    AUTHENTICATION_CACHE_TIMEOUT("authentication-cache-timeout"),
     AUTHENTICATION_MANAGER_CLASS_NAME("authentication-manager-class-name"),
     CODE("code"),
     DEEP_COPY_SUBJECT_MODE("deep-copy-subject-mode"),
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.security.CommonAttributes.PRINCIPAL;
+
+import java.util.Locale;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.security.plugins.AuthenticationCache;
+import org.jboss.as.security.plugins.JNDIBasedSecurityManagement;
+import org.jboss.as.security.service.SecurityManagementService;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Operation removing cached authentications of a security domain, either of a single principal or all of them, so
+ * that the next request runs the login modules again.
+ */
+class AuthenticationCacheFlush implements ModelQueryOperationHandler, RuntimeOperationHandler, DescriptionProvider {
+
+    static final String OPERATION_NAME = "flush-authentication-cache";
+
+    static final AuthenticationCacheFlush INSTANCE = new AuthenticationCacheFlush();
+
+    /** Private to ensure a singleton. */
+    private AuthenticationCacheFlush() {
+    }
+
+    @Override
+    public ModelNode getModelDescription(Locale locale) {
+        return SecuritySubsystemDescriptions.getFlushAuthenticationCache(locale);
+    }
+
+    @Override
+    public Cancellable execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
+        if (context instanceof RuntimeOperationContext) {
+            final String securityDomain = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            final AuthenticationCache cache = getAuthenticationCache((RuntimeOperationContext) context, securityDomain);
+            if (cache != null) {
+                if (operation.hasDefined(PRINCIPAL)) {
+                    cache.flush(operation.get(PRINCIPAL).asString());
+                } else {
+                    cache.flush();
+                }
+            }
+        }
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+
+    /**
+     * Gets the authentication cache of a security domain from the running security management service
+     *
+     * @return the cache, or null if the service is not running or the domain does not cache authentications
+     */
+    static AuthenticationCache getAuthenticationCache(RuntimeOperationContext context, String securityDomain) {
+        final ServiceController<?> controller = context.getServiceRegistry().getService(SecurityManagementService.SERVICE_NAME);
+        if (controller == null || controller.getState() != ServiceController.State.UP)
+            return null;
+        return ((JNDIBasedSecurityManagement) controller.getValue()).getAuthenticationCache(securityDomain);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.security.plugins.AuthenticationCache;
+import org.jboss.as.security.plugins.AuthorizationCache;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the authentication and authorization cache metrics of a security domain. All metrics are 0 until the domain has been used.
+ */
+class AuthenticationCacheMetrics implements ModelQueryOperationHandler, RuntimeOperationHandler {
+
+    static final String CACHE_SIZE = "authentication-cache-size";
+    static final String CACHE_HITS = "authentication-cache-hits";
+    static final String CACHE_MISSES = "authentication-cache-misses";
+    static final String CACHE_EVICTIONS = "authentication-cache-evictions";
+
+    static final String AUTHORIZATION_CACHE_SIZE = "authorization-cache-size";
+    static final String AUTHORIZATION_CACHE_HITS = "authorization-cache-hits";
+    static final String AUTHORIZATION_CACHE_MISSES = "authorization-cache-misses";
+
+    static final String[] METRICS = new String[] { CACHE_SIZE, CACHE_HITS, CACHE_MISSES, CACHE_EVICTIONS,
+            AUTHORIZATION_CACHE_SIZE, AUTHORIZATION_CACHE_HITS, AUTHORIZATION_CACHE_MISSES };
+
+    static final AuthenticationCacheMetrics INSTANCE = new AuthenticationCacheMetrics();
+
+    /** Private to ensure a singleton. */
+    private AuthenticationCacheMetrics() {
+    }
+
+    @Override
+    public Cancellable execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
+        final ModelNode result = new ModelNode();
+        if (context instanceof RuntimeOperationContext) {
+            final String securityDomain = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            final String metric = operation.require(NAME).asString();
+            final AuthenticationCache cache = AuthenticationCacheFlush.getAuthenticationCache((RuntimeOperationContext) context,
+                    securityDomain);
+            final AuthorizationCache authorizationCache = cache == null ? null : cache.getAuthorizationCache();
+            if (CACHE_SIZE.equals(metric)) {
+                result.set(cache == null ? 0 : cache.size());
+            } else if (CACHE_HITS.equals(metric)) {
+                result.set(cache == null ? 0L : cache.getHits());
+            } else if (CACHE_MISSES.equals(metric)) {
+                result.set(cache == null ? 0L : cache.getMisses());
+            } else if (CACHE_EVICTIONS.equals(metric)) {
+                result.set(cache == null ? 0L : cache.getEvictions());
+            } else if (AUTHORIZATION_CACHE_SIZE.equals(metric)) {
+                result.set(authorizationCache == null ? 0 : authorizationCache.size());
+            } else if (AUTHORIZATION_CACHE_HITS.equals(metric)) {
+                result.set(authorizationCache == null ? 0L : authorizationCache.getHits());
+            } else if (AUTHORIZATION_CACHE_MISSES.equals(metric)) {
+                result.set(authorizationCache == null ? 0L : authorizationCache.getMisses());
+            }
+        }
+        resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+}
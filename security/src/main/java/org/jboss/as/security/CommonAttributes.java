@@ -29,10 +29,13 @@ package org.jboss.as.security;
  */
 interface CommonAttributes {
 
+    String AUTHENTICATION_CACHE_MAX_ENTRIES = "authentication-cache-max-entries";
+    String AUTHENTICATION_CACHE_TIMEOUT = "authentication-cache-timeout";
     String AUTHENTICATION_MANAGER_CLASS_NAME = "authentication-manager-class-name";
     String DEEP_COPY_SUBJECT_MODE = "deep-copy-subject-mode";
     String DEFAULT_CALLBACK_HANDLER_CLASS_NAME = "default-callback-handler-class-name";
     String JAAS_APPLICATION_POLICY = "jaas-application-policy";
     String MODULE_OPTIONS = "module-options";
+    String PRINCIPAL = "principal";
     String SUBJECT_FACTORY_CLASS_NAME = "subject-factory-class-name";
 }
@@ -33,6 +33,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.security.plugins.AuthenticationCache;
 import org.jboss.as.security.service.JaasConfigurationService;
 import org.jboss.as.server.RuntimeOperationContext;
 import org.jboss.as.server.RuntimeOperationHandler;
@@ -79,6 +80,11 @@ class JaasApplicationPolicyRemove implements ModelAddOperationHandler, RuntimeOp
                 ApplicationPolicyRegistration config = (ApplicationPolicyRegistration) jaasConfigurationService.getValue();
                 config.removeApplicationPolicy(policyName);
             }
+            // authentications cached under the removed policy must not outlive it
+            final AuthenticationCache cache = AuthenticationCacheFlush.getAuthenticationCache(updateContext, policyName);
+            if (cache != null) {
+                cache.flush();
+            }
         }
 
         resultHandler.handleResultComplete(compensatingOperation);
@@ -27,6 +27,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_CACHE_MAX_ENTRIES;
+import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_CACHE_TIMEOUT;
 import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_MANAGER_CLASS_NAME;
 import static org.jboss.as.security.CommonAttributes.DEEP_COPY_SUBJECT_MODE;
 import static org.jboss.as.security.CommonAttributes.DEFAULT_CALLBACK_HANDLER_CLASS_NAME;
@@ -89,6 +91,10 @@ public class SecurityExtension implements Extension {
         });
         jaas.registerOperationHandler(JaasApplicationPolicyAdd.OPERATION_NAME, JaasApplicationPolicyAdd.INSTANCE, JaasApplicationPolicyAdd.INSTANCE, false);
         jaas.registerOperationHandler(JaasApplicationPolicyRemove.OPERATION_NAME, JaasApplicationPolicyRemove.INSTANCE, JaasApplicationPolicyRemove.INSTANCE, false);
+        jaas.registerOperationHandler(AuthenticationCacheFlush.OPERATION_NAME, AuthenticationCacheFlush.INSTANCE, AuthenticationCacheFlush.INSTANCE, false);
+        for (final String metric : AuthenticationCacheMetrics.METRICS) {
+            jaas.registerMetric(metric, AuthenticationCacheMetrics.INSTANCE);
+        }
         registration.registerOperationHandler(DESCRIBE, SecurityDescribeHandler.INSTANCE, SecurityDescribeHandler.INSTANCE, false);
         subsystem.registerXMLElementWriter(PARSER);
     }
@@ -118,6 +124,12 @@ public class SecurityExtension implements Extension {
             if (subsystem.hasDefined(DEFAULT_CALLBACK_HANDLER_CLASS_NAME)) {
                 subsystem.get(DEFAULT_CALLBACK_HANDLER_CLASS_NAME).set(model.get(DEFAULT_CALLBACK_HANDLER_CLASS_NAME));
             }
+            if (model.hasDefined(AUTHENTICATION_CACHE_MAX_ENTRIES)) {
+                subsystem.get(AUTHENTICATION_CACHE_MAX_ENTRIES).set(model.get(AUTHENTICATION_CACHE_MAX_ENTRIES));
+            }
+            if (model.hasDefined(AUTHENTICATION_CACHE_TIMEOUT)) {
+                subsystem.get(AUTHENTICATION_CACHE_TIMEOUT).set(model.get(AUTHENTICATION_CACHE_TIMEOUT));
+            }
 
             ModelNode result = new ModelNode();
             result.add(subsystem);
@@ -23,6 +23,8 @@
 package org.jboss.as.security;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_CACHE_MAX_ENTRIES;
+import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_CACHE_TIMEOUT;
 import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_MANAGER_CLASS_NAME;
 import static org.jboss.as.security.CommonAttributes.DEEP_COPY_SUBJECT_MODE;
 import static org.jboss.as.security.CommonAttributes.DEFAULT_CALLBACK_HANDLER_CLASS_NAME;
@@ -83,6 +85,10 @@ class SecuritySubsystemAdd implements ModelAddOperationHandler, BootOperationHan
             + ":" + JBossAuthorizationManager.class.getName();
     private static final boolean DEFAULT_DEEP_COPY_OPERATION_MODE = false;
 
+    private static final int DEFAULT_AUTHENTICATION_CACHE_MAX_ENTRIES = 1000;
+
+    private static final long DEFAULT_AUTHENTICATION_CACHE_TIMEOUT = 1800;
+
     private static final String SUBJECT_FACTORY = ModuleName.PICKETBOX.getName() + ":" + ModuleName.PICKETBOX.getSlot() + ":"
             + JBossSecuritySubjectFactory.class.getName();
 
@@ -101,6 +107,17 @@ class SecuritySubsystemAdd implements ModelAddOperationHandler, BootOperationHan
         String callbackHandlerClassName = "default";
         boolean deepCopySubject = DEFAULT_DEEP_COPY_OPERATION_MODE;
         String subjectFactoryClassName = "default";
+        int authenticationCacheMaxEntries = DEFAULT_AUTHENTICATION_CACHE_MAX_ENTRIES;
+        long authenticationCacheTimeout = DEFAULT_AUTHENTICATION_CACHE_TIMEOUT;
+
+        if (operation.hasDefined(AUTHENTICATION_CACHE_MAX_ENTRIES) && operation.get(AUTHENTICATION_CACHE_MAX_ENTRIES).asInt() < 0) {
+            resultHandler.handleFailed(new ModelNode().set(AUTHENTICATION_CACHE_MAX_ENTRIES + " must not be negative"));
+            return Cancellable.NULL;
+        }
+        if (operation.hasDefined(AUTHENTICATION_CACHE_TIMEOUT) && operation.get(AUTHENTICATION_CACHE_TIMEOUT).asLong() < 0) {
+            resultHandler.handleFailed(new ModelNode().set(AUTHENTICATION_CACHE_TIMEOUT + " must not be negative"));
+            return Cancellable.NULL;
+        }
 
         final ModelNode subModel = context.getSubModel();
         if (operation.hasDefined(AUTHENTICATION_MANAGER_CLASS_NAME)) {
@@ -119,6 +136,14 @@ class SecuritySubsystemAdd implements ModelAddOperationHandler, BootOperationHan
             subjectFactoryClassName = operation.get(SUBJECT_FACTORY_CLASS_NAME).asString();
             subModel.get(SUBJECT_FACTORY_CLASS_NAME).set(SUBJECT_FACTORY_CLASS_NAME);
         }
+        if (operation.hasDefined(AUTHENTICATION_CACHE_MAX_ENTRIES)) {
+            authenticationCacheMaxEntries = operation.get(AUTHENTICATION_CACHE_MAX_ENTRIES).asInt();
+            subModel.get(AUTHENTICATION_CACHE_MAX_ENTRIES).set(authenticationCacheMaxEntries);
+        }
+        if (operation.hasDefined(AUTHENTICATION_CACHE_TIMEOUT)) {
+            authenticationCacheTimeout = operation.get(AUTHENTICATION_CACHE_TIMEOUT).asLong();
+            subModel.get(AUTHENTICATION_CACHE_TIMEOUT).set(authenticationCacheTimeout);
+        }
         subModel.get(JAAS_APPLICATION_POLICY).setEmptyObject();
 
         if (context instanceof BootOperationContext) {
@@ -149,7 +174,8 @@ class SecuritySubsystemAdd implements ModelAddOperationHandler, BootOperationHan
             }
 
             final SecurityManagementService securityManagementService = new SecurityManagementService(
-                    authManagerClassName, deepCopySubject, callbackHandlerClassName, AUTHORIZATION_MANAGER);
+                    authManagerClassName, deepCopySubject, callbackHandlerClassName, AUTHORIZATION_MANAGER,
+                    authenticationCacheMaxEntries, authenticationCacheTimeout);
             target.addService(SecurityManagementService.SERVICE_NAME, securityManagementService)
                     .setInitialMode(ServiceController.Mode.ACTIVE).install();
 
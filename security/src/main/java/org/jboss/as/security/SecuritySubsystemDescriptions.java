@@ -22,10 +22,19 @@
 
 package org.jboss.as.security;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.security.CommonAttributes.PRINCIPAL;
+
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * Subsystem descriptions for the security subsystem.
@@ -77,6 +86,20 @@ class SecuritySubsystemDescriptions {
         return node;
     }
 
+    static final ModelNode getFlushAuthenticationCache(final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+
+        final ModelNode node = new ModelNode();
+        node.get(OPERATION_NAME).set(AuthenticationCacheFlush.OPERATION_NAME);
+        node.get(DESCRIPTION).set(bundle.getString("jaas-application-policy.flush-authentication-cache"));
+        node.get(REQUEST_PROPERTIES, PRINCIPAL, DESCRIPTION).set(
+                bundle.getString("jaas-application-policy.flush-authentication-cache.principal"));
+        node.get(REQUEST_PROPERTIES, PRINCIPAL, TYPE).set(ModelType.STRING);
+        node.get(REQUEST_PROPERTIES, PRINCIPAL, REQUIRED).set(false);
+        node.get(REPLY_PROPERTIES).setEmptyObject();
+        return node;
+    }
+
     private static ResourceBundle getResourceBundle(Locale locale) {
         if (locale == null) {
             locale = Locale.getDefault();
@@ -25,11 +25,14 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.parsing.ParseUtils.missingRequired;
+import static org.jboss.as.controller.parsing.ParseUtils.parseBoundedIntegerAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoAttributes;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoContent;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
+import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_CACHE_MAX_ENTRIES;
+import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_CACHE_TIMEOUT;
 import static org.jboss.as.security.CommonAttributes.AUTHENTICATION_MANAGER_CLASS_NAME;
 import static org.jboss.as.security.CommonAttributes.DEEP_COPY_SUBJECT_MODE;
 import static org.jboss.as.security.CommonAttributes.DEFAULT_CALLBACK_HANDLER_CLASS_NAME;
@@ -123,7 +126,8 @@ class SecuritySubsystemParser implements XMLStreamConstants, XMLElementReader<Li
 
         if (isNonStandard(node, AUTHENTICATION_MANAGER_CLASS_NAME)
                 || (node.hasDefined(DEEP_COPY_SUBJECT_MODE) && node.get(DEEP_COPY_SUBJECT_MODE).asBoolean())
-                || isNonStandard(node, DEFAULT_CALLBACK_HANDLER_CLASS_NAME)) {
+                || isNonStandard(node, DEFAULT_CALLBACK_HANDLER_CLASS_NAME)
+                || node.hasDefined(AUTHENTICATION_CACHE_MAX_ENTRIES) || node.hasDefined(AUTHENTICATION_CACHE_TIMEOUT)) {
             writer.writeEmptyElement(Element.SECURITY_MANAGEMENT.getLocalName());
             if (isNonStandard(node, AUTHENTICATION_MANAGER_CLASS_NAME)) {
                 writeAttribute(writer, Attribute.AUTHENTICATION_MANAGER_CLASS_NAME, node.get(AUTHENTICATION_MANAGER_CLASS_NAME));
@@ -135,6 +139,12 @@ class SecuritySubsystemParser implements XMLStreamConstants, XMLElementReader<Li
                 writeAttribute(writer, Attribute.DEFAULT_CALLBACK_HANDLER_CLASS_NAME,
                         node.get(DEFAULT_CALLBACK_HANDLER_CLASS_NAME));
             }
+            if (node.hasDefined(AUTHENTICATION_CACHE_MAX_ENTRIES)) {
+                writeAttribute(writer, Attribute.AUTHENTICATION_CACHE_MAX_ENTRIES, node.get(AUTHENTICATION_CACHE_MAX_ENTRIES));
+            }
+            if (node.hasDefined(AUTHENTICATION_CACHE_TIMEOUT)) {
+                writeAttribute(writer, Attribute.AUTHENTICATION_CACHE_TIMEOUT, node.get(AUTHENTICATION_CACHE_TIMEOUT));
+            }
         }
 
         if (isNonStandard(node, SUBJECT_FACTORY_CLASS_NAME)) {
@@ -231,6 +241,8 @@ class SecuritySubsystemParser implements XMLStreamConstants, XMLElementReader<Li
         String authenticationManagerClassName = null;
         boolean deepCopySubjectMode = false;
         String defaultCallbackHandlerClassName = null;
+        int authenticationCacheMaxEntries = -1;
+        int authenticationCacheTimeout = -1;
         final int count = reader.getAttributeCount();
         for (int i = 0; i < count; i++) {
             requireNoNamespaceAttribute(reader, i);
@@ -249,20 +261,36 @@ class SecuritySubsystemParser implements XMLStreamConstants, XMLElementReader<Li
                     defaultCallbackHandlerClassName = value;
                     break;
                 }
+                case AUTHENTICATION_CACHE_MAX_ENTRIES: {
+                    authenticationCacheMaxEntries = parseBoundedIntegerAttribute(reader, i, 0, Integer.MAX_VALUE);
+                    break;
+                }
+                case AUTHENTICATION_CACHE_TIMEOUT: {
+                    authenticationCacheTimeout = parseBoundedIntegerAttribute(reader, i, 0, Integer.MAX_VALUE);
+                    break;
+                }
                 default:
                     throw unexpectedAttribute(reader, i);
             }
         }
         requireNoContent(reader);
 
-        if (authenticationManagerClassName == null) {
+        if (authenticationManagerClassName != null) {
             operation.get(AUTHENTICATION_MANAGER_CLASS_NAME).set(authenticationManagerClassName);
         }
 
-        if (defaultCallbackHandlerClassName == null) {
+        if (defaultCallbackHandlerClassName != null) {
             operation.get(DEFAULT_CALLBACK_HANDLER_CLASS_NAME).set(defaultCallbackHandlerClassName);
         }
 
+        if (authenticationCacheMaxEntries != -1) {
+            operation.get(AUTHENTICATION_CACHE_MAX_ENTRIES).set(authenticationCacheMaxEntries);
+        }
+
+        if (authenticationCacheTimeout != -1) {
+            operation.get(AUTHENTICATION_CACHE_TIMEOUT).set(authenticationCacheTimeout);
+        }
+
         if (deepCopySubjectMode) {
             operation.get(DEEP_COPY_SUBJECT_MODE).set(deepCopySubjectMode);
         }
@@ -0,0 +1,298 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.plugins;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+import org.jboss.util.CachePolicy;
+import org.jboss.util.TimedCachePolicy.TimedEntry;
+
+/**
+ * Authentication cache of a security domain, bounded in size and in the time an entry stays valid.
+ * <p>
+ * The authentication manager stores the result of a successful login under the principal, together with the
+ * credential it was validated with, so a request presenting the same principal and credential is authenticated without
+ * running the login modules again. When the cache is full the least recently used entry is evicted. Evicted, expired
+ * and flushed entries are destroyed, which logs out the cached subject.
+ * <p>
+ * The lifetime of an entry is governed by this cache alone. The authentication manager only gives its entries a
+ * lifetime of their own when used with a {@code TimedCachePolicy}, so it is not consulted.
+ * <p>
+ * If an {@link AuthorizationCache} is attached, the roles it holds for a principal are invalidated whenever an entry
+ * of that principal is replaced or leaves this cache.
+ */
+public class AuthenticationCache implements CachePolicy {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.security");
+
+    private final int maxEntries;
+
+    private final long timeout;
+
+    // guarded by this, which is also the lock the authentication manager holds while updating the cache
+    private final LinkedHashMap<Object, CacheEntry> entries = new LinkedHashMap<Object, CacheEntry>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private volatile AuthorizationCache authorizationCache;
+
+    /**
+     * Creates a new cache
+     *
+     * @param maxEntries maximum number of cached principals
+     * @param timeout time in milliseconds an entry stays valid, or 0 if entries only leave the cache when evicted
+     */
+    public AuthenticationCache(int maxEntries, long timeout) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        if (timeout < 0)
+            throw new IllegalArgumentException("timeout must not be negative");
+        this.maxEntries = maxEntries;
+        this.timeout = timeout;
+    }
+
+    /** {@inheritDoc} */
+    public Object get(Object key) {
+        final Object value = lookup(key);
+        if (value == null)
+            misses.incrementAndGet();
+        else
+            hits.incrementAndGet();
+        return value;
+    }
+
+    /** {@inheritDoc} */
+    public Object peek(Object key) {
+        return lookup(key);
+    }
+
+    /** {@inheritDoc} */
+    public void insert(Object key, Object object) {
+        if (key == null)
+            throw new IllegalArgumentException("key cannot be null");
+        final long expiration = timeout == 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeout;
+        final List<Object> removed = new ArrayList<Object>(2);
+        final List<Object> evicted = new ArrayList<Object>(1);
+        synchronized (this) {
+            final CacheEntry previous = entries.put(key, new CacheEntry(object, expiration));
+            if (previous != null && previous.value != object)
+                removed.add(previous.value);
+            final Iterator<Map.Entry<Object, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries) {
+                final Map.Entry<Object, CacheEntry> entry = iterator.next();
+                evicted.add(entry.getKey());
+                removed.add(entry.getValue().value);
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        invalidate(key);
+        for (Object evictedKey : evicted)
+            invalidate(evictedKey);
+        destroy(removed);
+    }
+
+    /** {@inheritDoc} */
+    public void remove(Object key) {
+        final CacheEntry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+        }
+        if (entry != null) {
+            invalidate(key);
+            destroy(entry.value);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void flush() {
+        final List<Object> removed = new ArrayList<Object>();
+        synchronized (this) {
+            for (CacheEntry entry : entries.values())
+                removed.add(entry.value);
+            entries.clear();
+        }
+        final AuthorizationCache authorizationCache = this.authorizationCache;
+        if (authorizationCache != null)
+            authorizationCache.flush();
+        destroy(removed);
+    }
+
+    /**
+     * Removes the entries of all principals with the given name
+     *
+     * @param principalName the name of the principal
+     * @return the number of entries removed
+     */
+    public int flush(String principalName) {
+        final List<Object> removed = new ArrayList<Object>(1);
+        synchronized (this) {
+            final Iterator<Map.Entry<Object, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Object, CacheEntry> entry = iterator.next();
+                if (principalName.equals(nameOf(entry.getKey()))) {
+                    removed.add(entry.getValue().value);
+                    iterator.remove();
+                }
+            }
+        }
+        final AuthorizationCache authorizationCache = this.authorizationCache;
+        if (authorizationCache != null)
+            authorizationCache.invalidate(principalName);
+        destroy(removed);
+        return removed.size();
+    }
+
+    /** {@inheritDoc} */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** {@inheritDoc} */
+    public void create() throws Exception {
+    }
+
+    /** {@inheritDoc} */
+    public void start() throws Exception {
+    }
+
+    /** {@inheritDoc} */
+    public void stop() {
+        flush();
+    }
+
+    /** {@inheritDoc} */
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * Returns the number of lookups which found a valid entry
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups which found no valid entry
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of entries removed because they expired or the cache was full
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public AuthorizationCache getAuthorizationCache() {
+        return authorizationCache;
+    }
+
+    /**
+     * Attaches the authorization cache whose entries depend on the entries of this cache
+     */
+    public void setAuthorizationCache(AuthorizationCache authorizationCache) {
+        this.authorizationCache = authorizationCache;
+    }
+
+    private Object lookup(Object key) {
+        final long now = System.currentTimeMillis();
+        final CacheEntry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null)
+                return null;
+            if (entry.isCurrent(now))
+                return entry.getValue();
+            entries.remove(key);
+        }
+        evictions.incrementAndGet();
+        invalidate(key);
+        destroy(entry.value);
+        return null;
+    }
+
+    private void invalidate(Object key) {
+        final AuthorizationCache authorizationCache = this.authorizationCache;
+        if (authorizationCache != null)
+            authorizationCache.invalidate(nameOf(key));
+    }
+
+    private static String nameOf(Object key) {
+        return key instanceof Principal ? ((Principal) key).getName() : String.valueOf(key);
+    }
+
+    private static void destroy(List<Object> values) {
+        for (Object value : values)
+            destroy(value);
+    }
+
+    private static void destroy(Object value) {
+        if (value instanceof TimedEntry) {
+            try {
+                ((TimedEntry) value).destroy();
+            } catch (Exception e) {
+                log.trace("Failed to destroy authentication cache entry", e);
+            }
+        }
+    }
+
+    private static final class CacheEntry {
+        final Object value;
+        final long expiration;
+
+        CacheEntry(Object value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        boolean isCurrent(long now) {
+            return now < expiration;
+        }
+
+        Object getValue() {
+            return value instanceof TimedEntry ? ((TimedEntry) value).getValue() : value;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.plugins;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the roles of authenticated principals of a security domain, so that role checks are set lookups rather
+ * than evaluations of the role mapping.
+ * <p>
+ * Entries are keyed by principal name and are only valid while the authentication of the principal is cached, so
+ * the cache is invalidated by the {@link AuthenticationCache} of the same domain whenever an entry is replaced,
+ * evicted, expired or flushed. Roles computed while the principal is invalidated are not stored, see
+ * {@link #getGeneration(String)}; invalidating one principal does not affect the roles being stored for others.
+ * <p>
+ * Thread Safety: This class is thread safe
+ */
+public class AuthorizationCache {
+
+    /**
+     * The generation of a principal's entry, and its roles once they are stored. Every entry gets a new generation,
+     * so an entry that was removed and created again is never mistaken for the original.
+     */
+    private static final class Entry {
+        final long generation;
+        final Set<String> roles;
+
+        Entry(long generation, Set<String> roles) {
+            this.generation = generation;
+            this.roles = roles;
+        }
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    private final AtomicLong generations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Gets the cached roles of a principal
+     *
+     * @param principalName the name of the principal
+     * @return an unmodifiable set of role names, or null if the roles of the principal are not cached
+     */
+    public Set<String> getRoles(String principalName) {
+        final Entry entry = entries.get(principalName);
+        final Set<String> result = entry == null ? null : entry.roles;
+        if (result == null)
+            misses.incrementAndGet();
+        else
+            hits.incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Gets the current generation of a principal, which must be read before computing the roles passed to
+     * {@link #putRoles(String, Set, long)}
+     *
+     * @param principalName the name of the principal
+     */
+    public long getGeneration(String principalName) {
+        Entry entry = entries.get(principalName);
+        if (entry == null) {
+            final Entry created = new Entry(generations.incrementAndGet(), null);
+            entry = entries.putIfAbsent(principalName, created);
+            if (entry == null)
+                entry = created;
+        }
+        return entry.generation;
+    }
+
+    /**
+     * Caches the roles of a principal, unless the principal has been invalidated since {@code generation} was read
+     *
+     * @param principalName the name of the principal
+     * @param roleNames the role names
+     * @param generation the generation read before the roles were computed
+     */
+    public void putRoles(String principalName, Set<String> roleNames, long generation) {
+        final Entry entry = entries.get(principalName);
+        if (entry != null && entry.generation == generation)
+            entries.replace(principalName, entry, new Entry(generation, Collections.unmodifiableSet(new HashSet<String>(roleNames))));
+    }
+
+    /**
+     * Removes the roles of a principal
+     */
+    public void invalidate(String principalName) {
+        entries.remove(principalName);
+    }
+
+    /**
+     * Removes all cached roles
+     */
+    public void flush() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of principals whose roles are cached or being computed
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
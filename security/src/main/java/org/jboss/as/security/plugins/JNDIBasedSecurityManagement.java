@@ -38,6 +38,7 @@ import org.jboss.security.SecurityConstants;
 import org.jboss.security.audit.AuditManager;
 import org.jboss.security.identitytrust.IdentityTrustManager;
 import org.jboss.security.mapping.MappingManager;
+import org.jboss.util.CachePolicy;
 
 /**
  * JNDI based implementation of {@code ISecurityManagement}
@@ -61,6 +62,8 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
     private boolean deepCopySubjectMode;
     private String callbackHandlerClassName;
     private String authorizationManagerClassName;
+    private int authenticationCacheMaxEntries;
+    private long authenticationCacheTimeout;
 
     // creating a singleton
     private JNDIBasedSecurityManagement() {
@@ -154,6 +157,52 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
         this.authorizationManagerClassName = authorizationManagerClassName;
     }
 
+    public int getAuthenticationCacheMaxEntries() {
+        return authenticationCacheMaxEntries;
+    }
+
+    /**
+     * Sets the maximum number of principals cached per security domain, 0 disables the authentication cache
+     */
+    public void setAuthenticationCacheMaxEntries(int authenticationCacheMaxEntries) {
+        this.authenticationCacheMaxEntries = authenticationCacheMaxEntries;
+    }
+
+    public long getAuthenticationCacheTimeout() {
+        return authenticationCacheTimeout;
+    }
+
+    /**
+     * Sets the time in seconds a cached authentication stays valid, 0 if entries only expire when evicted
+     */
+    public void setAuthenticationCacheTimeout(long authenticationCacheTimeout) {
+        this.authenticationCacheTimeout = authenticationCacheTimeout;
+    }
+
+    /**
+     * Gets the authentication cache of a security domain
+     *
+     * @param securityDomain name of the security domain
+     * @return the cache, or null if the domain has not been used yet or does not cache authentications
+     */
+    public AuthenticationCache getAuthenticationCache(String securityDomain) {
+        SecurityDomainContext securityDomainContext = securityMgrMap.get(securityDomain);
+        if (securityDomainContext != null && securityDomainContext.getAuthenticationCache() instanceof AuthenticationCache)
+            return (AuthenticationCache) securityDomainContext.getAuthenticationCache();
+        return null;
+    }
+
+    /**
+     * Gets the authorization cache of a security domain
+     *
+     * @param securityDomain name of the security domain
+     * @return the cache, or null if the domain has not been used yet or does not cache authentications
+     */
+    public AuthorizationCache getAuthorizationCache(String securityDomain) {
+        SecurityDomainContext securityDomainContext = securityMgrMap.get(securityDomain);
+        return securityDomainContext != null ? securityDomainContext.getAuthorizationCache() : null;
+    }
+
     /**
      * Lookup a context in JNDI
      *
@@ -185,15 +234,25 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
     public SecurityDomainContext createSecurityDomainContext(String securityDomain) throws Exception {
         log.debug("Creating SDC for domain=" + securityDomain);
         AuthenticationManager am = createAuthenticationManager(securityDomain);
-        // TODO create auth cache and set it in am
+        AuthenticationCache cache = null;
+        if (authenticationCacheMaxEntries > 0) {
+            cache = new AuthenticationCache(authenticationCacheMaxEntries, authenticationCacheTimeout * 1000);
+            if (!setCachePolicy(am, cache))
+                cache = null;
+        }
 
         // set DeepCopySubject option if supported
         if (deepCopySubjectMode) {
             setDeepCopySubjectMode(am);
         }
 
-        // TODO set auth cache
-        SecurityDomainContext securityDomainContext = new SecurityDomainContext(am, null);
+        SecurityDomainContext securityDomainContext = new SecurityDomainContext(am, cache);
+        // cached roles are only as valid as the cached authentication they were computed for
+        if (cache != null) {
+            AuthorizationCache authorizationCache = new AuthorizationCache();
+            cache.setAuthorizationCache(authorizationCache);
+            securityDomainContext.setAuthorizationCache(authorizationCache);
+        }
 
         securityDomainContext.setAuthorizationManager(createAuthorizationManager(securityDomain));
         return securityDomainContext;
@@ -243,6 +302,27 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
         return (AuthorizationManager) ctr.newInstance(new Object[] { securityDomain });
     }
 
+    /**
+     * Use reflection to attempt to set the authentication cache on the {@code AuthenticationManager}
+     *
+     * @param authenticationManager the {@code AuthenticationManager}
+     * @param cachePolicy the cache
+     * @return true if the {@code AuthenticationManager} supports caching
+     */
+    private static boolean setCachePolicy(AuthenticationManager authenticationManager, CachePolicy cachePolicy) {
+        try {
+            Class<?>[] argsType = { CachePolicy.class };
+            Method m = authenticationManager.getClass().getMethod("setCachePolicy", argsType);
+            Object[] cacheArgs = { cachePolicy };
+            m.invoke(authenticationManager, cacheArgs);
+            return true;
+        } catch (Exception e) {
+            if (log.isTraceEnabled())
+                log.trace("Optional setCachePolicy failed: " + e.getLocalizedMessage());
+            return false;
+        }
+    }
+
     /**
      * Use reflection to attempt to set the deep copy subject mode on the {@code AuthenticationManager}
      *
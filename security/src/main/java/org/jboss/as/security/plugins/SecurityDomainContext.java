@@ -52,6 +52,7 @@ public class SecurityDomainContext {
     static final String MAPPING_MGR = "mappingMgr";
     static final String IDENTITY_TRUST_MGR = "identityTrustMgr";
     static final String AUTH_CACHE = "authenticationCache";
+    static final String AUTHORIZATION_CACHE = "authorizationCache";
     static final String DOMAIN_CONTEXT = "domainContext";
 
     AuthenticationManager authenticationMgr;
@@ -61,6 +62,7 @@ public class SecurityDomainContext {
     IdentityTrustManager identityTrustMgr;
     // FIXME
     Object authenticationCache;
+    AuthorizationCache authorizationCache;
 
     private static final String SUBJECT_CONTEXT_KEY = "javax.security.auth.Subject.container";
 
@@ -91,6 +93,8 @@ public class SecurityDomainContext {
             binding = this.getIdentityTrustMgr();
         else if (name.equals(AUTH_CACHE))
             binding = authenticationCache;
+        else if (name.equals(AUTHORIZATION_CACHE))
+            binding = authorizationCache;
         else if (name.equals(DOMAIN_CONTEXT))
             binding = this;
 
@@ -142,6 +146,14 @@ public class SecurityDomainContext {
         return authenticationCache;
     }
 
+    public AuthorizationCache getAuthorizationCache() {
+        return authorizationCache;
+    }
+
+    public void setAuthorizationCache(AuthorizationCache authorizationCache) {
+        this.authorizationCache = authorizationCache;
+    }
+
     public AuditManager getAuditMgr() {
         return auditMgr;
     }
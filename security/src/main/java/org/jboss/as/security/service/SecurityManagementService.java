@@ -51,14 +51,21 @@ public class SecurityManagementService implements Service<ISecurityManagement> {
 
     private final String authorizationManagerClassName;
 
+    private final int authenticationCacheMaxEntries;
+
+    private final long authenticationCacheTimeout;
+
     private ISecurityManagement securityManagement;
 
     public SecurityManagementService(String authenticationManagerClassName, boolean deepCopySubjectMode,
-            String callbackHandlerClassName, String authorizationManagerClassName) {
+            String callbackHandlerClassName, String authorizationManagerClassName, int authenticationCacheMaxEntries,
+            long authenticationCacheTimeout) {
         this.authenticationManagerClassName = authenticationManagerClassName;
         this.deepCopySubjectMode = deepCopySubjectMode;
         this.callbackHandlerClassName = callbackHandlerClassName;
         this.authorizationManagerClassName = authorizationManagerClassName;
+        this.authenticationCacheMaxEntries = authenticationCacheMaxEntries;
+        this.authenticationCacheTimeout = authenticationCacheTimeout;
     }
 
     /** {@inheritDoc} */
@@ -72,6 +79,8 @@ public class SecurityManagementService implements Service<ISecurityManagement> {
         securityManagement.setDeepCopySubjectMode(deepCopySubjectMode);
         securityManagement.setCallbackHandlerClassName(callbackHandlerClassName);
         securityManagement.setAuthorizationManagerClassName(authorizationManagerClassName);
+        securityManagement.setAuthenticationCacheMaxEntries(authenticationCacheMaxEntries);
+        securityManagement.setAuthenticationCacheTimeout(authenticationCacheTimeout);
         this.securityManagement = securityManagement;
     }
 
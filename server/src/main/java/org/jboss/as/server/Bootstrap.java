@@ -29,9 +29,12 @@ import javax.xml.namespace.QName;
 
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.parsing.StandaloneXml;
+import org.jboss.as.controller.persistence.AsyncConfigurationPersister;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
+import org.jboss.as.controller.persistence.JournalConfigurationPersister;
 import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.logging.Logger;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.ServiceActivator;
@@ -62,6 +65,8 @@ public interface Bootstrap {
      */
     final class Configuration {
 
+        private static final Logger log = Logger.getLogger("org.jboss.as.server");
+
         private int portOffset;
         private ServerEnvironment serverEnvironment;
         private ModuleLoader moduleLoader = Module.getSystemModuleLoader();
@@ -129,12 +134,66 @@ public interface Bootstrap {
                 else {
                     QName rootElement = new QName(Namespace.CURRENT.getUriString(), "server");
                     StandaloneXml parser = new StandaloneXml(Module.getSystemModuleLoader());
-                    configurationPersister = new BackupXmlConfigurationPersister(new File(serverEnvironment.getServerConfigurationDir(), "standalone.xml"), rootElement, parser, parser);
+                    final File configFile = new File(serverEnvironment.getServerConfigurationDir(), "standalone.xml");
+                    configurationPersister = new BackupXmlConfigurationPersister(configFile, rootElement, parser, parser);
+                    final int journalSize = getJournalSize();
+                    final long delay = getPersistDelay();
+                    if (journalSize > 0) {
+                        final File journalFile = new File(configFile.getParent(), configFile.getName() + ".journal");
+                        configurationPersister = new JournalConfigurationPersister(configurationPersister, journalFile, journalSize);
+                    } else if (delay >= 0) {
+                        configurationPersister = new AsyncConfigurationPersister(configurationPersister, delay);
+                    }
                 }
             }
             return configurationPersister;
         }
 
+        /**
+         * Get the configured journal size, logging and ignoring an invalid value.
+         *
+         * @return the journal size, or 0 if changes are not to be journaled
+         */
+        private static int getJournalSize() {
+            final String journalSize = SecurityActions.getSystemProperty(ServerEnvironment.SERVER_CONFIG_JOURNAL_SIZE);
+            if (journalSize == null) {
+                return 0;
+            }
+            int size = 0;
+            try {
+                size = Integer.parseInt(journalSize.trim());
+            } catch (NumberFormatException e) {
+                // handled below
+            }
+            if (size < 1) {
+                log.warnf("Ignoring invalid value '%s' of system property %s", journalSize, ServerEnvironment.SERVER_CONFIG_JOURNAL_SIZE);
+                return 0;
+            }
+            return size;
+        }
+
+        /**
+         * Get the configured persist delay, logging and ignoring an invalid value.
+         *
+         * @return the delay in milliseconds, or -1 if changes are to be written synchronously
+         */
+        private static long getPersistDelay() {
+            final String delay = SecurityActions.getSystemProperty(ServerEnvironment.SERVER_CONFIG_PERSIST_DELAY);
+            if (delay == null) {
+                return -1;
+            }
+            long value = -1;
+            try {
+                value = Long.parseLong(delay.trim());
+            } catch (NumberFormatException e) {
+                // handled below
+            }
+            if (value < 0) {
+                log.warnf("Ignoring invalid value '%s' of system property %s", delay, ServerEnvironment.SERVER_CONFIG_PERSIST_DELAY);
+            }
+            return value;
+        }
+
         /**
          * Set the configuration persister to use.
          *
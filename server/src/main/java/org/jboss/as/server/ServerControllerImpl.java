@@ -70,6 +70,7 @@ import org.jboss.as.controller.operations.common.SchemaLocationAddHandler;
 import org.jboss.as.controller.operations.common.SchemaLocationRemoveHandler;
 import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
 import org.jboss.as.controller.operations.global.WriteAttributeHandlers.StringLengthValidatingHandler;
+import org.jboss.as.controller.persistence.AsyncConfigurationPersister;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
@@ -77,6 +78,7 @@ import org.jboss.as.server.controller.descriptions.ServerDescriptionProviders;
 import org.jboss.as.server.deployment.DeploymentAddHandler;
 import org.jboss.as.server.deployment.DeploymentDeployHandler;
 import org.jboss.as.server.deployment.DeploymentFullReplaceHandler;
+import org.jboss.as.server.deployment.DeploymentProcessorTimesHandler;
 import org.jboss.as.server.deployment.DeploymentRedeployHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
 import org.jboss.as.server.deployment.DeploymentReplaceHandler;
@@ -147,6 +149,14 @@ final class ServerControllerImpl extends BasicModelController implements ServerC
         root.registerOperationHandler(READ_RESOURCE_OPERATION, ServerOperationHandlers.SERVER_READ_RESOURCE_HANDLER, CommonProviders.READ_RESOURCE_PROVIDER, true);
         root.registerOperationHandler(READ_ATTRIBUTE_OPERATION, ServerOperationHandlers.SERVER_READ_ATTRIBUTE_HANDLER, CommonProviders.READ_ATTRIBUTE_PROVIDER, true);
         root.registerOperationHandler(READ_RESOURCE_DESCRIPTION_OPERATION, GlobalOperationHandlers.READ_RESOURCE_DESCRIPTION, CommonProviders.READ_RESOURCE_DESCRIPTION_PROVIDER, true);
+        root.registerMetric("description-cache-size", GlobalOperationHandlers.READ_DESCRIPTION_CACHE_SIZE);
+        if (extensibleConfigurationPersister instanceof AsyncConfigurationPersister) {
+            final AsyncConfigurationPersister persister = (AsyncConfigurationPersister) extensibleConfigurationPersister;
+            for (final String metric : AsyncConfigurationPersister.METRICS) {
+                root.registerMetric(metric, persister.getMetricHandler());
+            }
+        }
+        root.registerMetric(DeploymentProcessorTimesHandler.METRIC, new DeploymentProcessorTimesHandler(serviceRegistry));
         root.registerOperationHandler(READ_CHILDREN_NAMES_OPERATION, GlobalOperationHandlers.READ_CHILDREN_NAMES, CommonProviders.READ_CHILDREN_NAMES_PROVIDER, true);
         root.registerOperationHandler(READ_OPERATION_NAMES_OPERATION, GlobalOperationHandlers.READ_OPERATION_NAMES, CommonProviders.READ_OPERATION_NAMES_PROVIDER, true);
         root.registerOperationHandler(READ_OPERATION_DESCRIPTION_OPERATION, GlobalOperationHandlers.READ_OPERATION_DESCRIPTION, CommonProviders.READ_OPERATION_PROVIDER, true);
@@ -299,10 +309,10 @@ final class ServerControllerImpl extends BasicModelController implements ServerC
 
     /** {@inheritDoc} */
     @Override
-    protected void persistConfiguration(final ModelNode model) {
+    protected void persistConfiguration(final ModelNode model, final ModelNode operation) {
         // do not persist during startup
         if (getState() != State.STARTING) {
-            super.persistConfiguration(model);
+            super.persistConfiguration(model, operation);
         }
     }
 
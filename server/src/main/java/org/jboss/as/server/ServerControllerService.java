@@ -22,10 +22,16 @@
 
 package org.jboss.as.server;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,10 +43,13 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.persistence.AsyncConfigurationPersister;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
+import org.jboss.as.controller.persistence.JournalConfigurationPersister;
 import org.jboss.as.server.ServerControllerImpl.RegisteredProcessor;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeployerChainsService;
+import org.jboss.as.server.deployment.DeploymentMetadataCacheProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -66,6 +75,7 @@ import org.jboss.as.server.deployment.reflect.InstallReflectionIndexProcessor;
 import org.jboss.as.server.deployment.service.ServiceActivatorDependencyProcessor;
 import org.jboss.as.server.deployment.service.ServiceActivatorProcessor;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.jboss.logging.Logger;
 import org.jboss.msc.service.LifecycleContext;
 import org.jboss.msc.service.MultipleRemoveListener;
@@ -196,9 +206,12 @@ final class ServerControllerService implements Service<ServerController> {
 
         // Activate core processors for jar deployment
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_MOUNT, new DeploymentRootMountProcessor()));
+        final DeploymentMetadataCacheProcessor metadataCacheProcessor = new DeploymentMetadataCacheProcessor(new File(serverEnvironment.getServerDataDir(), "deployment-cache"));
+        metadataCacheProcessor.pruneCaches(getDeploymentNames(updates));
+        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_METADATA_CACHE, metadataCacheProcessor));
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_MANIFEST, new ManifestAttachmentProcessor()));
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_SUB_DEPLOYMENT, new SubDeploymentProcessor()));
-        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_ANNOTATION_INDEX, new AnnotationIndexProcessor()));
+        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_ANNOTATION_INDEX, new AnnotationIndexProcessor(new File(serverEnvironment.getServerDataDir(), "annotation-index"))));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_COMPOSITE_ANNOTATION_INDEX, new CompositeIndexProcessor()));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_CLASS_PATH, new ManifestClassPathProcessor()));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_EXTENSION_LIST, new ManifestExtensionListProcessor()));
@@ -224,16 +237,51 @@ final class ServerControllerService implements Service<ServerController> {
             finalDeployers.put(entry.getKey(), list);
         }
 
-        DeployerChainsService.addService(serviceTarget, finalDeployers);
+        final String processorThreads = SecurityActions.getSystemProperty(ServerEnvironment.SERVER_DEPLOYMENT_PROCESSOR_THREADS);
+        int processorThreadCount = -1;
+        if (processorThreads != null) {
+            try {
+                processorThreadCount = Integer.parseInt(processorThreads.trim());
+            } catch (NumberFormatException e) {
+                // handled below
+            }
+            if (processorThreadCount < 0) {
+                log.warnf("Ignoring invalid value '%s' of system property %s", processorThreads, ServerEnvironment.SERVER_DEPLOYMENT_PROCESSOR_THREADS);
+            }
+        }
+        if (processorThreadCount >= 0) {
+            DeployerChainsService.addService(serviceTarget, finalDeployers, processorThreadCount);
+        } else {
+            DeployerChainsService.addService(serviceTarget, finalDeployers);
+        }
 
         this.serverController = serverController;
         bootServices = serviceTarget.getSet();
     }
 
+    private static Set<String> getDeploymentNames(final List<ModelNode> updates) {
+        final Set<String> names = new HashSet<String>();
+        for (ModelNode update : updates) {
+            if (ADD.equals(update.get(OP).asString())) {
+                final List<Property> address = update.get(OP_ADDR).asPropertyList();
+                if (address.size() == 1 && DEPLOYMENT.equals(address.get(0).getName())) {
+                    names.add(address.get(0).getValue().asString());
+                }
+            }
+        }
+        return names;
+    }
+
     /** {@inheritDoc} */
     @Override
     public synchronized void stop(final StopContext context) {
         serverController = null;
+        final ExtensibleConfigurationPersister persister = configuration.getConfigurationPersister();
+        if (persister instanceof AsyncConfigurationPersister) {
+            ((AsyncConfigurationPersister) persister).shutdown();
+        } else if (persister instanceof JournalConfigurationPersister) {
+            ((JournalConfigurationPersister) persister).close();
+        }
         final ServiceContainer container = context.getController().getServiceContainer();
         final Set<ServiceName> bootServices = this.bootServices;
         context.asynchronous();
@@ -146,6 +146,34 @@ public class ServerEnvironment implements Serializable {
      */
     public static final String QUALIFIED_HOST_NAME = "jboss.qualified.host.name";
 
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * maximum time, in milliseconds, a configuration change may wait before
+     * it is written to the configuration file.  Changes made within this
+     * window are written together on a background thread.
+     *
+     * <p>If not set, each change is written synchronously.
+     */
+    public static final String SERVER_CONFIG_PERSIST_DELAY = "jboss.server.config.persist.delay";
+
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * number of configuration changes which are appended to a journal next to
+     * the configuration file before the configuration file is rewritten.
+     *
+     * <p>If not set, the configuration file is rewritten for each change.
+     */
+    public static final String SERVER_CONFIG_JOURNAL_SIZE = "jboss.server.config.journal.size";
+
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * number of threads which run parallel deployment unit processors.
+     * A value less than 2 runs every processor on the thread of its phase.
+     *
+     * <p>If not set, the number of available processors is used.
+     */
+    public static final String SERVER_DEPLOYMENT_PROCESSOR_THREADS = "jboss.server.deployment.processor.threads";
+
     private final String qualifiedHostName;
     private final String hostName;
     private final String serverName;
@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment;
 
+import java.util.concurrent.Executor;
 import java.util.jar.Manifest;
 
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
@@ -51,6 +52,12 @@ public final class Attachments {
      */
     public static final AttachmentKey<AttachmentList<ServiceName>> NEXT_PHASE_DEPS = AttachmentKey.createList(ServiceName.class);
 
+    /**
+     * The executor which runs parallel deployment processors.  It is attached to the phase context, where processors
+     * may use it to split up their own work; it is not present if all processors are run on the phase's thread.
+     */
+    public static final AttachmentKey<Executor> PROCESSOR_EXECUTOR = AttachmentKey.create(Executor.class);
+
 
     /**
      * The deployments runtime name
@@ -62,6 +69,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
 
+    /**
+     * The cache of metadata derived from the content of the deployment unit.  Not present if there is no cache.
+     */
+    public static final AttachmentKey<DeploymentMetadataCache> DEPLOYMENT_METADATA_CACHE = AttachmentKey.create(DeploymentMetadataCache.class);
+
 
     //
     // STRUCTURE
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Helpers for the on-disk caches kept by deployment processors.
+ */
+public final class CacheFiles {
+
+    private CacheFiles() {
+    }
+
+    /**
+     * Writes the content of a cache file.
+     */
+    public interface ContentWriter {
+
+        /**
+         * Write the content.
+         *
+         * @param outputStream the stream to write to, which is closed by the caller
+         * @throws IOException if the content cannot be written
+         */
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Write a cache file, creating its directory if needed.  The content is written to a temporary file first and
+     * then renamed, so a concurrent reader never sees a partial file.
+     *
+     * @param file the file
+     * @param writer the writer of the content
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final File file, final ContentWriter writer) throws IOException {
+        final File directory = file.getParentFile();
+        if (! directory.isDirectory() && ! directory.mkdirs() && ! directory.isDirectory()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        final File temp = File.createTempFile("entry", ".tmp", directory);
+        try {
+            final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(temp));
+            try {
+                writer.write(outputStream);
+            } finally {
+                outputStream.close();
+            }
+            if (! temp.renameTo(file)) {
+                // some platforms cannot rename over an existing file
+                file.delete();
+                if (! temp.renameTo(file)) {
+                    throw new IOException("Cannot rename " + temp + " to " + file);
+                }
+            }
+        } finally {
+            temp.delete();
+        }
+    }
+}
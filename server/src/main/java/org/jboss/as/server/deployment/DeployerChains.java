@@ -24,6 +24,13 @@ package org.jboss.as.server.deployment;
 
 import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
 
 /**
  * The deployer chains service value object.
@@ -32,12 +39,77 @@ import java.util.List;
  */
 final class DeployerChains {
     private final EnumMap<Phase, List<DeploymentUnitProcessor>> phases;
+    private final Executor executor;
+    private final ConcurrentMap<String, ProcessorTime> processorTimes = new ConcurrentHashMap<String, ProcessorTime>();
 
-    DeployerChains(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases) {
+    DeployerChains(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases, final Executor executor) {
         this.phases = phases;
+        this.executor = executor;
     }
 
     List<DeploymentUnitProcessor> getChain(Phase phase) {
         return phases.get(phase);
     }
+
+    /**
+     * Get the executor which runs {@link ParallelDeploymentUnitProcessor}s.
+     *
+     * @return the executor, or {@code null} if all processors are run on the phase's thread
+     */
+    Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Record the time taken by one run of a processor.
+     *
+     * @param processor the processor
+     * @param nanos the time taken, in nanoseconds
+     */
+    void recordTime(final DeploymentUnitProcessor processor, final long nanos) {
+        final String name = processor.getClass().getName();
+        ProcessorTime time = processorTimes.get(name);
+        if (time == null) {
+            final ProcessorTime existing = processorTimes.putIfAbsent(name, time = new ProcessorTime());
+            if (existing != null) {
+                time = existing;
+            }
+        }
+        time.record(nanos);
+    }
+
+    /**
+     * Get the times taken by the processors so far, keyed by processor class name.
+     *
+     * @return the number of runs and the total and longest time in milliseconds of each processor
+     */
+    ModelNode getProcessorTimes() {
+        final ModelNode result = new ModelNode();
+        result.setEmptyObject();
+        for (Map.Entry<String, ProcessorTime> entry : processorTimes.entrySet()) {
+            final ProcessorTime time = entry.getValue();
+            final ModelNode node = result.get(entry.getKey());
+            synchronized (time) {
+                node.get("count").set(time.count);
+                node.get("total-time").set(TimeUnit.NANOSECONDS.toMillis(time.total));
+                node.get("max-time").set(TimeUnit.NANOSECONDS.toMillis(time.max));
+            }
+        }
+        return result;
+    }
+
+    private static final class ProcessorTime {
+        // all protected by this
+        private long count;
+        private long total;
+        private long max;
+
+        synchronized void record(final long nanos) {
+            count++;
+            total += nanos;
+            if (nanos > max) {
+                max = nanos;
+            }
+        }
+    }
 }
@@ -19,11 +19,17 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-
 package org.jboss.as.server.deployment;
 
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
@@ -31,30 +37,69 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 
 /**
- * Service wrapper for {@link org.jboss.as.server.deployment.DeployerChains}.
+ * Service wrapper for {@link org.jboss.as.server.deployment.DeployerChains}.  The service also owns the executor
+ * which runs {@link ParallelDeploymentUnitProcessor}s.
  *
  * @author John Bailey
  */
 public class DeployerChainsService implements Service<DeployerChains> {
-    private final DeployerChains deployerChains;
+    private final EnumMap<Phase, List<DeploymentUnitProcessor>> phases;
+    private final int processorThreads;
+    private ThreadPoolExecutor executor;
+    private DeployerChains deployerChains;
 
     public static void addService(final ServiceTarget serviceTarget, final EnumMap<Phase, List<DeploymentUnitProcessor>> phases) {
-        final DeployerChains deployerChains = new DeployerChains(phases);
-        serviceTarget.addService(Services.JBOSS_DEPLOYMENT_CHAINS, new DeployerChainsService(deployerChains))
+        addService(serviceTarget, phases, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Add the deployer chains service.
+     *
+     * @param serviceTarget the service target
+     * @param phases the processors of each phase
+     * @param processorThreads the maximum number of threads running parallel processors; a value less than 2 runs
+     *                         all processors on the phase's thread
+     */
+    public static void addService(final ServiceTarget serviceTarget, final EnumMap<Phase, List<DeploymentUnitProcessor>> phases, final int processorThreads) {
+        serviceTarget.addService(Services.JBOSS_DEPLOYMENT_CHAINS, new DeployerChainsService(phases, processorThreads))
             .install();
     }
 
-    public DeployerChainsService(DeployerChains deployerChains) {
-        this.deployerChains = deployerChains;
+    public DeployerChainsService(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases, final int processorThreads) {
+        this.phases = phases;
+        this.processorThreads = processorThreads;
     }
 
-    public void start(StartContext context) throws StartException {
+    public synchronized void start(StartContext context) throws StartException {
+        if (processorThreads > 1) {
+            final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+            final AtomicInteger count = new AtomicInteger();
+            executor = new ThreadPoolExecutor(processorThreads, processorThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                public Thread newThread(final Runnable r) {
+                    final Thread thread = threadFactory.newThread(r);
+                    thread.setName("Deployment Processor " + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        deployerChains = new DeployerChains(phases, executor);
     }
 
-    public void stop(StopContext context) {
+    public synchronized void stop(StopContext context) {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        deployerChains = null;
     }
 
-    public DeployerChains getValue() throws IllegalStateException, IllegalArgumentException {
+    public synchronized DeployerChains getValue() throws IllegalStateException, IllegalArgumentException {
+        final DeployerChains deployerChains = this.deployerChains;
+        if (deployerChains == null) {
+            throw new IllegalStateException("Service not started");
+        }
         return deployerChains;
     }
 }
@@ -0,0 +1,244 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A store for metadata derived only from the content of a deployment unit, such as parsed descriptors, which lets
+ * the metadata be reused when the same content is deployed again, for example after a restart.  The cache of a
+ * deployment is discarded whenever its content or the server version changes, so processors only need to make sure
+ * that what they store depends on nothing but the content.
+ * <p>
+ * Values are stored using Java serialization, and each {@link #get(String, Class)} returns a new copy.  Failures to
+ * read or write the cache are never fatal; the caller simply computes the value again.
+ * </p>
+ */
+public final class DeploymentMetadataCache {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    private static final String SUFFIX = ".ser";
+
+    private final File directory;
+
+    DeploymentMetadataCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get the cache of a sub-deployment, whose content is part of the content of this deployment.
+     *
+     * @param name the name of the sub-deployment
+     * @return the cache
+     */
+    DeploymentMetadataCache getSubDeploymentCache(final String name) {
+        return new DeploymentMetadataCache(new File(directory, toFileName(name)));
+    }
+
+    /**
+     * Get a cached value.
+     *
+     * @param name the name of the value
+     * @param type the type of the value, whose class loader is used to load the stored classes
+     * @param <T> the type of the value
+     * @return a copy of the value, or {@code null} if it is not cached
+     */
+    public <T extends Serializable> T get(final String name, final Class<T> type) {
+        return get(name, type, type.getClassLoader());
+    }
+
+    /**
+     * Get a cached value whose classes are not all visible to the class loader of its type, such as a collection.
+     *
+     * @param name the name of the value
+     * @param type the type of the value
+     * @param classLoader the class loader used to load the stored classes
+     * @param <T> the type of the value
+     * @return a copy of the value, or {@code null} if it is not cached
+     */
+    public <T extends Serializable> T get(final String name, final Class<T> type, final ClassLoader classLoader) {
+        final File file = new File(directory, toFileName(name) + SUFFIX);
+        if (! file.exists()) {
+            return null;
+        }
+        ObjectInputStream inputStream = null;
+        try {
+            inputStream = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file))) {
+                protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                    if (classLoader != null) {
+                        try {
+                            return Class.forName(desc.getName(), false, classLoader);
+                        } catch (ClassNotFoundException ignored) {
+                        }
+                    }
+                    return super.resolveClass(desc);
+                }
+            };
+            final Object value = inputStream.readObject();
+            return type.isInstance(value) ? type.cast(value) : null;
+        } catch (Exception e) {
+            log.debugf(e, "Ignoring unreadable deployment metadata cache entry %s", file);
+            return null;
+        } finally {
+            safeClose(inputStream);
+        }
+    }
+
+    /**
+     * Store a value.  The value is written immediately, so later changes to it are not stored.
+     *
+     * @param name the name of the value
+     * @param value the value
+     */
+    public void put(final String name, final Serializable value) {
+        final File file = new File(directory, toFileName(name) + SUFFIX);
+        try {
+            CacheFiles.write(file, new CacheFiles.ContentWriter() {
+                public void write(final OutputStream outputStream) throws IOException {
+                    final ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+                    objectOutputStream.writeObject(value);
+                    objectOutputStream.flush();
+                }
+            });
+        } catch (IOException e) {
+            log.debugf(e, "Failed to store deployment metadata cache entry %s", file);
+        }
+    }
+
+    /**
+     * Open the cache of a top level deployment, discarding it if it was stored for different content.
+     *
+     * @param cacheRoot the directory holding the caches of all deployments
+     * @param name the name of the deployment
+     * @param key the key identifying the content and the server version
+     * @return the cache
+     */
+    static DeploymentMetadataCache open(final File cacheRoot, final String name, final String key) {
+        final File directory = new File(cacheRoot, toFileName(name));
+        final File keyFile = new File(directory, ".key");
+        if (! key.equals(readKey(keyFile))) {
+            deleteRecursively(directory);
+            directory.mkdirs();
+            FileOutputStream outputStream = null;
+            try {
+                outputStream = new FileOutputStream(keyFile);
+                outputStream.write(key.getBytes("UTF-8"));
+            } catch (IOException e) {
+                log.debugf(e, "Failed to write deployment metadata cache key %s", keyFile);
+            } finally {
+                safeClose(outputStream);
+            }
+        }
+        return new DeploymentMetadataCache(directory);
+    }
+
+    /**
+     * Delete the caches of deployments which no longer exist, such as removed or renamed ones.
+     *
+     * @param cacheRoot the directory holding the caches of all deployments
+     * @param names the names of the existing deployments
+     */
+    static void prune(final File cacheRoot, final Collection<String> names) {
+        final File[] directories = cacheRoot.listFiles();
+        if (directories == null) {
+            return;
+        }
+        final Set<String> fileNames = new HashSet<String>();
+        for (String name : names) {
+            fileNames.add(toFileName(name));
+        }
+        for (File directory : directories) {
+            if (! fileNames.contains(directory.getName())) {
+                log.debugf("Deleting deployment metadata cache %s", directory);
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    private static String readKey(final File keyFile) {
+        if (! keyFile.exists()) {
+            return null;
+        }
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(keyFile);
+            final byte[] bytes = new byte[(int) keyFile.length()];
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = inputStream.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+            return new String(bytes, 0, offset, "UTF-8");
+        } catch (IOException e) {
+            return null;
+        } finally {
+            safeClose(inputStream);
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static String toFileName(final String name) {
+        final StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            // no leading dot, so a name can never refer to a parent directory or clash with the key file
+            builder.append(Character.isLetterOrDigit(c) || c == '.' && i > 0 || c == '-' || c == '_' ? c : '_');
+        }
+        return builder.toString();
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.version.Version;
+
+/**
+ * Deployment unit processor which attaches the {@link DeploymentMetadataCache} of a deployment unit.  The cache of a
+ * top level deployment is keyed by its content hash and the server version; sub-deployments use part of the cache of
+ * their parent.
+ */
+public class DeploymentMetadataCacheProcessor implements DeploymentUnitProcessor {
+
+    private final File cacheRoot;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param cacheRoot the directory holding the caches of all deployments
+     */
+    public DeploymentMetadataCacheProcessor(final File cacheRoot) {
+        this.cacheRoot = cacheRoot;
+    }
+
+    /**
+     * Delete the caches of deployments which are not part of the configuration any more.
+     *
+     * @param deploymentNames the names of the configured deployments
+     */
+    public void pruneCaches(final Collection<String> deploymentNames) {
+        DeploymentMetadataCache.prune(cacheRoot, deploymentNames);
+    }
+
+    public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        final DeploymentUnit parent = deploymentUnit.getParent();
+        final DeploymentMetadataCache cache;
+        if (parent != null) {
+            final DeploymentMetadataCache parentCache = parent.getAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
+            if (parentCache == null) {
+                return;
+            }
+            cache = parentCache.getSubDeploymentCache(deploymentUnit.getName());
+        } else {
+            final byte[] deploymentHash = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_HASH);
+            if (deploymentHash == null) {
+                return;
+            }
+            final String key = Version.AS_VERSION + " " + HashUtil.bytesToHexString(deploymentHash);
+            cache = DeploymentMetadataCache.open(cacheRoot, deploymentUnit.getName(), key);
+        }
+        deploymentUnit.putAttachment(Attachments.DEPLOYMENT_METADATA_CACHE, cache);
+    }
+
+    public void undeploy(final DeploymentUnit deploymentUnit) {
+        deploymentUnit.removeAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
+    }
+}
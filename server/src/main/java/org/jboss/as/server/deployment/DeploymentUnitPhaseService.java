@@ -22,10 +22,16 @@
 
 package org.jboss.as.server.deployment;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.jboss.logging.Logger;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.DelegatingServiceRegistry;
@@ -75,37 +81,60 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = deploymentUnitInjector.getValue();
         final List<DeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<DeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
         final TrackingServiceTarget serviceTarget = new TrackingServiceTarget(container.subTarget());
         final DeploymentPhaseContext processorContext = new DeploymentPhaseContextImpl(serviceTarget, new DelegatingServiceRegistry(container), deploymentUnit, phase);
-        while (iterator.hasNext()) {
-            final DeploymentUnitProcessor processor = iterator.next();
-            try {
-                processor.deploy(processorContext);
-            } catch (Throwable e) {
-                // Asynchronously remove all services
-                context.asynchronous();
-                final StartException cause = new StartException(String.format("Failed to process phase %s of %s", phase, deploymentUnit), e);
-                while (iterator.hasPrevious()) {
-                    final DeploymentUnitProcessor prev = iterator.previous();
-                    safeUndeploy(deploymentUnit, phase, prev);
-                }
-                final MultipleRemoveListener<Throwable> listener = MultipleRemoveListener.create(new MultipleRemoveListener.Callback<Throwable>() {
-                    public void handleDone(final Throwable parameter) {
-                        context.failed(cause);
+        final Executor executor = chains.getExecutor();
+        if (executor != null) {
+            processorContext.putAttachment(Attachments.PROCESSOR_EXECUTOR, executor);
+        }
+        final int size = list.size();
+        final long[] times = new long[size];
+        final Throwable[] failures = new Throwable[size];
+        final long start = System.nanoTime();
+        int next = 0;
+        while (next < size) {
+            final int end = executor == null ? next + 1 : parallelBatchEnd(list, next);
+            runProcessors(executor, list, next, end, processorContext, times, failures);
+            for (int i = next; i < end; i++) {
+                chains.recordTime(list.get(i), times[i]);
+            }
+            for (int i = next; i < end; i++) {
+                if (failures[i] != null) {
+                    // Asynchronously remove all services
+                    context.asynchronous();
+                    final StartException cause = new StartException(String.format("Failed to process phase %s of %s", phase, deploymentUnit), failures[i]);
+                    // every processor of the batch has run, so all of them are undone, then the earlier ones
+                    for (int j = end - 1; j >= 0; j--) {
+                        safeUndeploy(deploymentUnit, phase, list.get(j));
                     }
-                }, cause);
-                for (ServiceName serviceName : serviceTarget.getSet()) {
-                    final ServiceController<?> controller = container.getService(serviceName);
-                    if (controller != null) {
-                        controller.setMode(ServiceController.Mode.REMOVE);
-                        controller.addListener(listener);
+                    final MultipleRemoveListener<Throwable> listener = MultipleRemoveListener.create(new MultipleRemoveListener.Callback<Throwable>() {
+                        public void handleDone(final Throwable parameter) {
+                            context.failed(cause);
+                        }
+                    }, cause);
+                    for (ServiceName serviceName : serviceTarget.getSet()) {
+                        final ServiceController<?> controller = container.getService(serviceName);
+                        if (controller != null) {
+                            controller.setMode(ServiceController.Mode.REMOVE);
+                            controller.addListener(listener);
+                        }
                     }
+                    listener.done();
+                    return;
+                }
+            }
+            next = end;
+        }
+        if (log.isDebugEnabled()) {
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    builder.append(", ");
                 }
-                listener.done();
-                return;
+                builder.append(list.get(i).getClass().getSimpleName()).append('=').append(TimeUnit.NANOSECONDS.toMillis(times[i]));
             }
+            log.debugf("Processed phase %s of %s in %d ms (processor times in ms: %s)", phase, deploymentUnit, Long.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)), builder);
         }
         final Phase nextPhase = phase.next();
         if (nextPhase != null) {
@@ -150,6 +179,72 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         listener.done();
     }
 
+    /**
+     * Get the end of the run of parallel processors starting at the given index.
+     */
+    private static int parallelBatchEnd(final List<DeploymentUnitProcessor> list, final int start) {
+        int end = start + 1;
+        if (list.get(start) instanceof ParallelDeploymentUnitProcessor) {
+            while (end < list.size() && list.get(end) instanceof ParallelDeploymentUnitProcessor) {
+                end++;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Run the processors from {@code start} to {@code end}, the first on this thread and the others on the executor,
+     * and wait for all of them to complete.  The time taken by each processor and any failure are stored at its index.
+     */
+    private static void runProcessors(final Executor executor, final List<DeploymentUnitProcessor> list, final int start, final int end, final DeploymentPhaseContext processorContext, final long[] times, final Throwable[] failures) {
+        final List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(end - start - 1);
+        for (int i = start + 1; i < end; i++) {
+            final int index = i;
+            final FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+                public void run() {
+                    runProcessor(list.get(index), processorContext, times, failures, index);
+                }
+            }, null);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // the executor is shutting down; run it here instead
+                task.run();
+            }
+            tasks.add(task);
+        }
+        runProcessor(list.get(start), processorContext, times, failures, start);
+        boolean intr = false;
+        try {
+            for (FutureTask<Void> task : tasks) {
+                for (;;) try {
+                    task.get();
+                    break;
+                } catch (InterruptedException e) {
+                    intr = true;
+                } catch (ExecutionException e) {
+                    // runProcessor() catches everything
+                    break;
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void runProcessor(final DeploymentUnitProcessor processor, final DeploymentPhaseContext processorContext, final long[] times, final Throwable[] failures, final int index) {
+        final long start = System.nanoTime();
+        try {
+            processor.deploy(processorContext);
+        } catch (Throwable e) {
+            failures[index] = e;
+        } finally {
+            times[index] = System.nanoTime() - start;
+        }
+    }
+
     private static void safeUndeploy(final DeploymentUnit deploymentUnit, final Phase phase, final DeploymentUnitProcessor prev) {
         try {
             prev.undeploy(deploymentUnit);
@@ -0,0 +1,38 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+/**
+ * A deployment processor which may be run at the same time as the parallel processors next to it in its phase's
+ * chain.  Consecutive parallel processors are run concurrently on the deployment processor executor, and the phase
+ * continues once all of them have completed.
+ * <p>
+ * An implementation must therefore not depend on anything done by the other parallel processors around it: it may
+ * only read attachments produced by earlier phases or by the non-parallel processors before it, it must use its own
+ * attachment keys (or {@link Attachable#addToAttachmentList(AttachmentKey, Object)}) for what it produces, and it must
+ * not install services.  It may also fill in a field of an object attached earlier, as the web descriptor parsers do
+ * with the {@code WarMetaData}, provided no other processor in the batch touches that field.  Its {@code deploy()}
+ * method may be called from a thread other than the one running the phase.
+ */
+public interface ParallelDeploymentUnitProcessor extends DeploymentUnitProcessor {
+}
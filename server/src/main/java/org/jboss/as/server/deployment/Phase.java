@@ -176,6 +176,7 @@ public enum Phase {
 
     // STRUCTURE
     public static final int STRUCTURE_MOUNT                             = 0x0000;
+    public static final int STRUCTURE_METADATA_CACHE                    = 0x0080;
     public static final int STRUCTURE_MANIFEST                          = 0x0100;
     public static final int STRUCTURE_OSGI_MANIFEST                     = 0x0200;
     public static final int STRUCTURE_RAR                               = 0x0300;
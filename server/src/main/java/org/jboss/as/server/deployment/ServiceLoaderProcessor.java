@@ -41,7 +41,7 @@ import org.jboss.vfs.VirtualFile;
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-public final class ServiceLoaderProcessor implements DeploymentUnitProcessor {
+public final class ServiceLoaderProcessor implements ParallelDeploymentUnitProcessor {
 
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment.service-loader");
 
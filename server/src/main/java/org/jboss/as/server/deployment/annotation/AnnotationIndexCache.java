@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.jboss.as.server.deployment.CacheFiles;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.logging.Logger;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * A directory of annotation indexes, stored in the Jandex index format and named after a hash of the content they
+ * index.  Entries are touched when used; once there are more than the maximum number, the least recently used are
+ * removed.
+ */
+final class AnnotationIndexCache {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    private static final String SUFFIX = ".idx";
+
+    private static final FileFilter INDEX_FILTER = new FileFilter() {
+        public boolean accept(final File file) {
+            return file.getName().endsWith(SUFFIX);
+        }
+    };
+
+    private static final Comparator<File> LAST_MODIFIED = new Comparator<File>() {
+        public int compare(final File o1, final File o2) {
+            final long m1 = o1.lastModified();
+            final long m2 = o2.lastModified();
+            return m1 < m2 ? -1 : m1 == m2 ? 0 : 1;
+        }
+    };
+
+    private final File directory;
+    private final int maxEntries;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param directory the directory holding the indexes, created when first needed
+     * @param maxEntries the maximum number of indexes to keep
+     */
+    AnnotationIndexCache(final File directory, final int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the index stored for a content hash.
+     *
+     * @param key the hex encoded content hash
+     * @return the index, or {@code null} if none is stored or it cannot be read
+     */
+    Index get(final String key) {
+        final File file = new File(directory, key + SUFFIX);
+        if (! file.exists()) {
+            return null;
+        }
+        InputStream inputStream = null;
+        try {
+            inputStream = new BufferedInputStream(new FileInputStream(file));
+            final Index index = new IndexReader(inputStream).read();
+            file.setLastModified(System.currentTimeMillis());
+            return index;
+        } catch (IOException e) {
+            // rebuilt and replaced by the caller
+            log.debugf(e, "Ignoring unreadable annotation index %s", file);
+            return null;
+        } finally {
+            VFSUtils.safeClose(inputStream);
+        }
+    }
+
+    /**
+     * Store the index for a content hash.  Failures are logged, since the index can always be rebuilt.
+     *
+     * @param key the hex encoded content hash
+     * @param index the index
+     */
+    void put(final String key, final Index index) {
+        final File file = new File(directory, key + SUFFIX);
+        try {
+            CacheFiles.write(file, new CacheFiles.ContentWriter() {
+                public void write(final OutputStream outputStream) throws IOException {
+                    new IndexWriter(outputStream).write(index);
+                }
+            });
+        } catch (IOException e) {
+            log.warnf(e, "Failed to store annotation index %s", file);
+        }
+        prune();
+    }
+
+    private synchronized void prune() {
+        final File[] files = directory.listFiles(INDEX_FILTER);
+        if (files == null || files.length <= maxEntries) {
+            return;
+        }
+        Arrays.sort(files, LAST_MODIFIED);
+        // remove a quarter more than needed, so this is not repeated for every new index
+        final int remove = files.length - maxEntries + maxEntries / 4;
+        for (int i = 0; i < remove && i < files.length; i++) {
+            files[i].delete();
+        }
+    }
+}
@@ -22,12 +22,24 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -36,6 +48,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.Indexer;
+import org.jboss.logging.Logger;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
@@ -43,13 +56,37 @@ import org.jboss.vfs.VisitorAttributes;
 import org.jboss.vfs.util.SuffixMatchFilter;
 
 /**
- * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * Deployment unit processor responsible for creating and attaching an annotation index for a resource root.  Resource
+ * roots are indexed in parallel when a processor executor is available.  If a cache directory is given, the index of
+ * each archive is stored there under the hash of the archive's content, so unchanged archives are only indexed once.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    private static final int MAX_CACHED_INDEXES = 1000;
+
+    private final AnnotationIndexCache cache;
+
+    /**
+     * Construct a new instance which does not cache indexes.
+     */
+    public AnnotationIndexProcessor() {
+        cache = null;
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param cacheDir the directory in which to cache indexes, or {@code null} to not cache them
+     */
+    public AnnotationIndexProcessor(final File cacheDir) {
+        cache = cacheDir == null ? null : new AnnotationIndexCache(cacheDir, MAX_CACHED_INDEXES);
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -59,13 +96,18 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      *
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         final List<ResourceRoot> allResourceRoots = new ArrayList<ResourceRoot>();
-        final List<ResourceRoot> resourceRoots = phaseContext.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS);
+        final List<ResourceRoot> resourceRoots = deploymentUnit.getAttachment(Attachments.RESOURCE_ROOTS);
         if (resourceRoots != null) {
             allResourceRoots.addAll(resourceRoots);
         }
-        allResourceRoots.add(phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT));
-        for (ResourceRoot resourceRoot : allResourceRoots) {
+        final ResourceRoot deploymentRoot = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        allResourceRoots.add(deploymentRoot);
+        final byte[] deploymentHash = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_HASH);
+
+        final List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(allResourceRoots.size());
+        for (final ResourceRoot resourceRoot : allResourceRoots) {
             if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
                 continue;
             }
@@ -82,34 +124,132 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             } else {
                 indexIgnorePaths = null;
             }
+            final byte[] contentHash = resourceRoot == deploymentRoot ? deploymentHash : null;
+            tasks.add(new FutureTask<Void>(new Callable<Void>() {
+                public Void call() throws Exception {
+                    resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, getIndex(resourceRoot, contentHash, indexIgnorePaths));
+                    return null;
+                }
+            }));
+        }
 
-            final VirtualFile virtualFile = resourceRoot.getRoot();
-            final Indexer indexer = new Indexer();
+        final Executor executor = phaseContext.getAttachment(Attachments.PROCESSOR_EXECUTOR);
+        if (executor != null && tasks.size() > 1) {
+            for (FutureTask<Void> task : tasks) {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // run below
+                    break;
+                }
+            }
+        }
+        boolean intr = false;
+        try {
+            for (FutureTask<Void> task : tasks) {
+                // runs the task here unless the executor already started it
+                task.run();
+                for (;;) try {
+                    task.get();
+                    break;
+                } catch (InterruptedException e) {
+                    intr = true;
+                } catch (ExecutionException e) {
+                    throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", e.getCause());
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Index getIndex(final ResourceRoot resourceRoot, final byte[] contentHash, final Set<String> indexIgnorePaths) throws IOException {
+        final String key = cache == null ? null : getCacheKey(resourceRoot, contentHash, indexIgnorePaths);
+        if (key != null) {
+            final Index index = cache.get(key);
+            if (index != null) {
+                log.tracef("Using cached annotation index of %s", resourceRoot.getRoot());
+                return index;
+            }
+        }
+        final Index index = createIndex(resourceRoot.getRoot(), indexIgnorePaths);
+        if (key != null) {
+            cache.put(key, index);
+        }
+        return index;
+    }
+
+    private static Index createIndex(final VirtualFile virtualFile, final Set<String> indexIgnorePaths) throws IOException {
+        final Indexer indexer = new Indexer();
+        final VisitorAttributes visitorAttributes = new VisitorAttributes();
+        visitorAttributes.setLeavesOnly(true);
+        visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
+            public boolean accepts(VirtualFile file) {
+                return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+            }
+        });
+
+        final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+        for (VirtualFile classFile : classChildren) {
+            InputStream inputStream = null;
             try {
-                final VisitorAttributes visitorAttributes = new VisitorAttributes();
-                visitorAttributes.setLeavesOnly(true);
-                visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
-                    public boolean accepts(VirtualFile file) {
-                        return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
-                    }
-                });
-
-                final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-                for (VirtualFile classFile : classChildren) {
-                    InputStream inputStream = null;
-                    try {
-                        inputStream = classFile.openStream();
-                        indexer.index(inputStream);
-                    } finally {
-                        VFSUtils.safeClose(inputStream);
-                    }
+                inputStream = classFile.openStream();
+                indexer.index(inputStream);
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        }
+        return indexer.complete();
+    }
+
+    /**
+     * Get the key of the cached index of a resource root: a hash of its content and of the paths ignored while
+     * indexing it.  The content hash of the deployment root is known from the repository; other mounted roots are
+     * archives, which are hashed here.  Plain directories are not cached.
+     *
+     * @return the key, or {@code null} if the index of this root is not cached
+     */
+    private static String getCacheKey(final ResourceRoot resourceRoot, final byte[] contentHash, final Set<String> indexIgnorePaths) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+        if (contentHash != null) {
+            digest.update(contentHash);
+        } else if (resourceRoot.getMountHandle() != null) {
+            InputStream inputStream = null;
+            try {
+                // the stream of a mounted archive's root is the archive itself
+                inputStream = resourceRoot.getRoot().openStream();
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                log.debugf(e, "Cannot hash %s; its annotation index will not be cached", resourceRoot.getRoot());
+                return null;
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        } else {
+            return null;
+        }
+        if (indexIgnorePaths != null) {
+            for (String path : new TreeSet<String>(indexIgnorePaths)) {
+                digest.update((byte) 0);
+                try {
+                    digest.update(path.getBytes("UTF-8"));
+                } catch (UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e);
                 }
-                final Index index = indexer.complete();
-                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-            } catch (Throwable t) {
-                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
             }
         }
+        return HashUtil.bytesToHexString(digest.digest());
     }
 
     public void undeploy(final DeploymentUnit context) {
@@ -28,14 +28,14 @@ import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelDeploymentUnitProcessor;
 
 /**
  * A processor which adds class path entries for each manifest entry.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-public final class ManifestClassPathProcessor implements DeploymentUnitProcessor {
+public final class ManifestClassPathProcessor implements ParallelDeploymentUnitProcessor {
 
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -30,7 +30,7 @@ import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.Services;
 import org.jboss.logging.Logger;
 
@@ -41,7 +41,7 @@ import static java.util.jar.Attributes.Name.*;
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-public final class ManifestExtensionListProcessor implements DeploymentUnitProcessor {
+public final class ManifestExtensionListProcessor implements ParallelDeploymentUnitProcessor {
 
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment.module.extension-list");
 
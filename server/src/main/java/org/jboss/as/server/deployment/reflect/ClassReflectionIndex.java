@@ -30,74 +30,117 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * A short-lived index of all the declared fields and methods of a class.
+ * An index of all the declared fields and methods of a class.
  *
- * The ClassReflectionIndex is only available during the deployment.
+ * Each kind of member is only looked up when first requested.  Methods are kept in one small array per name, which
+ * is searched linearly since overloads are few.  Instances are safe for multi-threaded access, so the index of a
+ * class from a static module can be shared by all deployments; the index of a deployment class is only available
+ * during the deployment.
  *
  * @param <T> the type being indexed
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class ClassReflectionIndex<T> {
     private final Class<T> indexedClass;
-    private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<T>> constructors;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
+    private volatile Map<String, Field> fields;
+    private volatile Constructor<T>[] constructors;
+    private volatile Map<String, Method[]> methods;
 
-    @SuppressWarnings( { "unchecked" })
     ClassReflectionIndex(final Class<T> indexedClass) {
         this.indexedClass = indexedClass;
-        // -- fields --
-        final Field[] declaredFields = indexedClass.getDeclaredFields();
-        final Map<String, Field> fields = new HashMap<String, Field>();
-        for (Field field : declaredFields) {
-            field.setAccessible(true);
-            fields.put(field.getName(), field);
-        }
-        this.fields = fields;
-        // -- methods --
-        final Method[] declaredMethods = indexedClass.getDeclaredMethods();
-        final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
-        for (Method method : declaredMethods) {
-            method.setAccessible(true);
-            addMethod(methods, method);
-        }
-        // add all public methods as well
-        for (Method method : indexedClass.getMethods()) {
-            addMethod(methods, method);
+    }
+
+    private Map<String, Field> fields() {
+        Map<String, Field> fields = this.fields;
+        if (fields == null) {
+            synchronized (this) {
+                fields = this.fields;
+                if (fields == null) {
+                    final Field[] declaredFields = indexedClass.getDeclaredFields();
+                    fields = new HashMap<String, Field>(declaredFields.length * 4 / 3 + 1);
+                    for (Field field : declaredFields) {
+                        field.setAccessible(true);
+                        fields.put(field.getName(), field);
+                    }
+                    this.fields = fields;
+                }
+            }
         }
-        this.methods = methods;
-        // -- constructors --
-        final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
-        final Map<ParamList, Constructor<T>> constructors = new HashMap<ParamList, Constructor<T>>();
-        for (Constructor<T> constructor : declaredConstructors) {
-            constructor.setAccessible(true);
-            constructors.put(createParamList(constructor.getParameterTypes()), constructor);
+        return fields;
+    }
+
+    @SuppressWarnings( { "unchecked" })
+    private Constructor<T>[] constructors() {
+        Constructor<T>[] constructors = this.constructors;
+        if (constructors == null) {
+            synchronized (this) {
+                constructors = this.constructors;
+                if (constructors == null) {
+                    constructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
+                    for (Constructor<T> constructor : constructors) {
+                        constructor.setAccessible(true);
+                    }
+                    this.constructors = constructors;
+                }
+            }
         }
-        this.constructors = constructors;
+        return constructors;
     }
 
-    private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
+    private Map<String, Method[]> methods() {
+        Map<String, Method[]> methods = this.methods;
+        if (methods == null) {
+            synchronized (this) {
+                methods = this.methods;
+                if (methods == null) {
+                    final Map<String, List<Method>> lists = new HashMap<String, List<Method>>();
+                    for (Method method : indexedClass.getDeclaredMethods()) {
+                        method.setAccessible(true);
+                        addMethod(lists, method);
+                    }
+                    // add all public methods as well
+                    for (Method method : indexedClass.getMethods()) {
+                        addMethod(lists, method);
+                    }
+                    methods = new HashMap<String, Method[]>(lists.size() * 4 / 3 + 1);
+                    for (Map.Entry<String, List<Method>> entry : lists.entrySet()) {
+                        final List<Method> list = entry.getValue();
+                        methods.put(entry.getKey(), list.toArray(new Method[list.size()]));
+                    }
+                    this.methods = methods;
+                }
+            }
+        }
+        return methods;
+    }
 
-    private static void addMethod(Map<String, Map<ParamList, Map<Class<?>, Method>>> methods, Method method) {
+    private static void addMethod(final Map<String, List<Method>> methods, final Method method) {
         final String name = method.getName();
-        Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
-            methods.put(name, nameMap = new HashMap<ParamList, Map<Class<?>, Method>>());
+        List<Method> list = methods.get(name);
+        if (list == null) {
+            methods.put(name, list = new ArrayList<Method>(1));
         }
         final Class<?>[] types = method.getParameterTypes();
-        final ParamList list = createParamList(types);
-        Map<Class<?>, Method> paramsMap = nameMap.get(list);
-        if (paramsMap == null) {
-            nameMap.put(list, paramsMap = new HashMap<Class<?>, Method>());
+        final Class<?> returnType = method.getReturnType();
+        for (int i = 0; i < list.size(); i++) {
+            final Method existing = list.get(i);
+            if (existing.getReturnType() == returnType && Arrays.equals(existing.getParameterTypes(), types)) {
+                list.set(i, method);
+                return;
+            }
         }
-        paramsMap.put(method.getReturnType(), method);
+        list.add(method);
     }
 
-    private static ParamList createParamList(final Class<?>[] types) {
-        return types == null || types.length == 0 ? EMPTY : new ParamList(types);
+    private static boolean matches(final Class<?>[] types, final Class<?>[] paramTypes) {
+        if (paramTypes == null || paramTypes.length == 0) {
+            return types.length == 0;
+        }
+        return Arrays.equals(types, paramTypes);
     }
 
     /**
@@ -116,7 +159,7 @@ public final class ClassReflectionIndex<T> {
      * @return the field, or {@code null} if no field of that name exists
      */
     public Field getField(String name) {
-        return fields.get(name);
+        return fields().get(name);
     }
 
     /**
@@ -125,7 +168,7 @@ public final class ClassReflectionIndex<T> {
      * @return The (possibly empty) collection of all declared fields on this object
      */
     public Collection<Field> getFields() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(fields().values());
     }
 
     /**
@@ -137,15 +180,16 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final Method[] named = methods().get(name);
+        if (named == null) {
             return null;
         }
-        final Map<Class<?>, Method> paramsMap = nameMap.get(createParamList(paramTypes));
-        if (paramsMap == null) {
-            return null;
+        for (Method method : named) {
+            if (method.getReturnType() == returnType && matches(method.getParameterTypes(), paramTypes)) {
+                return method;
+            }
         }
-        return paramsMap.get(returnType);
+        return null;
     }
 
     /**
@@ -156,15 +200,20 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final Method[] named = methods().get(name);
+        if (named == null) {
             return Collections.emptySet();
         }
-        final Map<Class<?>, Method> paramsMap = nameMap.get(createParamList(paramTypes));
-        if (paramsMap == null) {
-            return Collections.emptySet();
+        Collection<Method> result = null;
+        for (Method method : named) {
+            if (matches(method.getParameterTypes(), paramTypes)) {
+                if (result == null) {
+                    result = new ArrayList<Method>(1);
+                }
+                result.add(method);
+            }
         }
-        return Collections.unmodifiableCollection(paramsMap.values());
+        return result == null ? Collections.<Method>emptySet() : Collections.unmodifiableCollection(result);
     }
 
     /**
@@ -174,15 +223,11 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final Method[] named = methods().get(name);
+        if (named == null) {
             return Collections.emptySet();
         }
-        final Collection<Method> methods = new ArrayList<Method>();
-        for (Map<Class<?>, Method> map : nameMap.values()) {
-            methods.addAll(map.values());
-        }
-        return methods;
+        return new ArrayList<Method>(Arrays.asList(named));
     }
 
     /**
@@ -192,11 +237,8 @@ public final class ClassReflectionIndex<T> {
      */
     public Collection<Method> getMethods() {
         final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
-            final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
-            for (Map<Class<?>, Method> map : nameMap.values()) {
-                methods.addAll(map.values());
-            }
+        for (Method[] named : methods().values()) {
+            methods.addAll(Arrays.asList(named));
         }
         return methods;
     }
@@ -207,7 +249,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructors
      */
     public Collection<Constructor<T>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(Arrays.asList(constructors()));
     }
 
     /**
@@ -217,32 +259,11 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
-    }
-
-    private static final class ParamList {
-        private final Class<?>[] types;
-        private final int hashCode;
-
-        ParamList(final Class<?>[] types) {
-            this.types = types;
-            hashCode = Arrays.hashCode(types);
-        }
-
-        Class<?>[] getTypes() {
-            return types;
-        }
-
-        public boolean equals(Object other) {
-            return other instanceof ParamList && equals((ParamList)other);
-        }
-
-        public boolean equals(ParamList other) {
-            return this == other || other != null && Arrays.equals(types, other.types);
-        }
-
-        public int hashCode() {
-            return hashCode;
+        for (Constructor<T> constructor : constructors()) {
+            if (matches(constructor.getParameterTypes(), paramTypes)) {
+                return constructor;
+            }
         }
+        return null;
     }
 }
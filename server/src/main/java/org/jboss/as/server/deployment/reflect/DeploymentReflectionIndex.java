@@ -22,16 +22,26 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import java.lang.ref.WeakReference;
 import java.security.Permission;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.jboss.modules.ModuleClassLoader;
 
 /**
- * A reflection index for a deployment.  Not safe for multi-threaded access.
+ * A reflection index for a deployment.  Indexes of classes which come from static modules (or the boot class path)
+ * are shared by every deployment.  An index refers to its class, so the shared cache only holds it weakly; each
+ * deployment index which uses it holds it strongly, so it lives as long as some deployment using it is deployed and
+ * nothing is pinned once the last one is undeployed.  Indexes of deployment classes are only held by this instance.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
+    private static final String DEPLOYMENT_MODULE_PREFIX = "deployment.";
+    private static final Map<Class<?>, WeakReference<ClassReflectionIndex<?>>> sharedClasses = new WeakHashMap<Class<?>, WeakReference<ClassReflectionIndex<?>>>();
+
     private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
 
     DeploymentReflectionIndex() {
@@ -59,11 +69,47 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings( { "unchecked" })
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
-        ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
-        if (index == null) {
-            classes.put(clazz, index = new ClassReflectionIndex<T>(clazz));
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+        synchronized (classes) {
+            ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
+            if (index == null) {
+                index = isShared(clazz) ? getSharedClassIndex(clazz) : new ClassReflectionIndex<T>(clazz);
+                // also keeps a shared index alive for as long as this deployment is
+                classes.put(clazz, index);
+            }
+            return index;
+        }
+    }
+
+    @SuppressWarnings( { "unchecked" })
+    private static <T> ClassReflectionIndex<T> getSharedClassIndex(Class<T> clazz) {
+        synchronized (sharedClasses) {
+            final WeakReference<ClassReflectionIndex<?>> ref = sharedClasses.get(clazz);
+            ClassReflectionIndex<T> index = ref == null ? null : (ClassReflectionIndex<T>) ref.get();
+            if (index == null) {
+                index = new ClassReflectionIndex<T>(clazz);
+                sharedClasses.put(clazz, new WeakReference<ClassReflectionIndex<?>>(index));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Determine whether the index of a class may be shared between deployments.  Only classes of the boot class path
+     * and of static modules qualify; the classes of a deployment module go away when it is undeployed.
+     *
+     * @param clazz the class
+     * @return {@code true} if the index may be shared
+     */
+    private static boolean isShared(final Class<?> clazz) {
+        final ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return true;
+        }
+        if (classLoader instanceof ModuleClassLoader) {
+            final String name = ((ModuleClassLoader) classLoader).getModule().getIdentifier().getName();
+            return ! name.startsWith(DEPLOYMENT_MODULE_PREFIX);
         }
-        return index;
+        return false;
     }
 }
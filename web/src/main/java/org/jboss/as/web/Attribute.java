@@ -45,10 +45,13 @@ enum Attribute {
     FILE_ENCONDING(CommonAttributes.FILE_ENCONDING),
     GENERATE_STRINGS_AS_CHAR_ARRAYS(CommonAttributes.GENERATE_STRINGS_AS_CHAR_ARRAYS),
     JAVA_ENCODING(CommonAttributes.JAVA_ENCODING),
+    KEEP_ALIVE_TIMEOUT(CommonAttributes.KEEP_ALIVE_TIMEOUT),
     KEEP_GENERATED(CommonAttributes.KEEP_GENERATED),
     LISTINGS(CommonAttributes.LISTINGS),
     MAPPED_FILE(CommonAttributes.MAPPED_FILE),
+    MAX_CONNECTIONS(CommonAttributes.MAX_CONNECTIONS),
     MAX_DEPTH(CommonAttributes.MAX_DEPTH),
+    MAX_KEEP_ALIVE_REQUESTS(CommonAttributes.MAX_KEEP_ALIVE_REQUESTS),
     MAX_POST_SIZE(CommonAttributes.MAX_POST_SIZE),
     MODIFIFICATION_TEST_INTERVAL(CommonAttributes.MODIFIFICATION_TEST_INTERVAL),
     MAX_SAVE_POST_SIZE(CommonAttributes.MAX_SAVE_POST_SIZE),
@@ -47,10 +47,13 @@ interface CommonAttributes {
     String GENERATE_STRINGS_AS_CHAR_ARRAYS = "generate-strings-as-char-arrays";
     String JAVA_ENCODING = "java-encoding";
     String JSP_CONFIGURATION = "jsp-configuration";
+    String KEEP_ALIVE_TIMEOUT = "keep-alive-timeout";
     String KEEP_GENERATED = "keep-generated";
     String LISTINGS = "listings";
     String MAPPED_FILE = "mapped-file";
+    String MAX_CONNECTIONS = "max-connections";
     String MAX_DEPTH = "max-depth";
+    String MAX_KEEP_ALIVE_REQUESTS = "max-keep-alive-requests";
     String MAX_POST_SIZE = "max-post-size";
     String MAX_SAVE_POST_SIZE = "max-save-post-size";
     String MIME_MAPPING = "mime-mapping";
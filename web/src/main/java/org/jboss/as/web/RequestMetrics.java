@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Request counters and a latency histogram for a connector or virtual host.  Updates are lock-free; a snapshot taken
+ * while requests complete may be slightly inconsistent between counters, which is fine for monitoring.
+ */
+final class RequestMetrics {
+
+    static final String ACTIVE_REQUESTS = "active-requests";
+    static final String REQUEST_COUNT = "request-count";
+    static final String ERROR_COUNT = "error-count";
+    static final String PROCESSING_TIME = "processing-time";
+    static final String MAX_TIME = "max-time";
+    static final String LATENCY = "latency";
+
+    /** Upper bounds, in milliseconds, of the histogram buckets; the last bucket is unbounded. */
+    private static final long[] BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000 };
+    private static final double[] PERCENTILES = { 0.5, 0.9, 0.99 };
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong processingTime = new AtomicLong();
+    private final AtomicLong maxTime = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+
+    void requestStarted() {
+        active.incrementAndGet();
+    }
+
+    void requestCompleted(final long time, final boolean error) {
+        active.decrementAndGet();
+        requestCount.incrementAndGet();
+        if (error) {
+            errorCount.incrementAndGet();
+        }
+        processingTime.addAndGet(time);
+        long max;
+        while (time > (max = maxTime.get())) {
+            if (maxTime.compareAndSet(max, time)) {
+                break;
+            }
+        }
+        buckets.incrementAndGet(bucket(time));
+    }
+
+    private static int bucket(final long time) {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            if (time <= BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS.length;
+    }
+
+    /**
+     * Get a snapshot of these metrics.
+     *
+     * @return the metrics, with times in milliseconds
+     */
+    ModelNode toModelNode() {
+        final ModelNode node = new ModelNode();
+        node.get(ACTIVE_REQUESTS).set(active.get());
+        node.get(REQUEST_COUNT).set(requestCount.get());
+        node.get(ERROR_COUNT).set(errorCount.get());
+        node.get(PROCESSING_TIME).set(processingTime.get());
+        node.get(MAX_TIME).set(maxTime.get());
+
+        final long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i] = buckets.get(i);
+        }
+        final ModelNode latency = node.get(LATENCY);
+        for (double percentile : PERCENTILES) {
+            latency.get("p" + Math.round(percentile * 100)).set(percentile(counts, total, percentile));
+        }
+        return node;
+    }
+
+    /**
+     * Estimate a percentile as the upper bound of the bucket which holds it.
+     */
+    private long percentile(final long[] counts, final long total, final double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BOUNDS[i];
+            }
+        }
+        return maxTime.get();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.apache.catalina.Host;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+
+/**
+ * Engine valve recording {@link RequestMetrics} for each connector and virtual host.  The time of an asynchronous
+ * request only covers its initial dispatch.
+ */
+final class RequestMetricsValve extends ValveBase {
+
+    private final ConcurrentMap<Connector, RequestMetrics> connectors = new ConcurrentHashMap<Connector, RequestMetrics>();
+    private final ConcurrentMap<String, RequestMetrics> hosts = new ConcurrentHashMap<String, RequestMetrics>();
+
+    /** {@inheritDoc} */
+    public void invoke(final Request request, final Response response) throws IOException, ServletException {
+        final RequestMetrics connectorMetrics = getMetrics(connectors, request.getConnector());
+        final Host host = request.getHost();
+        final RequestMetrics hostMetrics = host == null ? null : getMetrics(hosts, host.getName());
+        connectorMetrics.requestStarted();
+        if (hostMetrics != null) hostMetrics.requestStarted();
+        final long start = System.nanoTime();
+        boolean error = true;
+        try {
+            getNext().invoke(request, response);
+            error = response.isError() || response.getStatus() >= 500;
+        } finally {
+            final long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            connectorMetrics.requestCompleted(time, error);
+            if (hostMetrics != null) hostMetrics.requestCompleted(time, error);
+        }
+    }
+
+    private static <K> RequestMetrics getMetrics(final ConcurrentMap<K, RequestMetrics> map, final K key) {
+        RequestMetrics metrics = map.get(key);
+        if (metrics == null) {
+            final RequestMetrics appearing = map.putIfAbsent(key, metrics = new RequestMetrics());
+            if (appearing != null) {
+                metrics = appearing;
+            }
+        }
+        return metrics;
+    }
+
+    RequestMetrics getConnectorMetrics(final Connector connector) {
+        return getMetrics(connectors, connector);
+    }
+
+    RequestMetrics getHostMetrics(final String name) {
+        return getMetrics(hosts, name);
+    }
+
+    void removeConnector(final Connector connector) {
+        connectors.remove(connector);
+    }
+
+    void removeHost(final String name) {
+        hosts.remove(name);
+    }
+}
@@ -27,6 +27,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 import static org.jboss.as.web.CommonAttributes.ENABLED;
 import static org.jboss.as.web.CommonAttributes.ENABLE_LOOKUPS;
 import static org.jboss.as.web.CommonAttributes.EXECUTOR;
+import static org.jboss.as.web.CommonAttributes.KEEP_ALIVE_TIMEOUT;
+import static org.jboss.as.web.CommonAttributes.MAX_CONNECTIONS;
+import static org.jboss.as.web.CommonAttributes.MAX_KEEP_ALIVE_REQUESTS;
 import static org.jboss.as.web.CommonAttributes.MAX_POST_SIZE;
 import static org.jboss.as.web.CommonAttributes.MAX_SAVE_POST_SIZE;
 import static org.jboss.as.web.CommonAttributes.PROTOCOL;
@@ -37,6 +40,8 @@ import static org.jboss.as.web.CommonAttributes.SCHEME;
 import static org.jboss.as.web.CommonAttributes.SECURE;
 import static org.jboss.as.web.CommonAttributes.SOCKET_BINDING;
 
+import java.util.concurrent.Executor;
+
 import org.jboss.as.controller.Cancellable;
 import org.jboss.as.controller.ModelAddOperationHandler;
 import org.jboss.as.controller.OperationContext;
@@ -46,7 +51,9 @@ import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.server.RuntimeOperationContext;
 import org.jboss.as.server.RuntimeOperationHandler;
 import org.jboss.as.server.services.net.SocketBinding;
+import org.jboss.as.threads.ThreadsServices;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController.Mode;
 
 /**
@@ -72,6 +79,9 @@ class WebConnectorAdd implements ModelAddOperationHandler, RuntimeOperationHandl
         if (existing.hasDefined(REDIRECT_PORT)) op.get(REDIRECT_PORT).set(existing.get(REDIRECT_PORT).asInt());
         if (existing.hasDefined(MAX_POST_SIZE)) op.get(MAX_POST_SIZE).set(existing.get(MAX_POST_SIZE).asInt());
         if (existing.hasDefined(MAX_SAVE_POST_SIZE)) op.get(MAX_SAVE_POST_SIZE).set(existing.get(MAX_SAVE_POST_SIZE).asInt());
+        if (existing.hasDefined(MAX_CONNECTIONS)) op.get(MAX_CONNECTIONS).set(existing.get(MAX_CONNECTIONS).asInt());
+        if (existing.hasDefined(MAX_KEEP_ALIVE_REQUESTS)) op.get(MAX_KEEP_ALIVE_REQUESTS).set(existing.get(MAX_KEEP_ALIVE_REQUESTS).asInt());
+        if (existing.hasDefined(KEEP_ALIVE_TIMEOUT)) op.get(KEEP_ALIVE_TIMEOUT).set(existing.get(KEEP_ALIVE_TIMEOUT).asInt());
 
         return op;
     }
@@ -106,6 +116,9 @@ class WebConnectorAdd implements ModelAddOperationHandler, RuntimeOperationHandl
         if(operation.hasDefined(REDIRECT_PORT)) subModel.get(REDIRECT_PORT).set(operation.get(REDIRECT_PORT).asInt());
         if(operation.hasDefined(MAX_POST_SIZE)) subModel.get(MAX_POST_SIZE).set(operation.get(MAX_POST_SIZE).asInt());
         if(operation.hasDefined(MAX_SAVE_POST_SIZE)) subModel.get(MAX_SAVE_POST_SIZE).set(operation.get(MAX_SAVE_POST_SIZE).asInt());
+        if(operation.hasDefined(MAX_CONNECTIONS)) subModel.get(MAX_CONNECTIONS).set(operation.get(MAX_CONNECTIONS).asInt());
+        if(operation.hasDefined(MAX_KEEP_ALIVE_REQUESTS)) subModel.get(MAX_KEEP_ALIVE_REQUESTS).set(operation.get(MAX_KEEP_ALIVE_REQUESTS).asInt());
+        if(operation.hasDefined(KEEP_ALIVE_TIMEOUT)) subModel.get(KEEP_ALIVE_TIMEOUT).set(operation.get(KEEP_ALIVE_TIMEOUT).asInt());
 
         if(context instanceof RuntimeOperationContext) {
             final RuntimeOperationContext runtimeContext = (RuntimeOperationContext) context;
@@ -119,10 +132,17 @@ class WebConnectorAdd implements ModelAddOperationHandler, RuntimeOperationHandl
             if(operation.hasDefined(REDIRECT_PORT)) service.setRedirectPort(operation.get(REDIRECT_PORT).asInt());
             if(operation.hasDefined(MAX_POST_SIZE)) service.setMaxPostSize(operation.get(MAX_POST_SIZE).asInt());
             if(operation.hasDefined(MAX_SAVE_POST_SIZE)) service.setMaxSavePostSize(operation.get(MAX_SAVE_POST_SIZE).asInt());
-            runtimeContext.getServiceTarget().addService(WebSubsystemServices.JBOSS_WEB_CONNECTOR.append(name), service)
+            if(operation.hasDefined(MAX_CONNECTIONS)) service.setMaxConnections(operation.get(MAX_CONNECTIONS).asInt());
+            if(operation.hasDefined(MAX_KEEP_ALIVE_REQUESTS)) service.setMaxKeepAliveRequests(operation.get(MAX_KEEP_ALIVE_REQUESTS).asInt());
+            if(operation.hasDefined(KEEP_ALIVE_TIMEOUT)) service.setKeepAliveTimeout(operation.get(KEEP_ALIVE_TIMEOUT).asInt());
+            final ServiceBuilder<?> serviceBuilder = runtimeContext.getServiceTarget().addService(WebSubsystemServices.JBOSS_WEB_CONNECTOR.append(name), service)
                 .addDependency(WebSubsystemServices.JBOSS_WEB, WebServer.class, service.getServer())
-                .addDependency(SocketBinding.JBOSS_BINDING_NAME.append(bindingRef), SocketBinding.class, service.getBinding())
-                .setInitialMode(enabled ? Mode.ACTIVE : Mode.NEVER)
+                .addDependency(SocketBinding.JBOSS_BINDING_NAME.append(bindingRef), SocketBinding.class, service.getBinding());
+            if(operation.hasDefined(EXECUTOR)) {
+                // any of the threads subsystem pools (bounded-queue, queueless, ...) can serve the connector
+                serviceBuilder.addDependency(ThreadsServices.executorName(operation.get(EXECUTOR).asString()), Executor.class, service.getExecutor());
+            }
+            serviceBuilder.setInitialMode(enabled ? Mode.ACTIVE : Mode.NEVER)
                 .install();
         }
 
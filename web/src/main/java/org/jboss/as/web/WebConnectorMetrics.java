@@ -25,6 +25,8 @@ package org.jboss.as.web;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
 import javax.management.MBeanException;
@@ -70,9 +72,7 @@ class WebConnectorMetrics implements ModelQueryOperationHandler, RuntimeOperatio
             if(controller != null) {
                 try {
                     final Connector connector = (Connector) controller.getValue();
-                    final int port = connector.getPort();
-                    final ModelNode result = new ModelNode();
-                    result.set("" + getAttribute("http-" + port, attributeName));
+                    final ModelNode result = toModelNode(getAttribute(getProcessorName(connector), attributeName));
                     resultHandler.handleResultFragment(new String[0], result);
                     resultHandler.handleResultComplete(null);
                     return Cancellable.NULL;
@@ -88,6 +88,46 @@ class WebConnectorMetrics implements ModelQueryOperationHandler, RuntimeOperatio
         return Cancellable.NULL;
     }
 
+    /**
+     * Get the name under which the global request processor of a connector is registered.
+     *
+     * @param connector the connector
+     * @return the name
+     */
+    static String getProcessorName(final Connector connector) {
+        final String protocol = connector.getProtocol();
+        final String prefix = protocol != null && protocol.startsWith("AJP") ? "ajp-" : "http-";
+        return prefix + connector.getPort();
+    }
+
+    /**
+     * Read all the request processor {@link #ATTRIBUTES} of a connector in a single call.
+     *
+     * @param connector the connector
+     * @return the attribute values, keyed by attribute name
+     */
+    static ModelNode getAttributes(final Connector connector) throws MalformedObjectNameException, InstanceNotFoundException, ReflectionException {
+        final AttributeList attributes = getMBeanServer().getAttributes(createObjectName(getProcessorName(connector)), ATTRIBUTES);
+        final ModelNode result = new ModelNode();
+        for (Object o : attributes) {
+            final Attribute attribute = (Attribute) o;
+            result.get(attribute.getName()).set(toModelNode(attribute.getValue()));
+        }
+        return result;
+    }
+
+    static ModelNode toModelNode(final Object value) {
+        final ModelNode node = new ModelNode();
+        if (value instanceof Long) {
+            node.set(((Long) value).longValue());
+        } else if (value instanceof Number) {
+            node.set(((Number) value).intValue());
+        } else if (value != null) {
+            node.set(value.toString());
+        }
+        return node;
+    }
+
     static final ObjectName createObjectName(final String name) throws MalformedObjectNameException {
         return new ObjectName(BASE_NAME + name);
     }
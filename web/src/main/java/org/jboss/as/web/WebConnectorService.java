@@ -21,11 +21,17 @@
  */
 package org.jboss.as.web;
 
+import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 import org.apache.catalina.connector.Connector;
+import org.apache.coyote.ProtocolHandler;
 import org.jboss.as.server.services.net.SocketBinding;
+import org.jboss.logging.Logger;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -39,6 +45,25 @@ import org.jboss.msc.value.InjectedValue;
  */
 class WebConnectorService implements Service<Connector> {
 
+    private static final Logger log = Logger.getLogger("org.jboss.web");
+
+    static final String HTTP = "HTTP/1.1";
+    static final String AJP = "AJP/1.3";
+    static final String HTTP_NIO = "org.apache.coyote.http11.Http11NioProtocol";
+    static final String HTTP_APR = "org.apache.coyote.http11.Http11AprProtocol";
+
+    /** Short protocol names accepted in the configuration, mapped to the names understood by the connector. */
+    private static final Map<String, String> PROTOCOLS = new HashMap<String, String>();
+
+    static {
+        PROTOCOLS.put("http", HTTP);
+        PROTOCOLS.put("ajp", AJP);
+        PROTOCOLS.put("nio", HTTP_NIO);
+        PROTOCOLS.put("http-nio", HTTP_NIO);
+        PROTOCOLS.put("apr", HTTP_APR);
+        PROTOCOLS.put("http-apr", HTTP_APR);
+    }
+
     private String protocol = "HTTP/1.1";
     private String scheme = "http";
 
@@ -49,6 +74,9 @@ class WebConnectorService implements Service<Connector> {
     private Boolean secure = null;
     private Integer maxPostSize = null;
     private Integer maxSavePostSize = null;
+    private Integer maxConnections = null;
+    private Integer maxKeepAliveRequests = null;
+    private Integer keepAliveTimeout = null;
 
     private Connector connector;
 
@@ -57,7 +85,7 @@ class WebConnectorService implements Service<Connector> {
     private final InjectedValue<WebServer> server = new InjectedValue<WebServer>();
 
     public WebConnectorService(String protocol, String scheme) {
-        if(protocol != null) this.protocol = protocol;
+        if(protocol != null) this.protocol = resolveProtocol(protocol);
         if(scheme != null) this.scheme = scheme;
     }
 
@@ -71,10 +99,9 @@ class WebConnectorService implements Service<Connector> {
         final SocketBinding binding = this.binding.getValue();
         final InetSocketAddress address = binding.getSocketAddress();
         try {
-            // Create connector
-            final Connector connector = new Connector();
+            // Create connector; the protocol handler is chosen when the connector is constructed
+            final Connector connector = new Connector(protocol);
             connector.setPort(address.getPort());
-            connector.setProtocol(protocol);
             connector.setScheme(scheme);
             if(enableLookups != null) connector.setEnableLookups(enableLookups);
             if(maxPostSize != null) connector.setMaxPostSize(maxPostSize);
@@ -83,17 +110,56 @@ class WebConnectorService implements Service<Connector> {
             if(proxyPort != null) connector.setProxyPort(proxyPort);
             if(redirectPort != null) connector.setRedirectPort(redirectPort);
             if(secure != null) connector.setSecure(secure);
-            // TODO set Executor on ProtocolHandler
+            if(maxKeepAliveRequests != null) connector.setProperty("maxKeepAliveRequests", maxKeepAliveRequests.toString());
+            if(keepAliveTimeout != null) connector.setProperty("keepAliveTimeout", keepAliveTimeout.toString());
+            final Executor executor = this.executor.getOptionalValue();
+            if(maxConnections != null) {
+                if(HTTP_NIO.equals(protocol) || HTTP_APR.equals(protocol)) {
+                    // the poller holds every open connection, whether or not a thread is working on it
+                    connector.setProperty("pollerSize", maxConnections.toString());
+                } else if(executor == null) {
+                    // the blocking connectors use one thread per connection
+                    connector.setProperty("maxThreads", maxConnections.toString());
+                } else {
+                    log.warnf("Ignoring max-connections for connector using protocol %s; its connections are limited by the size of its executor", protocol);
+                }
+            }
+            if(executor != null) setExecutor(connector.getProtocolHandler(), executor);
             // TODO use server socket factory - or integrate with {@code ManagedBinding}
 
             // Register connector, starts the connector automatically?
             getWebServer().addConnector(connector);
             this.connector = connector;
+        } catch (StartException e) {
+            throw e;
         } catch (Exception e) {
             throw new StartException(e);
         }
     }
 
+    private static String resolveProtocol(final String protocol) {
+        final String resolved = PROTOCOLS.get(protocol.toLowerCase(Locale.ENGLISH));
+        return resolved == null ? protocol : resolved;
+    }
+
+    /**
+     * Make the protocol handler use the given executor for its workers instead of creating its own pool.  The handler
+     * classes do not share an interface for this, so the setter is looked up by name.
+     */
+    private static void setExecutor(final ProtocolHandler handler, final Executor executor) throws StartException {
+        final Method method;
+        try {
+            method = handler.getClass().getMethod("setExecutor", Executor.class);
+        } catch (NoSuchMethodException e) {
+            throw new StartException("Protocol handler " + handler.getClass().getName() + " does not support an executor");
+        }
+        try {
+            method.invoke(handler, executor);
+        } catch (Exception e) {
+            throw new StartException("Failed to set the executor of protocol handler " + handler.getClass().getName(), e);
+        }
+    }
+
     /** {@inheritDoc} */
     public synchronized void stop(StopContext context) {
         final Connector connector = this.connector;
@@ -166,6 +232,30 @@ class WebConnectorService implements Service<Connector> {
         this.maxSavePostSize = maxSavePostSize;
     }
 
+    protected int getMaxConnections() {
+        return maxConnections;
+    }
+
+    protected void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    protected int getMaxKeepAliveRequests() {
+        return maxKeepAliveRequests;
+    }
+
+    protected void setMaxKeepAliveRequests(int maxKeepAliveRequests) {
+        this.maxKeepAliveRequests = maxKeepAliveRequests;
+    }
+
+    protected int getKeepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    protected void setKeepAliveTimeout(int keepAliveTimeout) {
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
     InjectedValue<Executor> getExecutor() {
         return executor;
     }
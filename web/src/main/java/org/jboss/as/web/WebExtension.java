@@ -56,6 +56,7 @@ public class WebExtension implements Extension {
         final ModelNodeRegistration registration = subsystem.registerSubsystemModel(WebSubsystemProviders.SUBSYSTEM);
         registration.registerOperationHandler(ADD, WebSubsystemAdd.INSTANCE, WebSubsystemProviders.SUBSYSTEM_ADD, false);
         registration.registerOperationHandler(DESCRIBE, WebSubsystemDescribe.INSTANCE, WebSubsystemProviders.SUBSYSTEM_DESCRIBE, false);
+        registration.registerOperationHandler(WebMetricsRead.OPERATION_NAME, WebMetricsRead.INSTANCE, WebSubsystemProviders.READ_METRICS, false);
         subsystem.registerXMLElementWriter(WebSubsystemParser.getInstance());
         // connector
         final ModelNodeRegistration connectors = registration.registerSubModel(connectorPath, WebSubsystemProviders.CONNECTOR);
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import org.apache.catalina.connector.Connector;
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.logging.Logger;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+
+/**
+ * Operation returning the metrics of all connectors and virtual hosts of the web subsystem in one result.  Each
+ * connector reports the request processor counters, read with a single JMX call, together with the active request
+ * count and latency percentiles recorded by the {@link RequestMetricsValve}.  Each virtual host reports everything
+ * recorded by the valve.
+ */
+class WebMetricsRead implements ModelQueryOperationHandler, RuntimeOperationHandler {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.web");
+
+    static final String OPERATION_NAME = "read-metrics";
+
+    static final WebMetricsRead INSTANCE = new WebMetricsRead();
+
+    private WebMetricsRead() {
+        //
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+        final ModelNode result = new ModelNode();
+        if (context instanceof RuntimeOperationContext) {
+            final ServiceRegistry registry = ((RuntimeOperationContext) context).getServiceRegistry();
+            final ServiceController<?> serverController = registry.getService(WebSubsystemServices.JBOSS_WEB);
+            // undefined result while the web server is not up, like a connector which is not up is left out
+            final Object server = serverController == null || serverController.getState() != ServiceController.State.UP ? null : serverController.getValue();
+            if (server instanceof WebServerService) {
+                final WebServerService webServer = (WebServerService) server;
+                final ModelNode subModel = context.getSubModel();
+                if (subModel.hasDefined(CommonAttributes.CONNECTOR)) {
+                    for (final Property connector : subModel.get(CommonAttributes.CONNECTOR).asPropertyList()) {
+                        final ServiceController<?> controller = registry.getService(WebSubsystemServices.JBOSS_WEB_CONNECTOR.append(connector.getName()));
+                        if (controller == null || controller.getState() != ServiceController.State.UP) {
+                            continue;
+                        }
+                        result.get(CommonAttributes.CONNECTOR, connector.getName()).set(getConnectorMetrics(webServer, (Connector) controller.getValue()));
+                    }
+                }
+                if (subModel.hasDefined(CommonAttributes.VIRTUAL_SERVER)) {
+                    for (final String host : subModel.get(CommonAttributes.VIRTUAL_SERVER).keys()) {
+                        result.get(CommonAttributes.VIRTUAL_SERVER, host).set(webServer.getHostMetrics(host).toModelNode());
+                    }
+                }
+            }
+        }
+        resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+
+    private static ModelNode getConnectorMetrics(final WebServerService webServer, final Connector connector) {
+        ModelNode metrics;
+        try {
+            metrics = WebConnectorMetrics.getAttributes(connector);
+        } catch (Exception e) {
+            log.debugf(e, "Failed to read request processor metrics of connector on port %d", Integer.valueOf(connector.getPort()));
+            metrics = new ModelNode();
+        }
+        // the processor already counts requests and time, so only add what it lacks
+        final ModelNode recorded = webServer.getConnectorMetrics(connector).toModelNode();
+        metrics.get(RequestMetrics.ACTIVE_REQUESTS).set(recorded.get(RequestMetrics.ACTIVE_REQUESTS));
+        metrics.get(RequestMetrics.LATENCY).set(recorded.get(RequestMetrics.LATENCY));
+        return metrics;
+    }
+}
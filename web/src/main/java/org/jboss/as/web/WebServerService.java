@@ -53,6 +53,7 @@ class WebServerService implements WebServer, Service<WebServer> {
     private Engine engine;
     private Catalina catalina;
     private StandardService service;
+    private RequestMetricsValve metricsValve;
 
     private final InjectedValue<MBeanServer> mbeanServer = new InjectedValue<MBeanServer>();
     private final InjectedValue<String> pathInjector = new InjectedValue<String>();
@@ -87,6 +88,9 @@ class WebServerService implements WebServer, Service<WebServer> {
 
         service.setContainer(engine);
 
+        final RequestMetricsValve metricsValve = new RequestMetricsValve();
+        engine.getPipeline().addValve(metricsValve);
+
         // final AprLifecycleListener apr = new AprLifecycleListener();
         //apr.setSSLEngine("on");
         // server.addLifecycleListener(apr);
@@ -102,6 +106,7 @@ class WebServerService implements WebServer, Service<WebServer> {
         this.catalina = catalina;
         this.service = service;
         this.engine = engine;
+        this.metricsValve = metricsValve;
     }
 
     /** {@inheritDoc} */
@@ -110,6 +115,7 @@ class WebServerService implements WebServer, Service<WebServer> {
         catalina.destroy();
         engine = null;
         service = null;
+        metricsValve = null;
         catalina = null;
     }
 
@@ -128,6 +134,7 @@ class WebServerService implements WebServer, Service<WebServer> {
     public synchronized void removeConnector(Connector connector) {
         final StandardService service = this.service;
         service.removeConnector(connector);
+        metricsValve.removeConnector(connector);
     }
 
     /** {@inheritDoc} */
@@ -146,6 +153,7 @@ class WebServerService implements WebServer, Service<WebServer> {
     public synchronized void removeHost(Host host) {
         final Engine engine = this.engine;
         engine.removeChild(host);
+        metricsValve.removeHost(host.getName());
         // FIXME: Hack, remove with next JBW build
         for (LifecycleListener listener : service.findLifecycleListeners()) {
             if (listener instanceof ServiceMapperListener) {
@@ -154,6 +162,26 @@ class WebServerService implements WebServer, Service<WebServer> {
         }
     }
 
+    /**
+     * Get the request metrics of a connector.
+     *
+     * @param connector the connector
+     * @return the metrics
+     */
+    synchronized RequestMetrics getConnectorMetrics(Connector connector) {
+        return metricsValve.getConnectorMetrics(connector);
+    }
+
+    /**
+     * Get the request metrics of a virtual host.
+     *
+     * @param name the host name
+     * @return the metrics
+     */
+    synchronized RequestMetrics getHostMetrics(String name) {
+        return metricsValve.getHostMetrics(name);
+    }
+
     InjectedValue<MBeanServer> getMbeanServer() {
         return mbeanServer;
     }
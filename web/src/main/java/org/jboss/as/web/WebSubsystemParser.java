@@ -44,8 +44,11 @@ import static org.jboss.as.web.CommonAttributes.ENABLE_LOOKUPS;
 import static org.jboss.as.web.CommonAttributes.EXECUTOR;
 import static org.jboss.as.web.CommonAttributes.FILE_ENCONDING;
 import static org.jboss.as.web.CommonAttributes.JSP_CONFIGURATION;
+import static org.jboss.as.web.CommonAttributes.KEEP_ALIVE_TIMEOUT;
 import static org.jboss.as.web.CommonAttributes.LISTINGS;
+import static org.jboss.as.web.CommonAttributes.MAX_CONNECTIONS;
 import static org.jboss.as.web.CommonAttributes.MAX_DEPTH;
+import static org.jboss.as.web.CommonAttributes.MAX_KEEP_ALIVE_REQUESTS;
 import static org.jboss.as.web.CommonAttributes.MAX_POST_SIZE;
 import static org.jboss.as.web.CommonAttributes.MAX_SAVE_POST_SIZE;
 import static org.jboss.as.web.CommonAttributes.MIME_MAPPING;
@@ -123,6 +126,9 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
                 writeAttribute(writer, Attribute.EXECUTOR.getLocalName(), config);
                 writeAttribute(writer, Attribute.MAX_POST_SIZE.getLocalName(), config);
                 writeAttribute(writer, Attribute.MAX_SAVE_POST_SIZE.getLocalName(), config);
+                writeAttribute(writer, Attribute.MAX_CONNECTIONS.getLocalName(), config);
+                writeAttribute(writer, Attribute.MAX_KEEP_ALIVE_REQUESTS.getLocalName(), config);
+                writeAttribute(writer, Attribute.KEEP_ALIVE_TIMEOUT.getLocalName(), config);
                 writer.writeEndElement();
             }
         }
@@ -447,6 +453,9 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         String maxSavePostSize = null;
         String secure = null;
         String redirectPort = null;
+        String maxConnections = null;
+        String maxKeepAliveRequests = null;
+        String keepAliveTimeout = null;
         final int count = reader.getAttributeCount();
         for (int i = 0; i < count; i++) {
             requireNoNamespaceAttribute(reader, i);
@@ -492,6 +501,15 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
             case REDIRECT_PORT:
                 redirectPort = value;
                 break;
+            case MAX_CONNECTIONS:
+                maxConnections = value;
+                break;
+            case MAX_KEEP_ALIVE_REQUESTS:
+                maxKeepAliveRequests = value;
+                break;
+            case KEEP_ALIVE_TIMEOUT:
+                keepAliveTimeout = value;
+                break;
             default:
                 unexpectedAttribute(reader, i);
             }
@@ -518,6 +536,9 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         if(maxSavePostSize != null) connector.get(MAX_SAVE_POST_SIZE).set(maxSavePostSize);
         if(secure != null) connector.get(SECURE).set(secure);
         if(redirectPort != null) connector.get(REDIRECT_PORT).set(redirectPort);
+        if(maxConnections != null) connector.get(MAX_CONNECTIONS).set(maxConnections);
+        if(maxKeepAliveRequests != null) connector.get(MAX_KEEP_ALIVE_REQUESTS).set(maxKeepAliveRequests);
+        if(keepAliveTimeout != null) connector.get(KEEP_ALIVE_TIMEOUT).set(keepAliveTimeout);
         list.add(connector);
     }
 
@@ -22,11 +22,18 @@
 
 package org.jboss.as.web;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * The web subsystem description providers.
@@ -70,6 +77,20 @@ class WebSubsystemProviders {
         }
     };
 
+    static final DescriptionProvider READ_METRICS = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode operation = new ModelNode();
+            operation.get(OPERATION_NAME).set(WebMetricsRead.OPERATION_NAME);
+            operation.get(DESCRIPTION).set(bundle.getString("web.read-metrics"));
+            operation.get(REQUEST_PROPERTIES).setEmptyObject();
+            operation.get(REPLY_PROPERTIES, TYPE).set(ModelType.OBJECT);
+            return operation;
+        }
+    };
+
     static final DescriptionProvider CONNECTOR = new DescriptionProvider() {
 
         public ModelNode getModelDescription(Locale locale) {
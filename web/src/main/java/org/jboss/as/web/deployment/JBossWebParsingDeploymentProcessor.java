@@ -30,18 +30,20 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.metadata.parser.jbossweb.JBossWebMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXmlResolver;
+import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.vfs.VirtualFile;
 
 /**
  * @author Jean-Frederic Clere
  */
-public class JBossWebParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class JBossWebParsingDeploymentProcessor implements ParallelDeploymentUnitProcessor {
 
     private static final String JBOSS_WEB_XML = "WEB-INF/jboss-web.xml";
 
@@ -55,13 +57,23 @@ public class JBossWebParsingDeploymentProcessor implements DeploymentUnitProcess
         WarMetaData warMetaData = deploymentUnit.getAttachment(WarMetaData.ATTACHMENT_KEY);
         assert warMetaData != null;
         if (jbossWebXml.exists()) {
+            final DeploymentMetadataCache cache = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
+            final JBossWebMetaData cached = cache == null ? null : cache.get(JBOSS_WEB_XML, JBossWebMetaData.class);
+            if (cached != null) {
+                warMetaData.setJbossWebMetaData(cached);
+                return;
+            }
             InputStream is = null;
             try {
                 is = jbossWebXml.openStream();
                 final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
                 inputFactory.setXMLResolver(NoopXmlResolver.create());
                 XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                warMetaData.setJbossWebMetaData(JBossWebMetaDataParser.parse(xmlReader));
+                final JBossWebMetaData jbossWebMetaData = JBossWebMetaDataParser.parse(xmlReader);
+                if (cache != null) {
+                    cache.put(JBOSS_WEB_XML, jbossWebMetaData);
+                }
+                warMetaData.setJbossWebMetaData(jbossWebMetaData);
             } catch (Exception e) {
                 throw new DeploymentUnitProcessingException("Failed to parse " + jbossWebXml, e);
             } finally {
@@ -32,10 +32,11 @@ import java.util.Map;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.jsp.TldMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXmlResolver;
@@ -45,7 +46,7 @@ import org.jboss.vfs.VirtualFile;
 /**
  * @author Remy Maucherat
  */
-public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class TldParsingDeploymentProcessor implements ParallelDeploymentUnitProcessor {
 
     private static final String TLD = ".tld";
     private static final String META_INF = "META-INF";
@@ -53,6 +54,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
     private static final String CLASSES = "classes";
     private static final String LIB = "lib";
     private static final String IMPLICIT_TLD = "implicit.tld";
+    private static final String TLDS_CACHE_NAME = "tlds";
 
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -65,7 +67,14 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
             tldsMetaData = new TldsMetaData();
             deploymentUnit.putAttachment(TldsMetaData.ATTACHMENT_KEY, tldsMetaData);
         }
-        Map<String, TldMetaData> tlds = new HashMap<String, TldMetaData>();
+        final DeploymentMetadataCache cache = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
+        @SuppressWarnings("unchecked")
+        final HashMap<String, TldMetaData> cached = cache == null ? null : cache.get(TLDS_CACHE_NAME, HashMap.class, TldMetaData.class.getClassLoader());
+        if (cached != null) {
+            tldsMetaData.setTlds(cached);
+            return;
+        }
+        HashMap<String, TldMetaData> tlds = new HashMap<String, TldMetaData>();
         tldsMetaData.setTlds(tlds);
         // TLDs are located in WEB-INF or any subdir (except the top level "classes" and "lib")
         // and in JARs from WEB-INF/lib, in META-INF or any subdir
@@ -89,6 +98,9 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
                 }
             }
         }
+        if (cache != null) {
+            cache.put(TLDS_CACHE_NAME, tlds);
+        }
     }
 
     public void undeploy(final DeploymentUnit context) {
@@ -35,6 +35,7 @@ import org.apache.catalina.core.StandardContext;
 import org.apache.catalina.startup.ContextConfig;
 import org.apache.tomcat.InstanceManager;
 import org.jboss.as.ee.naming.NamespaceSelectorService;
+import org.jboss.as.security.plugins.AuthorizationCache;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -174,6 +175,8 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
             AuthorizationManager authzM = getAuthorizationManager(securityDomain);
             realm.setAuthorizationManager(authzM);
 
+            realm.setAuthorizationCache(getAuthorizationCache(securityDomain));
+
             webContext.setRealm(realm);
         } catch (NamingException e1) {
             throw new RuntimeException(e1);
@@ -204,4 +207,10 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
         return (AuthorizationManager) ic.lookup(SecurityConstants.JAAS_CONTEXT_ROOT + "/" + secDomain + "/authorizationMgr");
     }
 
+    private AuthorizationCache getAuthorizationCache(String secDomain) throws NamingException {
+        InitialContext ic = new InitialContext();
+        Object cache = ic.lookup(SecurityConstants.JAAS_CONTEXT_ROOT + "/" + secDomain + "/authorizationCache");
+        return cache instanceof AuthorizationCache ? (AuthorizationCache) cache : null;
+    }
+
 }
@@ -33,10 +33,11 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.servlet.WebFragmentMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXmlResolver;
@@ -46,7 +47,7 @@ import org.jboss.vfs.VirtualFile;
 /**
  * @author Remy Maucherat
  */
-public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class WebFragmentParsingDeploymentProcessor implements ParallelDeploymentUnitProcessor {
 
     private static final String WEB_FRAGMENT_XML = "META-INF/web-fragment.xml";
 
@@ -62,6 +63,14 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
             webFragments = new HashMap<String, WebFragmentMetaData>();
             warMetaData.setWebFragmentsMetaData(webFragments);
         }
+        final DeploymentMetadataCache cache = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
+        @SuppressWarnings("unchecked")
+        final HashMap<String, WebFragmentMetaData> cached = cache == null ? null : cache.get(WEB_FRAGMENT_XML, HashMap.class, WebFragmentMetaData.class.getClassLoader());
+        if (cached != null) {
+            webFragments.putAll(cached);
+            return;
+        }
+        final HashMap<String, WebFragmentMetaData> parsed = new HashMap<String, WebFragmentMetaData>();
         List<ResourceRoot> resourceRoots = deploymentUnit.getAttachment(Attachments.RESOURCE_ROOTS);
         assert resourceRoots != null;
         for (ResourceRoot resourceRoot : resourceRoots) {
@@ -74,7 +83,7 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
                         final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
                         inputFactory.setXMLResolver(NoopXmlResolver.create());
                         XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                        webFragments.put(resourceRoot.getRootName(), WebFragmentMetaDataParser.parse(xmlReader));
+                        parsed.put(resourceRoot.getRootName(), WebFragmentMetaDataParser.parse(xmlReader));
                     } catch (Exception e) {
                         throw new DeploymentUnitProcessingException("Failed to parse " + webFragment, e);
                     } finally {
@@ -89,6 +98,10 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
                 }
             }
         }
+        webFragments.putAll(parsed);
+        if (cache != null) {
+            cache.put(WEB_FRAGMENT_XML, parsed);
+        }
     }
 
     public void undeploy(final DeploymentUnit context) {
@@ -30,20 +30,22 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelDeploymentUnitProcessor;
 
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.servlet.WebMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXmlResolver;
+import org.jboss.metadata.web.spec.WebMetaData;
 import org.jboss.vfs.VirtualFile;
 
 /**
  * @author Jean-Frederic Clere
  */
-public class WebParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class WebParsingDeploymentProcessor implements ParallelDeploymentUnitProcessor {
 
     private static final String WEB_XML = "WEB-INF/web.xml";
 
@@ -57,13 +59,23 @@ public class WebParsingDeploymentProcessor implements DeploymentUnitProcessor {
         WarMetaData warMetaData = deploymentUnit.getAttachment(WarMetaData.ATTACHMENT_KEY);
         assert warMetaData != null;
         if (webXml.exists()) {
+            final DeploymentMetadataCache cache = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
+            final WebMetaData cached = cache == null ? null : cache.get(WEB_XML, WebMetaData.class);
+            if (cached != null) {
+                warMetaData.setWebMetaData(cached);
+                return;
+            }
             InputStream is = null;
             try {
                 is = webXml.openStream();
                 final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
                 inputFactory.setXMLResolver(NoopXmlResolver.create());
                 XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                warMetaData.setWebMetaData(WebMetaDataParser.parse(xmlReader));
+                final WebMetaData webMetaData = WebMetaDataParser.parse(xmlReader);
+                if (cache != null) {
+                    cache.put(WEB_XML, webMetaData);
+                }
+                warMetaData.setWebMetaData(webMetaData);
             } catch (Exception e) {
                 throw new DeploymentUnitProcessingException("Failed to parse " + webXml, e);
             } finally {
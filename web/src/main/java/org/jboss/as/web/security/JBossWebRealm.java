@@ -24,12 +24,15 @@ package org.jboss.as.web.security;
 
 import java.security.Principal;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.security.auth.Subject;
 
 import org.apache.catalina.realm.GenericPrincipal;
 import org.apache.catalina.realm.RealmBase;
+import org.jboss.as.security.plugins.AuthorizationCache;
 import org.jboss.security.AuthenticationManager;
 import org.jboss.security.AuthorizationManager;
 import org.jboss.security.SecurityContext;
@@ -55,6 +58,11 @@ public class JBossWebRealm extends RealmBase {
      */
     protected AuthorizationManager authorizationManager = null;
 
+    /**
+     * The roles of recently authenticated users, or null if the security domain does not cache them
+     */
+    protected AuthorizationCache authorizationCache = null;
+
     /**
      * Set the {@code AuthenticationManager}
      *
@@ -73,6 +81,15 @@ public class JBossWebRealm extends RealmBase {
         this.authorizationManager = authorizationManager;
     }
 
+    /**
+     * Set the {@code AuthorizationCache}
+     *
+     * @param authorizationCache
+     */
+    public void setAuthorizationCache(AuthorizationCache authorizationCache) {
+        this.authorizationCache = authorizationCache;
+    }
+
     @Override
     public Principal authenticate(String username, String credentials) {
         if (username == null && credentials == null)
@@ -90,14 +107,21 @@ public class JBossWebRealm extends RealmBase {
             SecurityContext sc = SecurityActions.createSecurityContext(authenticationManager.getSecurityDomain());
             sc.getUtil().createSubjectInfo(userPrincipal, credentials, subject);
             SecurityActions.setSecurityContextOnAssociation(sc);
-            SecurityContextCallbackHandler scb = new SecurityContextCallbackHandler(sc);
-            RoleGroup roles = authorizationManager.getSubjectRoles(subject, scb);
-            List<Role> rolesAsList = roles.getRoles();
-            List<String> rolesAsStringList = new ArrayList<String>();
-            for (Role role : rolesAsList) {
-                rolesAsStringList.add(role.getRoleName());
+            Set<String> roleNames = authorizationCache != null ? authorizationCache.getRoles(username) : null;
+            if (roleNames == null) {
+                // read before mapping, so roles mapped while the user's authentication is invalidated are not cached
+                long generation = authorizationCache != null ? authorizationCache.getGeneration(username) : 0;
+                SecurityContextCallbackHandler scb = new SecurityContextCallbackHandler(sc);
+                RoleGroup roles = authorizationManager.getSubjectRoles(subject, scb);
+                List<Role> rolesAsList = roles.getRoles();
+                roleNames = new HashSet<String>();
+                for (Role role : rolesAsList) {
+                    roleNames.add(role.getRoleName());
+                }
+                if (authorizationCache != null)
+                    authorizationCache.putRoles(username, roleNames, generation);
             }
-            return new GenericPrincipal(this, username, credentials, rolesAsStringList);
+            return new GenericPrincipal(this, username, credentials, new ArrayList<String>(roleNames));
         }
 
         return super.authenticate(username, credentials);
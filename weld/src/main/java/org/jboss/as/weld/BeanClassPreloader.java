@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.weld;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jboss.as.weld.deployment.BeanDeploymentArchiveImpl;
+import org.jboss.logging.Logger;
+import org.jboss.weld.bootstrap.spi.BeanDeploymentArchive;
+
+/**
+ * Loads the bean classes of a deployment and their reflection data on several threads before Weld is started.
+ * <p>
+ * Weld bootstraps all bean deployment archives of a deployment on a single thread, and most of that time is spent
+ * loading bean classes and reading their members and annotations. Doing this work up front in parallel means Weld
+ * finds the classes already defined and the reflection data already cached by the JVM. The calling thread takes part
+ * in the work, so progress is made even if the executor has no free threads.
+ * <p>
+ * Failures are ignored, Weld reports them when it loads the class itself.
+ * <p>
+ * Thread Safety: This class is thread safe
+ */
+class BeanClassPreloader {
+
+    private static final Logger log = Logger.getLogger("org.jboss.weld");
+
+    /**
+     * The number of classes loaded by a single task
+     */
+    private static final int BATCH_SIZE = 32;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    BeanClassPreloader(Executor executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Loads the bean classes of the given archives, returning once all of them have been processed
+     */
+    void preload(Collection<BeanDeploymentArchive> archives) {
+        final Queue<Batch> batches = new ConcurrentLinkedQueue<Batch>();
+        for (BeanDeploymentArchive archive : archives) {
+            if (archive instanceof BeanDeploymentArchiveImpl) {
+                final ClassLoader classLoader = ((BeanDeploymentArchiveImpl) archive).getModule().getClassLoader();
+                List<String> classNames = new ArrayList<String>(BATCH_SIZE);
+                for (String className : archive.getBeanClasses()) {
+                    classNames.add(className);
+                    if (classNames.size() == BATCH_SIZE) {
+                        batches.add(new Batch(classLoader, classNames));
+                        classNames = new ArrayList<String>(BATCH_SIZE);
+                    }
+                }
+                if (!classNames.isEmpty()) {
+                    batches.add(new Batch(classLoader, classNames));
+                }
+            }
+        }
+        final Worker worker = new Worker(batches);
+        final int threads = Math.min(parallelism, batches.size());
+        for (int i = 1; i < threads; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                log.debugf("Bean class preloading rejected by executor, continuing with %d threads", Integer.valueOf(i));
+                break;
+            }
+        }
+        worker.run();
+        worker.awaitCompletion();
+    }
+
+    private static final class Batch {
+        private final ClassLoader classLoader;
+        private final List<String> classNames;
+
+        Batch(ClassLoader classLoader, List<String> classNames) {
+            this.classLoader = classLoader;
+            this.classNames = classNames;
+        }
+
+        void load() {
+            for (String className : classNames) {
+                try {
+                    final Class<?> clazz = Class.forName(className, false, classLoader);
+                    // these are the members Weld introspects, the JVM caches them per class
+                    clazz.getAnnotations();
+                    clazz.getDeclaredConstructors();
+                    clazz.getDeclaredFields();
+                    clazz.getDeclaredMethods();
+                } catch (ClassNotFoundException e) {
+                    log.tracef(e, "Could not preload bean class %s", className);
+                } catch (LinkageError e) {
+                    log.tracef(e, "Could not preload bean class %s", className);
+                } catch (RuntimeException e) {
+                    log.tracef(e, "Could not preload bean class %s", className);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes batches until the queue is empty. The same instance is run by every participating thread.
+     */
+    private static final class Worker implements Runnable {
+        private final Queue<Batch> batches;
+        // protected by this
+        private int running;
+
+        Worker(Queue<Batch> batches) {
+            this.batches = batches;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                running++;
+            }
+            try {
+                Batch batch;
+                while ((batch = batches.poll()) != null) {
+                    batch.load();
+                }
+            } finally {
+                synchronized (this) {
+                    running--;
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Waits for the threads still working on a batch. Threads which start after the queue has been drained find
+         * nothing to do, so they are not waited for.
+         */
+        synchronized void awaitCompletion() {
+            boolean interrupted = false;
+            while (running > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -24,8 +24,11 @@ package org.jboss.as.weld;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import javax.enterprise.inject.spi.BeanManager;
 
@@ -50,6 +53,9 @@ public class WeldContainer {
     private final Environment environment;
     private final Map<String, BeanDeploymentArchive> beanDeploymentArchives;
     private volatile boolean started;
+    private volatile Map<String, Long> bootstrapTimings = Collections.emptyMap();
+    private volatile Executor bootstrapExecutor;
+    private volatile int bootstrapParallelism;
 
     public WeldContainer(WeldDeployment deployment, Environment environment) {
         this.deployment = deployment;
@@ -75,11 +81,24 @@ public class WeldContainer {
         ClassLoader oldTccl = SecurityActions.getContextClassLoader();
         try {
             SecurityActions.setContextClassLoader(deployment.getModule().getClassLoader());
+            final Map<String, Long> timings = new LinkedHashMap<String, Long>();
+            long time = System.nanoTime();
+            final Executor executor = bootstrapExecutor;
+            if (executor != null && bootstrapParallelism > 1) {
+                new BeanClassPreloader(executor, bootstrapParallelism).preload(beanDeploymentArchives.values());
+                time = recordTiming(timings, "preload-bean-classes", time);
+            }
             bootstrap.startContainer(environment, deployment);
+            time = recordTiming(timings, "start-container", time);
             bootstrap.startInitialization();
+            time = recordTiming(timings, "start-initialization", time);
             bootstrap.deployBeans();
+            time = recordTiming(timings, "deploy-beans", time);
             bootstrap.validateBeans();
+            time = recordTiming(timings, "validate-beans", time);
             bootstrap.endInitialization();
+            recordTiming(timings, "end-initialization", time);
+            bootstrapTimings = Collections.unmodifiableMap(timings);
             started = true;
         } finally {
             SecurityActions.setContextClassLoader(oldTccl);
@@ -87,6 +106,12 @@ public class WeldContainer {
 
     }
 
+    private static long recordTiming(Map<String, Long> timings, String phase, long start) {
+        final long end = System.nanoTime();
+        timings.put(phase, Long.valueOf(TimeUnit.NANOSECONDS.toMillis(end - start)));
+        return end;
+    }
+
     /**
      * Stops the container
      *
@@ -145,6 +170,21 @@ public class WeldContainer {
         deployment.getServices().add(type, service);
     }
 
+    /**
+     * Sets the executor used to load bean classes on several threads before Weld is started. This method must not be
+     * called after the container has started
+     *
+     * @param executor the executor, or null to load bean classes on the starting thread only
+     * @param parallelism the maximum number of threads loading bean classes, including the starting thread
+     */
+    public void setBootstrapExecutor(Executor executor, int parallelism) {
+        if (started) {
+            throw new IllegalStateException("the bootstrap executor cannot be set after weld has started");
+        }
+        this.bootstrapExecutor = executor;
+        this.bootstrapParallelism = parallelism;
+    }
+
     /**
      * Gets the {@link BeanManager} linked to the additional classes bean deployment archive. This BeanManager has access to all
      * beans in a deployment
@@ -165,6 +205,14 @@ public class WeldContainer {
         return new HashSet<BeanDeploymentArchive>(beanDeploymentArchives.values());
     }
 
+    /**
+     * Gets the time in milliseconds taken by each phase of the last container start, in the order the phases ran.
+     * The map is empty if the container has never been started.
+     */
+    public Map<String, Long> getBootstrapTimings() {
+        return bootstrapTimings;
+    }
+
     public boolean isStarted() {
         return started;
     }
@@ -26,8 +26,12 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIBE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
-import static org.jboss.as.controller.parsing.ParseUtils.requireNoAttributes;
+import static org.jboss.as.controller.parsing.ParseUtils.parseBoundedIntegerAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoContent;
+import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttribute;
+import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
+import static org.jboss.as.weld.CommonAttributes.BOOTSTRAP_EXECUTOR;
+import static org.jboss.as.weld.CommonAttributes.BOOTSTRAP_PARALLELISM;
 
 import java.util.List;
 import java.util.Locale;
@@ -100,10 +104,22 @@ public class WeldExtension implements Extension {
         /** {@inheritDoc} */
         @Override
         public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> list) throws XMLStreamException {
-            // Require no attributes or content
-            requireNoAttributes(reader);
+            final ModelNode subsystem = createAddSubSystemOperation();
+            final int count = reader.getAttributeCount();
+            for (int i = 0; i < count; i++) {
+                requireNoNamespaceAttribute(reader, i);
+                final String name = reader.getAttributeLocalName(i);
+                if (BOOTSTRAP_EXECUTOR.equals(name)) {
+                    subsystem.get(BOOTSTRAP_EXECUTOR).set(reader.getAttributeValue(i));
+                } else if (BOOTSTRAP_PARALLELISM.equals(name)) {
+                    subsystem.get(BOOTSTRAP_PARALLELISM).set(parseBoundedIntegerAttribute(reader, i, 1, Integer.MAX_VALUE));
+                } else {
+                    throw unexpectedAttribute(reader, i);
+                }
+            }
+            // Require no content
             requireNoContent(reader);
-            list.add(createAddSubSystemOperation());
+            list.add(subsystem);
         }
 
         /** {@inheritDoc} */
@@ -112,6 +128,13 @@ public class WeldExtension implements Extension {
             //TODO seems to be a problem with empty elements cleaning up the queue in FormattingXMLStreamWriter.runAttrQueue
             //context.startSubsystemElement(NewWeldExtension, true);
             context.startSubsystemElement(WeldExtension.NAMESPACE, false);
+            final ModelNode node = context.getModelNode();
+            if (node.hasDefined(BOOTSTRAP_EXECUTOR)) {
+                streamWriter.writeAttribute(BOOTSTRAP_EXECUTOR, node.get(BOOTSTRAP_EXECUTOR).asString());
+            }
+            if (node.hasDefined(BOOTSTRAP_PARALLELISM)) {
+                streamWriter.writeAttribute(BOOTSTRAP_PARALLELISM, node.get(BOOTSTRAP_PARALLELISM).asString());
+            }
             streamWriter.writeEndElement();
         }
 
@@ -135,8 +158,16 @@ public class WeldExtension implements Extension {
         static final WeldSubsystemDescribeHandler INSTANCE = new WeldSubsystemDescribeHandler();
         @Override
         public Cancellable execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
+            final ModelNode subsystem = createAddSubSystemOperation();
+            final ModelNode model = context.getSubModel();
+            if (model.hasDefined(BOOTSTRAP_EXECUTOR)) {
+                subsystem.get(BOOTSTRAP_EXECUTOR).set(model.get(BOOTSTRAP_EXECUTOR));
+            }
+            if (model.hasDefined(BOOTSTRAP_PARALLELISM)) {
+                subsystem.get(BOOTSTRAP_PARALLELISM).set(model.get(BOOTSTRAP_PARALLELISM));
+            }
             ModelNode node = new ModelNode();
-            node.add(createAddSubSystemOperation());
+            node.add(subsystem);
 
             resultHandler.handleResultFragment(Util.NO_LOCATION, node);
             resultHandler.handleResultComplete(new ModelNode());
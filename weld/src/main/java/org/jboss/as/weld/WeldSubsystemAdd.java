@@ -23,6 +23,8 @@
 package org.jboss.as.weld;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.weld.CommonAttributes.BOOTSTRAP_EXECUTOR;
+import static org.jboss.as.weld.CommonAttributes.BOOTSTRAP_PARALLELISM;
 
 import org.jboss.as.controller.Cancellable;
 import org.jboss.as.controller.ModelAddOperationHandler;
@@ -58,6 +60,14 @@ class WeldSubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
 
         final ModelNode compensatingOperation = Util.getResourceRemoveOperation(operation.require(OP_ADDR));
 
+        final String bootstrapExecutor = operation.hasDefined(BOOTSTRAP_EXECUTOR) ? operation.get(BOOTSTRAP_EXECUTOR).asString() : null;
+        final int bootstrapParallelism = operation.hasDefined(BOOTSTRAP_PARALLELISM) ? operation.get(BOOTSTRAP_PARALLELISM).asInt()
+                : Runtime.getRuntime().availableProcessors();
+        if (bootstrapParallelism < 1) {
+            resultHandler.handleFailed(new ModelNode().set(BOOTSTRAP_PARALLELISM + " must be at least 1, was " + bootstrapParallelism));
+            return Cancellable.NULL;
+        }
+
         if(context instanceof BootOperationContext) {
             final BootOperationContext bootContext = (BootOperationContext) context;
             SingletonProvider.initialize(new TCCLSingletonProvider());
@@ -65,11 +75,18 @@ class WeldSubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
             bootContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_WELD_DEPLOYMENT, new BeansXmlProcessor());
             bootContext.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_WELD_WEB_INTEGRATION, new WebIntegrationProcessor());
             bootContext.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_WELD_BEAN_ARCHIVE, new BeanArchiveProcessor());
-            bootContext.addDeploymentProcessor(Phase.INSTALL, Phase.INSTALL_WELD_DEPLOYMENT, new WeldDeploymentProcessor());
+            bootContext.addDeploymentProcessor(Phase.INSTALL, Phase.INSTALL_WELD_DEPLOYMENT, new WeldDeploymentProcessor(bootstrapExecutor, bootstrapParallelism));
             bootContext.addDeploymentProcessor(Phase.INSTALL, Phase.INSTALL_WELD_BEAN_MANAGER, new WeldBeanManagerServiceProcessor());
         }
 
-        context.getSubModel().setEmptyObject();
+        final ModelNode subModel = context.getSubModel();
+        subModel.setEmptyObject();
+        if (operation.hasDefined(BOOTSTRAP_EXECUTOR)) {
+            subModel.get(BOOTSTRAP_EXECUTOR).set(operation.get(BOOTSTRAP_EXECUTOR));
+        }
+        if (operation.hasDefined(BOOTSTRAP_PARALLELISM)) {
+            subModel.get(BOOTSTRAP_PARALLELISM).set(operation.get(BOOTSTRAP_PARALLELISM));
+        }
 
         resultHandler.handleResultComplete(compensatingOperation);
 
@@ -22,12 +22,19 @@
 
 package org.jboss.as.weld;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.weld.CommonAttributes.BOOTSTRAP_EXECUTOR;
+import static org.jboss.as.weld.CommonAttributes.BOOTSTRAP_PARALLELISM;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 
 /**
@@ -41,6 +48,12 @@ class WeldSubsystemProviders {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode subsystem = new ModelNode();
         subsystem.get(DESCRIPTION).set(bundle.getString("weld"));
+        subsystem.get(ATTRIBUTES, BOOTSTRAP_EXECUTOR, DESCRIPTION).set(bundle.getString("weld.bootstrap-executor"));
+        subsystem.get(ATTRIBUTES, BOOTSTRAP_EXECUTOR, TYPE).set(ModelType.STRING);
+        subsystem.get(ATTRIBUTES, BOOTSTRAP_EXECUTOR, REQUIRED).set(false);
+        subsystem.get(ATTRIBUTES, BOOTSTRAP_PARALLELISM, DESCRIPTION).set(bundle.getString("weld.bootstrap-parallelism"));
+        subsystem.get(ATTRIBUTES, BOOTSTRAP_PARALLELISM, TYPE).set(ModelType.INT);
+        subsystem.get(ATTRIBUTES, BOOTSTRAP_PARALLELISM, REQUIRED).set(false);
         return subsystem;
     }
 
@@ -48,6 +61,12 @@ class WeldSubsystemProviders {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode subsystem = new ModelNode();
         subsystem.get(DESCRIPTION).set(bundle.getString("weld.add"));
+        subsystem.get(REQUEST_PROPERTIES, BOOTSTRAP_EXECUTOR, DESCRIPTION).set(bundle.getString("weld.bootstrap-executor"));
+        subsystem.get(REQUEST_PROPERTIES, BOOTSTRAP_EXECUTOR, TYPE).set(ModelType.STRING);
+        subsystem.get(REQUEST_PROPERTIES, BOOTSTRAP_EXECUTOR, REQUIRED).set(false);
+        subsystem.get(REQUEST_PROPERTIES, BOOTSTRAP_PARALLELISM, DESCRIPTION).set(bundle.getString("weld.bootstrap-parallelism"));
+        subsystem.get(REQUEST_PROPERTIES, BOOTSTRAP_PARALLELISM, TYPE).set(ModelType.INT);
+        subsystem.get(REQUEST_PROPERTIES, BOOTSTRAP_PARALLELISM, REQUIRED).set(false);
         return subsystem;
     }
 
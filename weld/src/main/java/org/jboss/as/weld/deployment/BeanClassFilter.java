@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.weld.deployment;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+
+/**
+ * Classifies the classes of a bean archive using the annotation index, so that classes which can never be beans are
+ * not handed to Weld as bean classes. Weld loads and introspects every bean class during bootstrap; classes which
+ * are filtered out here are only loaded if the application actually uses them.
+ * <p>
+ * Annotation types and {@code package-info} classes are always filtered, as Weld ignores them once loaded. Interfaces,
+ * enums, anonymous and local classes and abstract classes other than decorators are not beans either, but portable
+ * extensions still observe a {@code ProcessAnnotatedType} event for them, so they are only filtered when no portable
+ * extension is present.
+ * <p>
+ * Thread Safety: This class is immutable
+ */
+public final class BeanClassFilter {
+
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    private static final DotName DECORATOR = DotName.createSimple("javax.decorator.Decorator");
+
+    /**
+     * Filter used when portable extensions are present, which keeps every type extensions may observe
+     */
+    public static final BeanClassFilter WITH_EXTENSIONS = new BeanClassFilter(false);
+
+    /**
+     * Filter used when no portable extensions are present
+     */
+    public static final BeanClassFilter WITHOUT_EXTENSIONS = new BeanClassFilter(true);
+
+    private final boolean filterNonBeans;
+
+    private BeanClassFilter(boolean filterNonBeans) {
+        this.filterNonBeans = filterNonBeans;
+    }
+
+    /**
+     * Returns true if the class should be passed to Weld as a bean class
+     */
+    public boolean accept(ClassInfo classInfo) {
+        final int flags = classInfo.flags();
+        if ((flags & ACC_ANNOTATION) != 0 || classInfo.name().local().endsWith("package-info")) {
+            return false;
+        }
+        if (!filterNonBeans) {
+            return true;
+        }
+        if ((flags & (ACC_INTERFACE | ACC_ENUM)) != 0 || isAnonymousOrLocal(classInfo.name().toString())) {
+            return false;
+        }
+        return (flags & ACC_ABSTRACT) == 0 || isDecorator(classInfo);
+    }
+
+    private static boolean isAnonymousOrLocal(String className) {
+        final int index = className.lastIndexOf('$');
+        return index != -1 && index + 1 < className.length() && Character.isDigit(className.charAt(index + 1));
+    }
+
+    private static boolean isDecorator(ClassInfo classInfo) {
+        final Map<DotName, List<AnnotationInstance>> annotations = classInfo.annotations();
+        final List<AnnotationInstance> instances = annotations == null ? null : annotations.get(DECORATOR);
+        if (instances != null) {
+            for (AnnotationInstance instance : instances) {
+                if (instance.target() instanceof ClassInfo) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -36,6 +36,7 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.web.deployment.WarDeploymentMarker;
 import org.jboss.as.weld.WeldDeploymentMarker;
 import org.jboss.as.weld.deployment.BeanArchiveMetadata;
+import org.jboss.as.weld.deployment.BeanClassFilter;
 import org.jboss.as.weld.deployment.BeanDeploymentArchiveImpl;
 import org.jboss.as.weld.deployment.WeldDeploymentMetadata;
 import org.jboss.jandex.ClassInfo;
@@ -57,6 +58,8 @@ public class BeanArchiveProcessor implements DeploymentUnitProcessor {
 
     private static final Logger log = Logger.getLogger("org.jboss.weld");
 
+    private static final String EXTENSION_SERVICE = "META-INF/services/javax.enterprise.inject.spi.Extension";
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -72,13 +75,15 @@ public class BeanArchiveProcessor implements DeploymentUnitProcessor {
         final Map<ResourceRoot, Index> indexes = AnnotationIndexUtils.getAnnotationIndexes(deploymentUnit);
 
         final Module module = phaseContext.getDeploymentUnit().getAttachment(Attachments.MODULE);
+        final BeanClassFilter filter = hasPortableExtensions(deploymentUnit) ? BeanClassFilter.WITH_EXTENSIONS
+                : BeanClassFilter.WITHOUT_EXTENSIONS;
         boolean rootArchiveFound = false;
         if (cdiDeploymentMetadata != null) {
             // this can be null for ear deployments
             // however we still want to create a module level bean manager
             for (BeanArchiveMetadata beanArchiveMetadata : cdiDeploymentMetadata.getBeanArchiveMetadata()) {
                 BeanDeploymentArchiveImpl bda = createBeanDeploymentArchive(indexes.get(beanArchiveMetadata.getResourceRoot()),
-                        beanArchiveMetadata, module, isolatedModule);
+                        beanArchiveMetadata, module, isolatedModule, filter);
                 BeanDeploymentArchiveImpl.attachToDeployment(deploymentUnit, bda);
                 if (beanArchiveMetadata.isDeploymentRoot()) {
                     rootArchiveFound = true;
@@ -95,19 +100,42 @@ public class BeanArchiveProcessor implements DeploymentUnitProcessor {
     }
 
     private BeanDeploymentArchiveImpl createBeanDeploymentArchive(final Index index,
-            BeanArchiveMetadata beanArchiveMetadata, Module module, boolean isolatedModule) throws DeploymentUnitProcessingException {
+            BeanArchiveMetadata beanArchiveMetadata, Module module, boolean isolatedModule, BeanClassFilter filter)
+            throws DeploymentUnitProcessingException {
 
         Set<String> classNames = new HashSet<String>();
         // index may be null if a war has a beans.xml but no WEB-INF/classes
         if (index != null) {
+            int known = 0;
             for (ClassInfo classInfo : index.getKnownClasses()) {
-                classNames.add(classInfo.name().toString());
+                known++;
+                if (filter.accept(classInfo)) {
+                    classNames.add(classInfo.name().toString());
+                }
             }
+            log.debugf("Bean archive %s: %d of %d classes are bean class candidates", beanArchiveMetadata
+                    .getResourceRoot().getRootName(), Integer.valueOf(classNames.size()), Integer.valueOf(known));
         }
         return new BeanDeploymentArchiveImpl(classNames, beanArchiveMetadata.getBeansXml(), module, beanArchiveMetadata
                 .getResourceRoot().getRootName(),isolatedModule);
     }
 
+    /**
+     * Returns true if a portable extension may be visible to the deployment. Weld loads extensions from the class
+     * loader of the top level deployment, and a sub deployment may provide its own.
+     */
+    private boolean hasPortableExtensions(DeploymentUnit deploymentUnit) {
+        DeploymentUnit unit = deploymentUnit;
+        while (unit != null) {
+            final Module module = unit.getAttachment(Attachments.MODULE);
+            if (module != null && module.getClassLoader().getResource(EXTENSION_SERVICE) != null) {
+                return true;
+            }
+            unit = unit.getParent();
+        }
+        return false;
+    }
+
     @Override
     public void undeploy(DeploymentUnit context) {
 
@@ -24,6 +24,7 @@ package org.jboss.as.weld.deployment.processors;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.enterprise.inject.spi.Extension;
 import javax.transaction.TransactionManager;
@@ -34,6 +35,7 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.threads.ThreadsServices;
 import org.jboss.as.txn.TransactionManagerService;
 import org.jboss.as.txn.UserTransactionService;
 import org.jboss.as.weld.WeldContainer;
@@ -68,6 +70,24 @@ public class WeldDeploymentProcessor implements DeploymentUnitProcessor {
 
     private static final Logger log = Logger.getLogger("org.jboss.weld");
 
+    private final String bootstrapExecutor;
+
+    private final int bootstrapParallelism;
+
+    public WeldDeploymentProcessor() {
+        this(null, 1);
+    }
+
+    /**
+     * @param bootstrapExecutor the name of the threads subsystem executor used to load bean classes in parallel, may
+     *        be null
+     * @param bootstrapParallelism the maximum number of threads loading bean classes of a deployment
+     */
+    public WeldDeploymentProcessor(String bootstrapExecutor, int bootstrapParallelism) {
+        this.bootstrapExecutor = bootstrapExecutor;
+        this.bootstrapParallelism = bootstrapParallelism;
+    }
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -115,7 +135,7 @@ public class WeldDeploymentProcessor implements DeploymentUnitProcessor {
 
         final WeldContainer weldContainer = new WeldContainer(deployment, Environments.EE_INJECT);
 
-        final WeldService weldService = new WeldService(weldContainer);
+        final WeldService weldService = new WeldService(weldContainer, bootstrapParallelism);
         final ServiceName weldServiceName = deploymentUnit.getServiceName().append(WeldService.SERVICE_NAME);
         // add the weld service
         final ServiceBuilder<WeldContainer> weldServiceBuilder = serviceTarget.addService(weldServiceName, weldService);
@@ -128,6 +148,10 @@ public class WeldDeploymentProcessor implements DeploymentUnitProcessor {
         installTransactionService(serviceTarget, deploymentUnit, weldService, weldServiceBuilder);
         installValidationService(serviceTarget, deploymentUnit, weldService, weldServiceBuilder);
 
+        if (bootstrapExecutor != null) {
+            weldServiceBuilder.addDependency(ThreadsServices.executorName(bootstrapExecutor), Executor.class, weldService
+                    .getBootstrapExecutor());
+        }
         weldServiceBuilder.install();
 
 
@@ -21,6 +21,9 @@
  */
 package org.jboss.as.weld.services;
 
+import java.util.Map;
+import java.util.concurrent.Executor;
+
 import org.jboss.as.weld.WeldContainer;
 import org.jboss.as.weld.services.bootstrap.WeldEjbInjectionServices;
 import org.jboss.as.weld.services.bootstrap.WeldEjbServices;
@@ -61,6 +64,8 @@ public class WeldService implements Service<WeldContainer> {
 
     private final WeldContainer weldContainer;
 
+    private final int bootstrapParallelism;
+
     private final InjectedValue<WeldEjbInjectionServices> ejbInjectionServices = new InjectedValue<WeldEjbInjectionServices>();
     private final InjectedValue<WeldEjbServices> ejbServices = new InjectedValue<WeldEjbServices>();
     private final InjectedValue<WeldJpaInjectionServices> jpaInjectionServices = new InjectedValue<WeldJpaInjectionServices>();
@@ -68,9 +73,19 @@ public class WeldService implements Service<WeldContainer> {
     private final InjectedValue<WeldSecurityServices> securityServices = new InjectedValue<WeldSecurityServices>();
     private final InjectedValue<WeldTransactionServices> weldTransactionServices = new InjectedValue<WeldTransactionServices>();
     private final InjectedValue<WeldValidationServices> validationServices = new InjectedValue<WeldValidationServices>();
+    private final InjectedValue<Executor> bootstrapExecutor = new InjectedValue<Executor>();
 
     public WeldService(WeldContainer weldContainer) {
+        this(weldContainer, 1);
+    }
+
+    /**
+     * @param weldContainer the container
+     * @param bootstrapParallelism the number of threads loading bean classes if a bootstrap executor is injected
+     */
+    public WeldService(WeldContainer weldContainer, int bootstrapParallelism) {
         this.weldContainer = weldContainer;
+        this.bootstrapParallelism = bootstrapParallelism;
     }
 
     @Override
@@ -88,8 +103,16 @@ public class WeldService implements Service<WeldContainer> {
             bda.getServices().add(JpaInjectionServices.class, jpaInjectionServices.getValue());
             bda.getServices().add(ResourceInjectionServices.class, resourceInjectionServices.getValue());
         }
+        weldContainer.setBootstrapExecutor(bootstrapExecutor.getOptionalValue(), bootstrapParallelism);
         // start weld
         weldContainer.start();
+        if (log.isDebugEnabled()) {
+            long total = 0;
+            for (Long time : weldContainer.getBootstrapTimings().values()) {
+                total += time.longValue();
+            }
+            log.debugf("Weld bootstrap took %d ms: %s", Long.valueOf(total), weldContainer.getBootstrapTimings());
+        }
     }
 
     @Override
@@ -98,6 +121,13 @@ public class WeldService implements Service<WeldContainer> {
         weldContainer.stop();
     }
 
+    /**
+     * Gets the time in milliseconds taken by each Weld bootstrap phase, in the order the phases ran
+     */
+    public Map<String, Long> getBootstrapTimings() {
+        return weldContainer.getBootstrapTimings();
+    }
+
     @Override
     public WeldContainer getValue() throws IllegalStateException {
         return weldContainer;
@@ -131,4 +161,8 @@ public class WeldService implements Service<WeldContainer> {
         return validationServices;
     }
 
+    public InjectedValue<Executor> getBootstrapExecutor() {
+        return bootstrapExecutor;
+    }
+
 }